@@ -0,0 +1,62 @@
+package com.example.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Installs the trigger that stamps transactions.change_xid with the id of the writing database transaction
+ * (PostgreSQL 13+). Delta sync orders by that column and stops below the oldest running writer, so unlike an
+ * app-stamped timestamp it cannot skip a row committed late by a slow writer. The stamp only moves when a
+ * column clients receive changes; anomaly scores and fingerprint backfills leave it alone.
+ * Archived rows keep the stamp they had when they were moved, and transactions_archive has no trigger.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionChangeXidMigration {
+
+    static final String TRIGGER = "transactions_change_xid";
+
+    private static final String FUNCTION_SQL = """
+            CREATE OR REPLACE FUNCTION transactions_change_xid() RETURNS trigger AS $$
+            BEGIN
+                IF TG_OP = 'INSERT' OR (NEW.sms_id, NEW.txn_date, NEW.amount, NEW.merchant, NEW.payment_type,
+                        NEW.transaction_type, NEW.category_id, NEW.notes, NEW.is_deleted, NEW.duplicate_of_id)
+                        IS DISTINCT FROM (OLD.sms_id, OLD.txn_date, OLD.amount, OLD.merchant, OLD.payment_type,
+                        OLD.transaction_type, OLD.category_id, OLD.notes, OLD.is_deleted, OLD.duplicate_of_id) THEN
+                    NEW.change_xid := pg_current_xact_id()::text::bigint;
+                END IF;
+                RETURN NEW;
+            END $$ LANGUAGE plpgsql
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            installTrigger();
+            // Superseded by the change_xid indexes
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_transactions_updated_at");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_transactions_archive_updated_at");
+            log.info("Transaction change_xid trigger installed.");
+        } catch (Exception ex) {
+            log.error("Transaction change_xid migration failed", ex);
+        }
+    }
+
+    /**
+     * (Re)creates the stamping trigger on the current transactions table. Also called when a
+     * replacement table is swapped in, since triggers stay with the table they were created on.
+     */
+    public void installTrigger() {
+        jdbcTemplate.execute(FUNCTION_SQL);
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + TRIGGER + " ON transactions");
+        jdbcTemplate.execute("CREATE TRIGGER " + TRIGGER + " BEFORE INSERT OR UPDATE ON transactions " +
+                "FOR EACH ROW EXECUTE FUNCTION " + TRIGGER + "()");
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.backend.config;
+
+import com.example.backend.repositories.TransactionJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the fingerprint column for rows written before it existed. Runs in short batches walking
+ * the primary key so it never holds long locks, and is a no-op once every row has a fingerprint.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionFingerprintMigration {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillFingerprints() {
+        backfill("transactions");
+        backfill("transactions_archive");
+    }
+
+    private void backfill(String table) {
+        try {
+            int batches = 0;
+            Long lastId = 0L;
+            while ((lastId = transactionJdbcRepository.backfillFingerprints(table, lastId, BATCH_SIZE)) != null) {
+                batches++;
+            }
+            if (batches > 0) {
+                log.info("Transaction fingerprint backfill on {} completed in {} batches of up to {} rows.",
+                        table, batches, BATCH_SIZE);
+            }
+        } catch (Exception ex) {
+            log.error("Transaction fingerprint backfill on {} failed", table, ex);
+        }
+    }
+}
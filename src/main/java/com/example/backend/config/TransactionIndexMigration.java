@@ -0,0 +1,84 @@
+package com.example.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Creates the indexes the transaction read paths rely on. Hibernate's ddl-auto only manages
+ * columns and constraints, so anything expression-, operator-class- or predicate-based lives here.
+ * Every statement is idempotent and failures are logged without blocking startup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionIndexMigration {
+
+    // Index name -> definition following "ON <table>"
+    private static final Map<String, String> INDEXES = new LinkedHashMap<>();
+
+    static {
+        // Partial composites for the Criteria-built listing: date range / keyset pages,
+        // and category with optional date range. Soft-deleted rows never enter either index.
+        INDEXES.put("idx_transactions_live_date",
+                "(txn_date DESC, id DESC) WHERE is_deleted = false");
+        INDEXES.put("idx_transactions_live_category_date",
+                "(category_id, txn_date DESC, id DESC) WHERE is_deleted = false");
+        // Trigram indexes back the q= substring search on merchant and notes
+        INDEXES.put("idx_transactions_merchant_trgm",
+                "USING gin (merchant gin_trgm_ops) WHERE is_deleted = false");
+        INDEXES.put("idx_transactions_notes_trgm",
+                "USING gin (notes gin_trgm_ops) WHERE is_deleted = false");
+        // Delta sync walks (change_xid, id); not partial because tombstones must be found too
+        INDEXES.put("idx_transactions_change_xid",
+                "(change_xid, id)");
+        // Duplicate detection probes fingerprints of incoming rows with = ANY(array)
+        INDEXES.put("idx_transactions_fingerprint",
+                "(fingerprint) WHERE is_deleted = false");
+        // Only flagged outliers carry a score, so the anomaly listing reads a tiny index
+        INDEXES.put("idx_transactions_anomaly",
+                "(txn_date DESC, id DESC) WHERE anomaly_score IS NOT NULL AND is_deleted = false");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTransactionIndexes() {
+        createIndexes("transactions", "");
+    }
+
+    /**
+     * Creates the same index set on another table with a suffix on every index name, e.g. on a
+     * replacement table that is swapped in later and has its indexes renamed at that point.
+     */
+    public void createIndexes(String table, String nameSuffix) {
+        List<String> statements = new ArrayList<>();
+        statements.add("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        INDEXES.forEach((name, definition) -> statements.add(
+                "CREATE INDEX IF NOT EXISTS " + name + nameSuffix + " ON " + table + " " + definition));
+
+        int applied = 0;
+        for (String statement : statements) {
+            try {
+                jdbcTemplate.execute(statement);
+                applied++;
+            } catch (Exception ex) {
+                log.error("Transaction index migration statement failed: {}", statement, ex);
+            }
+        }
+        log.info("Transaction index migration on {} completed: {}/{} statements applied.", table, applied, statements.size());
+    }
+
+    public static Set<String> indexNames() {
+        return INDEXES.keySet();
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Opt-in conversion of transactions to declarative range partitioning by txn_date
+ * (app.transactions.partitioning.enabled=true). The conversion runs online:
+ * <ol>
+ *     <li>a partitioned copy is created with the same columns, constraints, foreign keys and indexes
+ *     (indexes carry a temporary suffix), and a trigger mirrors every write on the old table into it;</li>
+ *     <li>existing rows are copied in id-ordered batches, each its own short transaction;</li>
+ *     <li>copies the batches took from an outdated snapshot are reconciled, still without blocking writers;</li>
+ *     <li>one brief ACCESS EXCLUSIVE swap checks that the copy has caught up, renames tables and indexes,
+ *     moves id generation and installs the change_xid trigger on the new table.</li>
+ * </ol>
+ * The old heap is kept as transactions_unpartitioned for manual verification and removal.
+ * Once partitioned, partitions are created ahead of time on a schedule; rows outside every partition
+ * land in transactions_default. Old partitions can be detached in O(1) with {@link #detachPartitionsBefore}.
+ */
+@Component
+@Slf4j
+public class TransactionPartitionMigration {
+
+    public enum Interval {
+        MONTHLY,
+        YEARLY
+    }
+
+    private static final String STAGING_TABLE = "transactions_partitioned";
+    private static final String RETIRED_TABLE = "transactions_unpartitioned";
+    private static final String DEFAULT_PARTITION = "transactions_default";
+    private static final String STAGING_SEQUENCE = "transactions_partitioned_id_seq";
+    private static final String STAGING_INDEX_SUFFIX = "_p";
+    private static final String SYNC_FUNCTION = "transactions_partition_sync";
+    // Typo'd dates far in the past go to the default partition instead of creating hundreds of partitions
+    private static final int MAX_HISTORY_YEARS = 20;
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})'\\)");
+
+    // %s is the SET list for every column except the key, built from the live table definition
+    private static final String SYNC_FUNCTION_SQL = """
+            CREATE OR REPLACE FUNCTION transactions_partition_sync() RETURNS trigger AS $$
+            BEGIN
+                IF TG_OP IN ('UPDATE', 'DELETE') THEN
+                    DELETE FROM transactions_partitioned WHERE id = OLD.id AND txn_date = OLD.txn_date;
+                END IF;
+                IF TG_OP IN ('INSERT', 'UPDATE') THEN
+                    -- A concurrent backfill batch may hold an older copy of this row; the live write wins
+                    INSERT INTO transactions_partitioned SELECT NEW.*
+                    ON CONFLICT (id, txn_date) DO UPDATE SET %s;
+                END IF;
+                RETURN NULL;
+            END $$ LANGUAGE plpgsql
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionIndexMigration transactionIndexMigration;
+    private final TransactionChangeXidMigration transactionChangeXidMigration;
+    private final boolean enabled;
+    private final Interval interval;
+    private final int premake;
+    private final int batchSize;
+
+    public TransactionPartitionMigration(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            TransactionIndexMigration transactionIndexMigration,
+            TransactionChangeXidMigration transactionChangeXidMigration,
+            @Value("${app.transactions.partitioning.enabled:false}") boolean enabled,
+            @Value("${app.transactions.partitioning.interval:monthly}") String interval,
+            @Value("${app.transactions.partitioning.premake:3}") int premake,
+            @Value("${app.transactions.partitioning.batch-size:5000}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionIndexMigration = transactionIndexMigration;
+        this.transactionChangeXidMigration = transactionChangeXidMigration;
+        this.enabled = enabled;
+        this.interval = Interval.valueOf(interval.trim().toUpperCase(Locale.ROOT));
+        this.premake = premake;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!isPartitioned("transactions")) {
+                prepareStaging();
+                backfill();
+                reconcile();
+                swap();
+            }
+            createFuturePartitions();
+        } catch (Exception ex) {
+            log.error("Transaction partitioning migration failed; it resumes on next start", ex);
+        }
+    }
+
+    @Scheduled(cron = "${app.transactions.partitioning.maintenance-cron:0 0 4 * * *}")
+    public void createFuturePartitions() {
+        if (!enabled || !isPartitioned("transactions")) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        createPartitions("transactions", periodStart(today), periodStart(today), premake);
+    }
+
+    /**
+     * Detaches every partition whose whole range lies before the cutoff and returns their names.
+     * Detached partitions are ordinary tables that can be dumped, moved or dropped without touching live data.
+     */
+    public List<String> detachPartitionsBefore(LocalDate cutoff) {
+        List<String> detached = new ArrayList<>();
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+                        "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = to_regclass('transactions')");
+
+        for (Map<String, Object> partition : partitions) {
+            Matcher matcher = UPPER_BOUND.matcher(String.valueOf(partition.get("bound")));
+            if (matcher.find() && !LocalDate.parse(matcher.group(1)).isAfter(cutoff)) {
+                String name = (String) partition.get("name");
+                jdbcTemplate.execute("ALTER TABLE transactions DETACH PARTITION " + name);
+                detached.add(name);
+            }
+        }
+        log.info("Detached {} transaction partitions before {}: {}", detached.size(), cutoff, detached);
+        return detached;
+    }
+
+    // The steps of migrate(); package-private so tests can write between them
+    void prepareStaging() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (tableExists(STAGING_TABLE)) {
+                return;
+            }
+            jdbcTemplate.execute("CREATE TABLE " + STAGING_TABLE + " (LIKE transactions INCLUDING DEFAULTS " +
+                    "INCLUDING CONSTRAINTS, PRIMARY KEY (id, txn_date)) PARTITION BY RANGE (txn_date)");
+            jdbcTemplate.queryForList("SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint " +
+                            "WHERE conrelid = to_regclass('transactions') AND contype = 'f'")
+                    .forEach(fk -> jdbcTemplate.execute("ALTER TABLE " + STAGING_TABLE + " ADD CONSTRAINT " +
+                            fk.get("conname") + " " + fk.get("definition")));
+            jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + STAGING_TABLE + " DEFAULT");
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + STAGING_SEQUENCE);
+        });
+
+        // Outside a transaction so one failed partition cannot abort the rest
+        LocalDate today = LocalDate.now();
+        LocalDate oldest = jdbcTemplate.queryForObject("SELECT MIN(txn_date) FROM transactions", LocalDate.class);
+        LocalDate from = oldest == null || oldest.isBefore(today.minusYears(MAX_HISTORY_YEARS))
+                ? periodStart(today) : periodStart(oldest);
+        createPartitions(STAGING_TABLE, from, periodStart(today), premake);
+        transactionIndexMigration.createIndexes(STAGING_TABLE, STAGING_INDEX_SUFFIX);
+
+        // Mirror writes from here on, so the batched copy below only has to catch up on history
+        String updateColumns = String.join(", ", jdbcTemplate.queryForList(
+                "SELECT column_name || ' = EXCLUDED.' || column_name FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = 'transactions' " +
+                        "AND column_name NOT IN ('id', 'txn_date') ORDER BY ordinal_position", String.class));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(String.format(SYNC_FUNCTION_SQL, updateColumns));
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + SYNC_FUNCTION + " ON transactions");
+            jdbcTemplate.execute("CREATE TRIGGER " + SYNC_FUNCTION + " AFTER INSERT OR UPDATE OR DELETE ON transactions " +
+                    "FOR EACH ROW EXECUTE FUNCTION " + SYNC_FUNCTION + "()");
+        });
+    }
+
+    void backfill() {
+        long lastId = 0;
+        long copied = 0;
+        while (true) {
+            Long upperId = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM (SELECT id FROM transactions WHERE id > ? ORDER BY id LIMIT ?) batch",
+                    Long.class, lastId, batchSize);
+            if (upperId == null) {
+                break;
+            }
+            copied += jdbcTemplate.update("INSERT INTO " + STAGING_TABLE + " SELECT * FROM transactions " +
+                    "WHERE id > ? AND id <= ? ON CONFLICT DO NOTHING", lastId, upperId);
+            lastId = upperId;
+        }
+        log.info("Copied {} transactions into {}.", copied, STAGING_TABLE);
+    }
+
+    /**
+     * A backfill batch copies rows as of its own snapshot. When a row was hard-deleted (e.g. moved to the
+     * archive by the tiering job) or its txn_date changed after that snapshot, the trigger had nothing to
+     * remove yet and the batch leaves a stale copy behind. Both scans run without locking the table; writes
+     * arriving meanwhile are kept in step by the trigger, and nothing else creates stale copies afterwards.
+     */
+    void reconcile() {
+        int stale = jdbcTemplate.update("DELETE FROM " + STAGING_TABLE + " p WHERE NOT EXISTS " +
+                "(SELECT 1 FROM transactions t WHERE t.id = p.id AND t.txn_date = p.txn_date)");
+        // Defensive: the trigger mirrors every write, so this should never find anything
+        int missing = jdbcTemplate.update("INSERT INTO " + STAGING_TABLE + " SELECT * FROM transactions t " +
+                "WHERE NOT EXISTS (SELECT 1 FROM " + STAGING_TABLE + " p WHERE p.id = t.id AND p.txn_date = t.txn_date) " +
+                "ON CONFLICT DO NOTHING");
+        if (stale > 0 || missing > 0) {
+            log.warn("Reconciled partitioned copy before swap: {} stale rows removed, {} missing rows added.", stale, missing);
+        }
+    }
+
+    void swap() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE transactions IN ACCESS EXCLUSIVE MODE");
+
+            // Index probes only; reconcile() did the full comparison before the lock
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM transactions", Long.class);
+            Long stagedMaxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + STAGING_TABLE, Long.class);
+            if (!Objects.equals(maxId, stagedMaxId)) {
+                throw new IllegalStateException("Partitioned copy ends at id " + stagedMaxId + " but transactions at " +
+                        maxId + "; not swapping");
+            }
+
+            jdbcTemplate.execute("DROP TRIGGER " + SYNC_FUNCTION + " ON transactions");
+            jdbcTemplate.execute("DROP FUNCTION " + SYNC_FUNCTION + "()");
+            jdbcTemplate.execute("SELECT setval('" + STAGING_SEQUENCE + "', " + (maxId == null ? 0 : maxId) + " + 1, false)");
+
+            jdbcTemplate.execute("ALTER TABLE transactions RENAME TO " + RETIRED_TABLE);
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS transactions_pkey RENAME TO " + RETIRED_TABLE + "_pkey");
+            for (String index : TransactionIndexMigration.indexNames()) {
+                jdbcTemplate.execute("ALTER INDEX IF EXISTS " + index + " RENAME TO " + index + "_unpartitioned");
+                jdbcTemplate.execute("ALTER INDEX IF EXISTS " + index + STAGING_INDEX_SUFFIX + " RENAME TO " + index);
+            }
+            jdbcTemplate.execute("ALTER TABLE " + STAGING_TABLE + " RENAME TO transactions");
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS " + STAGING_TABLE + "_pkey RENAME TO transactions_pkey");
+            jdbcTemplate.execute("ALTER TABLE transactions ALTER COLUMN id SET DEFAULT nextval('" + STAGING_SEQUENCE + "')");
+            jdbcTemplate.execute("ALTER SEQUENCE " + STAGING_SEQUENCE + " OWNED BY transactions.id");
+            // Only now: stamping during the backfill would have marked every copied row as changed
+            transactionChangeXidMigration.installTrigger();
+        });
+        log.info("transactions is now range-partitioned by txn_date ({}); the old heap remains as {}.",
+                interval.name().toLowerCase(Locale.ROOT), RETIRED_TABLE);
+    }
+
+    private void createPartitions(String parent, LocalDate from, LocalDate current, int ahead) {
+        LocalDate last = current;
+        for (int i = 0; i < ahead; i++) {
+            last = nextPeriod(last);
+        }
+        for (LocalDate start = from; !start.isAfter(last); start = nextPeriod(start)) {
+            String statement = "CREATE TABLE IF NOT EXISTS " + partitionName(start) + " PARTITION OF " + parent +
+                    " FOR VALUES FROM ('" + start + "') TO ('" + nextPeriod(start) + "')";
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (Exception ex) {
+                // Typically rows for this range already sit in the default partition
+                log.error("Could not create transaction partition: {}", statement, ex);
+            }
+        }
+    }
+
+    private boolean isPartitioned(String table) {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, table);
+        return !kinds.isEmpty() && "p".equals(kinds.get(0));
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private LocalDate periodStart(LocalDate date) {
+        return interval == Interval.MONTHLY ? date.withDayOfMonth(1) : date.withDayOfYear(1);
+    }
+
+    private LocalDate nextPeriod(LocalDate start) {
+        return interval == Interval.MONTHLY ? start.plusMonths(1) : start.plusYears(1);
+    }
+
+    private String partitionName(LocalDate start) {
+        return interval == Interval.MONTHLY
+                ? String.format("transactions_y%04dm%02d", start.getYear(), start.getMonthValue())
+                : String.format("transactions_y%04d", start.getYear());
+    }
+}
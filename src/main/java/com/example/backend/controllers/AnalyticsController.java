@@ -0,0 +1,99 @@
+package com.example.backend.controllers;
+
+import com.example.backend.dtos.AnalyticsTotalsDto;
+import com.example.backend.dtos.AnomalyDto;
+import com.example.backend.dtos.CategoryTotalDto;
+import com.example.backend.dtos.MerchantTotalDto;
+import com.example.backend.dtos.RecurringPaymentDto;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.services.AnomalyDetectionService;
+import com.example.backend.services.RecurringPaymentService;
+import com.example.backend.services.TransactionAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/analytics")
+@Tag(name = "Analytics", description = "Aggregations and detectors over in-memory transaction state")
+public class AnalyticsController {
+
+    private final TransactionAnalyticsService transactionAnalyticsService;
+    private final RecurringPaymentService recurringPaymentService;
+    private final AnomalyDetectionService anomalyDetectionService;
+
+    @GetMapping("/totals")
+    @Operation(summary = "Total amount and count of transactions matching the filters")
+    public ResponseEntity<AnalyticsTotalsDto> getTotals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "CREDIT or DEBIT; both when omitted")
+            @RequestParam(required = false) TransactionDirection direction
+    ) {
+        return ResponseEntity.ok(transactionAnalyticsService.getTotals(from, to, categoryId, direction));
+    }
+
+    @GetMapping("/by-category")
+    @Operation(summary = "Totals per category, largest first. A null categoryId means uncategorized.")
+    public ResponseEntity<List<CategoryTotalDto>> getTotalsByCategory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "CREDIT or DEBIT; both when omitted")
+            @RequestParam(required = false) TransactionDirection direction
+    ) {
+        return ResponseEntity.ok(transactionAnalyticsService.getTotalsByCategory(from, to, direction));
+    }
+
+    @GetMapping("/top-merchants")
+    @Operation(summary = "Merchants with the largest totals, merchant names compared case-insensitively")
+    public ResponseEntity<List<MerchantTotalDto>> getTopMerchants(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "CREDIT or DEBIT; both when omitted")
+            @RequestParam(required = false) TransactionDirection direction,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(transactionAnalyticsService.getTopMerchants(from, to, direction, limit));
+    }
+
+    @GetMapping("/recurring")
+    @Operation(
+            summary = "Detected subscriptions and other recurring debits",
+            description = "Debits repeating weekly, monthly or yearly at a similar amount for the same merchant, " +
+                    "with the expected date of the next charge and the cost per month, largest first."
+    )
+    public ResponseEntity<List<RecurringPaymentDto>> getRecurringPayments(
+            @Parameter(description = "Also return series whose next charge is long overdue")
+            @RequestParam(defaultValue = "false") boolean includeInactive
+    ) {
+        return ResponseEntity.ok(recurringPaymentService.getRecurringPayments(LocalDate.now(), includeInactive));
+    }
+
+    @GetMapping("/anomalies")
+    @Operation(
+            summary = "Debits flagged as unusually large",
+            description = "Transactions whose amount was an outlier for their merchant (or category, while the merchant " +
+                    "has little history) when they were written, newest first. score is the number of standard " +
+                    "deviations above the usual log-amount."
+    )
+    public ResponseEntity<List<AnomalyDto>> getAnomalies(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Maximum rows (1-" + AnomalyDetectionService.MAX_LIMIT + "), default 100")
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(anomalyDetectionService.getAnomalies(from, to, limit));
+    }
+}
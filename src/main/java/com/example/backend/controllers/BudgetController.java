@@ -0,0 +1,52 @@
+package com.example.backend.controllers;
+
+import com.example.backend.dtos.BudgetDto;
+import com.example.backend.dtos.CreateBudgetDto;
+import com.example.backend.dtos.UpdateBudgetDto;
+import com.example.backend.services.BudgetService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/budgets")
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    @GetMapping
+    public ResponseEntity<List<BudgetDto>> getBudgets() {
+        return ResponseEntity.ok(budgetService.getBudgets());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BudgetDto> getBudget(@PathVariable Long id) {
+        return ResponseEntity.ok(budgetService.getBudget(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<BudgetDto> createBudget(@RequestBody CreateBudgetDto createBudgetDto) {
+        BudgetDto created = budgetService.createBudget(createBudgetDto);
+
+        return ResponseEntity
+                .created(URI.create("/api/v1/budgets/" + created.getId()))
+                .body(created);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<BudgetDto> updateBudget(
+            @PathVariable Long id,
+            @RequestBody UpdateBudgetDto updateBudgetDto
+    ) {
+        return ResponseEntity.ok(budgetService.updateBudget(id, updateBudgetDto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<BudgetDto> deleteBudget(@PathVariable Long id) {
+        return ResponseEntity.ok(budgetService.deleteBudget(id));
+    }
+}
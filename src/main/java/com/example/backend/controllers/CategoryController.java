@@ -3,9 +3,12 @@ package com.example.backend.controllers;
 import com.example.backend.dtos.CategoryDto;
 import com.example.backend.dtos.CreateCategoryDto;
 import com.example.backend.services.CategoryService;
+import com.example.backend.services.ResourceVersionTracker;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -16,10 +19,16 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final ResourceVersionTracker versionTracker;
 
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> allCategories() {
-        return ResponseEntity.ok(categoryService.allCategories());
+    public ResponseEntity<List<CategoryDto>> allCategories(WebRequest webRequest) {
+        String etag = versionTracker.etag(ResourceVersionTracker.Resource.CATEGORIES);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(categoryService.allCategories());
     }
 
     @PostMapping
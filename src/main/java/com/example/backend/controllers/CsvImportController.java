@@ -1,15 +1,23 @@
 package com.example.backend.controllers;
 
+import com.example.backend.dtos.ImportJobDto;
 import com.example.backend.services.CsvImportService;
+import com.example.backend.services.ImportJobService;
+import com.example.backend.services.TransactionDuplicateService;
+import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.Map;
 
 @RestController
@@ -18,14 +26,37 @@ import java.util.Map;
 public class CsvImportController {
 
     private final CsvImportService csvImportService;
+    private final ImportJobService importJobService;
 
     @PostMapping(value = "/transactions/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<Map<String, String>> importCsv(@RequestPart("file") MultipartFile file) {
+    public ResponseEntity<Map<String, String>> importCsv(
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = TransactionController.DUPLICATES_DESCRIPTION)
+            @RequestParam(defaultValue = "flag") String duplicates
+    ) {
         try {
-            String result = csvImportService.importTransactions(file);
+            String result = csvImportService.importTransactions(file, TransactionDuplicateService.Policy.fromParam(duplicates));
             return ResponseEntity.ok(Map.of("message", result));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    @PostMapping(value = "/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDto> submitImportJob(
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = TransactionController.DUPLICATES_DESCRIPTION)
+            @RequestParam(defaultValue = "flag") String duplicates
+    ) {
+        ImportJobDto job = importJobService.submit(file, TransactionDuplicateService.Policy.fromParam(duplicates));
+        return ResponseEntity
+                .accepted()
+                .location(URI.create("/api/v1/import/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImportJobDto> getImportJob(@PathVariable String id) {
+        return ResponseEntity.ok(importJobService.getJob(id));
+    }
 }
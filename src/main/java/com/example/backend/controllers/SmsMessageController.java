@@ -2,6 +2,7 @@ package com.example.backend.controllers;
 
 import com.example.backend.dtos.CreateSmsMessageDto;
 import com.example.backend.dtos.SmsMessageDto;
+import com.example.backend.services.IdempotencyService;
 import com.example.backend.services.SmsMessageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +17,7 @@ import java.util.List;
 public class SmsMessageController {
 
     private final SmsMessageService smsMessageService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
     public ResponseEntity<List<SmsMessageDto>> allSmsMessages() {
@@ -24,12 +26,16 @@ public class SmsMessageController {
 
     @PostMapping
     public ResponseEntity<SmsMessageDto> createSmsMessage(
-            @RequestBody CreateSmsMessageDto createSmsMessageDto
+            @RequestBody CreateSmsMessageDto createSmsMessageDto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
     ) {
-        SmsMessageDto created = smsMessageService.createSmsMessage(createSmsMessageDto);
+        return idempotencyService.execute("POST /api/v1/sms", idempotencyKey, createSmsMessageDto,
+                SmsMessageDto.class, () -> {
+                    SmsMessageDto created = smsMessageService.createSmsMessage(createSmsMessageDto);
 
-        return ResponseEntity
-                .created(URI.create("/api/v1/sms/" + created.getId()))
-                .body(created);
+                    return ResponseEntity
+                            .created(URI.create("/api/v1/sms/" + created.getId()))
+                            .body(created);
+                });
     }
 }
@@ -1,8 +1,22 @@
 package com.example.backend.controllers;
 
+import com.example.backend.dtos.BulkCreateResultDto;
+import com.example.backend.dtos.BulkRecategorizeDto;
+import com.example.backend.dtos.BulkUpdateResultDto;
 import com.example.backend.dtos.CreateTransactionDto;
+import com.example.backend.dtos.MonthlySummaryDto;
+import com.example.backend.dtos.RollingStatsDto;
+import com.example.backend.dtos.TransactionChangesDto;
+import com.example.backend.dtos.TransactionBulkFilterDto;
 import com.example.backend.dtos.TransactionDto;
+import com.example.backend.dtos.TransactionPageDto;
 import com.example.backend.dtos.UpdateTransactionDto;
+import com.example.backend.services.IdempotencyService;
+import com.example.backend.services.ResourceVersionTracker;
+import com.example.backend.services.RollingStatsService;
+import com.example.backend.services.TransactionDuplicateService;
+import com.example.backend.services.TransactionExportService;
+import com.example.backend.services.TransactionRollupService;
 import com.example.backend.services.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,11 +26,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -25,36 +44,212 @@ import java.util.List;
 @Tag(name = "Transactions", description = "Transaction management APIs")
 public class TransactionController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String DUPLICATES_DESCRIPTION = "What to do with a transaction matching a stored one on date, amount, " +
+            "merchant and direction: allow, flag (create it with duplicateOfId set), skip, or merge (fill the stored " +
+            "transaction's missing smsId, category, paymentType and notes)";
+
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionRollupService transactionRollupService;
+    private final RollingStatsService rollingStatsService;
+    private final ResourceVersionTracker versionTracker;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
+    @Operation(
+            summary = "List transactions",
+            description = "Returns non-deleted transactions filtered by date range and category. " +
+                    "Supplying limit or cursor switches to keyset pagination ordered by txnDate and id descending; " +
+                    "the cursor for the next page is returned in the " + NEXT_CURSOR_HEADER + " header and is absent on the last page. " +
+                    "Supplying q searches merchant and notes for the fragment and returns up to limit matches ranked by similarity. " +
+                    "Responses carry a strong ETag; repeating the request with If-None-Match returns 304 until a transaction changes."
+    )
     public ResponseEntity<List<TransactionDto>> getTransactions(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "Page size for cursor mode and search (1-" + TransactionService.MAX_PAGE_SIZE + ")")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor taken from the previous page's " + NEXT_CURSOR_HEADER + " header")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Merchant/notes fragment to search for, e.g. swig")
+            @RequestParam(required = false) String q,
+            WebRequest webRequest
+    ) {
+        // Read the version before the data so a concurrent write can only make the tag stale, never the body
+        String etag = versionTracker.etag(ResourceVersionTracker.Resource.TRANSACTIONS);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        if (q != null) {
+            if (cursor != null) {
+                throw new IllegalArgumentException("cursor cannot be combined with q; search results are ranked, not paged");
+            }
+            return ResponseEntity.ok().eTag(etag)
+                    .body(transactionService.searchTransactions(q, from, to, categoryId, limit));
+        }
+
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok().eTag(etag).body(transactionService.getTransactions(from, to, categoryId));
+        }
+
+        TransactionPageDto page = transactionService.getTransactionPage(from, to, categoryId, limit, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export transactions",
+            description = "Streams non-deleted transactions as CSV (the same columns the CSV import accepts) or NDJSON. " +
+                    "Rows are read through a database cursor and written as they arrive, so memory use does not depend on the export size."
+    )
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "csv or ndjson")
+            @RequestParam(defaultValue = "csv") String format
+    ) {
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.fromParam(format);
+        StreamingResponseBody body = outputStream ->
+                transactionExportService.export(exportFormat, from, to, categoryId, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/changes")
+    @Operation(
+            summary = "Transactions changed since a watermark",
+            description = "Delta sync for offline clients. Returns transactions created or updated after the watermark as upserts " +
+                    "and soft-deleted ones as deletedIds, oldest change first, plus the watermark to send next time. " +
+                    "Omit since for a full initial sync; keep calling while hasMore is true. " +
+                    "Changes are ordered by commit, so a change made by a request that is still running is held back " +
+                    "(with everything after it) until that request finishes, and is never skipped."
+    )
+    public ResponseEntity<TransactionChangesDto> getChanges(
+            @Parameter(description = "Opaque watermark from the previous response")
+            @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum changes to return (1-" + TransactionService.MAX_PAGE_SIZE + ")")
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(transactionService.getChanges(since, limit));
+    }
+
+    @GetMapping("/summary")
+    @Operation(
+            summary = "Monthly spending summary",
+            description = "Returns totals and counts per month, category and direction from the incrementally maintained " +
+                    "monthly rollup. Defaults to the last 12 months. A null categoryId means uncategorized."
+    )
+    public ResponseEntity<List<MonthlySummaryDto>> getMonthlySummary(
+            @Parameter(description = "First month, yyyy-MM")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @Parameter(description = "Last month, yyyy-MM")
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
             @RequestParam(required = false) Long categoryId
     ) {
-        return ResponseEntity.ok(transactionService.getTransactions(from, to, categoryId));
+        YearMonth toMonth = to == null ? YearMonth.now() : to;
+        YearMonth fromMonth = from == null ? toMonth.minusMonths(11) : from;
+        return ResponseEntity.ok(transactionRollupService.getSummary(fromMonth, toMonth, categoryId));
+    }
+
+    @GetMapping("/stats/rolling")
+    @Operation(
+            summary = "Trailing 7, 30 and 90-day totals",
+            description = "Debit and credit totals, counts and per-category splits for the last 7, 30 and 90 days " +
+                    "including today, served from in-memory per-day buckets. A null categoryId means uncategorized."
+    )
+    public ResponseEntity<RollingStatsDto> getRollingStats() {
+        return ResponseEntity.ok(rollingStatsService.getRollingStats(LocalDate.now()));
     }
 
     @PostMapping
     @Operation(
             summary = "Create a new transaction",
             description = "Creates a new transaction. You can optionally link it to an SMS message by providing smsId (must be > 0), " +
-                    "and assign it to a category by providing categoryId (must be > 0). If smsId or categoryId is 0 or null, they will be ignored.",
+                    "and assign it to a category by providing categoryId (must be > 0). If smsId or categoryId is 0 or null, they will be ignored. " +
+                    "Retries carrying the same " + IdempotencyService.HEADER + " get the original response instead of a second transaction. " +
+                    "A transaction with the same date, amount, merchant and direction as a stored one is handled per the duplicates option.",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Transaction created successfully",
                             content = @Content(schema = @Schema(implementation = TransactionDto.class))),
+                    @ApiResponse(responseCode = "200", description = "Duplicate skipped or merged; the stored transaction is returned",
+                            content = @Content(schema = @Schema(implementation = TransactionDto.class))),
                     @ApiResponse(responseCode = "404", description = "SMS message or category not found")
             }
     )
     public ResponseEntity<TransactionDto> createTransaction(
-            @RequestBody CreateTransactionDto createTransactionDto
+            @RequestBody CreateTransactionDto createTransactionDto,
+            @Parameter(description = DUPLICATES_DESCRIPTION)
+            @RequestParam(defaultValue = "flag") String duplicates,
+            @Parameter(description = "Client-generated key that makes retries of this request safe")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey
+    ) {
+        return idempotencyService.execute("POST /api/v1/transactions", idempotencyKey, createTransactionDto,
+                TransactionDto.class, () -> {
+                    TransactionService.CreateResult result = transactionService.createTransaction(
+                            createTransactionDto, TransactionDuplicateService.Policy.fromParam(duplicates));
+                    if (!result.created()) {
+                        return ResponseEntity.ok(result.transaction());
+                    }
+
+                    return ResponseEntity
+                            .created(URI.create("/api/v1/transactions/" + result.transaction().getId()))
+                            .body(result.transaction());
+                });
+    }
+
+    @PostMapping("/bulk")
+    @Operation(
+            summary = "Create transactions in bulk",
+            description = "Creates up to " + TransactionService.MAX_BULK_SIZE + " transactions in one request using batched inserts. " +
+                    "Each item follows the same rules as the single create; invalid items are rejected individually and " +
+                    "reported in the per-item results in request order. Duplicates of stored transactions are found with " +
+                    "one fingerprint lookup per chunk and handled per the duplicates option."
+    )
+    public ResponseEntity<BulkCreateResultDto> createTransactions(
+            @RequestBody List<CreateTransactionDto> createTransactionDtos,
+            @Parameter(description = DUPLICATES_DESCRIPTION)
+            @RequestParam(defaultValue = "flag") String duplicates
     ) {
-        TransactionDto created = transactionService.createTransaction(createTransactionDto);
+        return ResponseEntity.ok(transactionService.createTransactions(
+                createTransactionDtos, TransactionDuplicateService.Policy.fromParam(duplicates)));
+    }
 
-        return ResponseEntity
-                .created(URI.create("/api/v1/transactions/" + created.getId()))
-                .body(created);
+    @PostMapping("/bulk/recategorize")
+    @Operation(
+            summary = "Recategorize transactions in bulk",
+            description = "Moves every non-deleted transaction matching the filter (merchant, from, to, categoryId, ids; " +
+                    "at least one required) to categoryId with a single UPDATE and returns the affected count. " +
+                    "Archived matches are read-only; they are left unchanged and counted in skippedArchived."
+    )
+    public ResponseEntity<BulkUpdateResultDto> recategorizeTransactions(
+            @RequestBody BulkRecategorizeDto bulkRecategorizeDto
+    ) {
+        return ResponseEntity.ok(transactionService.recategorizeTransactions(bulkRecategorizeDto));
+    }
+
+    @PostMapping("/bulk/delete")
+    @Operation(
+            summary = "Delete transactions in bulk",
+            description = "Soft-deletes every non-deleted transaction matching the filter (merchant, from, to, categoryId, ids; " +
+                    "at least one required) with a single UPDATE and returns the affected count. " +
+                    "Archived matches are read-only; they are left unchanged and counted in skippedArchived."
+    )
+    public ResponseEntity<BulkUpdateResultDto> deleteTransactions(
+            @RequestBody TransactionBulkFilterDto filter
+    ) {
+        return ResponseEntity.ok(transactionService.deleteTransactions(filter));
     }
 
     @PutMapping("/{id}")
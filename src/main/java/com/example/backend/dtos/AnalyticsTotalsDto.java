@@ -0,0 +1,17 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AnalyticsTotalsDto {
+    private BigDecimal totalAmount;
+    private long count;
+}
@@ -0,0 +1,22 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AnomalyDto {
+    private Long transactionId;
+    private LocalDate txnDate;
+    private String merchant;
+    private Long categoryId;
+    private BigDecimal amount;
+    private double score;
+}
@@ -0,0 +1,30 @@
+package com.example.backend.dtos;
+
+import com.example.backend.entities.BudgetPeriod;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BudgetDto {
+    private Long id;
+    private String name;
+    private Long categoryId;
+    private BudgetPeriod period;
+    private BigDecimal limitAmount;
+    private Integer thresholdPercent;
+    private String alertEmail;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private BigDecimal spentAmount;
+    private BigDecimal remainingAmount;
+    private boolean thresholdReached;
+    private boolean exceeded;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BulkCreateResultDto {
+    private Integer created;
+    private Integer rejected;
+    private Integer duplicates;
+    private List<BulkItemResultDto> results;
+}
@@ -0,0 +1,23 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BulkItemResultDto {
+    public static final String CREATED = "CREATED";
+    public static final String REJECTED = "REJECTED";
+    public static final String SKIPPED = "SKIPPED";
+    public static final String MERGED = "MERGED";
+
+    private Integer index;
+    private String status;
+    private Long id;
+    private Long duplicateOfId;
+    private String error;
+}
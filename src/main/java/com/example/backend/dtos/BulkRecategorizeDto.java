@@ -0,0 +1,15 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BulkRecategorizeDto {
+    private TransactionBulkFilterDto filter;
+    private Long categoryId;
+}
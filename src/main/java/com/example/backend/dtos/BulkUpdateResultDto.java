@@ -0,0 +1,16 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BulkUpdateResultDto {
+    private Integer affected;
+    // Matching transactions left alone because they are in the read-only archive
+    private Integer skippedArchived;
+}
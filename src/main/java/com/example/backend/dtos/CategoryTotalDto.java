@@ -0,0 +1,18 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class CategoryTotalDto {
+    private Long categoryId;
+    private BigDecimal totalAmount;
+    private long count;
+}
@@ -0,0 +1,22 @@
+package com.example.backend.dtos;
+
+import com.example.backend.entities.BudgetPeriod;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class CreateBudgetDto {
+    private String name;
+    private Long categoryId;
+    private BudgetPeriod period;
+    private BigDecimal limitAmount;
+    private Integer thresholdPercent;
+    private String alertEmail;
+}
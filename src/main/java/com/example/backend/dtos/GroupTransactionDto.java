@@ -1,10 +1,10 @@
 package com.example.backend.dtos;
 
+import com.example.backend.utils.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -14,7 +14,7 @@ import java.util.List;
 public class GroupTransactionDto {
     private Long transactionId;
     private String description;
-    private BigDecimal amount;
+    private Money amount;
     private String paidByMemberName;
     private Long paidByMemberId;
     private List<String> participantNames;
@@ -0,0 +1,32 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class ImportJobDto {
+    private String id;
+    private String filename;
+    private String duplicates;
+    private String status;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long rowsParsed;
+    private long rowsInserted;
+    private long rowsRejected;
+    private long duplicateRows;
+    // Rows parsed per second by this run, excluding rows a resumed checkpoint had already counted
+    private Double rowsPerSecond;
+    private Double percentComplete;
+    private Long etaSeconds;
+    private String message;
+    private String error;
+}
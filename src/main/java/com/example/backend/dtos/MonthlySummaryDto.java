@@ -0,0 +1,22 @@
+package com.example.backend.dtos;
+
+import com.example.backend.entities.TransactionDirection;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class MonthlySummaryDto {
+    private YearMonth month;
+    private Long categoryId;
+    private TransactionDirection transactionDirection;
+    private BigDecimal totalAmount;
+    private Long count;
+}
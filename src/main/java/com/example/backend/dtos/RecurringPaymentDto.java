@@ -0,0 +1,25 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RecurringPaymentDto {
+    private String merchant;
+    private String period;
+    private BigDecimal amount;
+    private BigDecimal monthlyCost;
+    private Long categoryId;
+    private int occurrences;
+    private LocalDate lastDate;
+    private LocalDate nextExpectedDate;
+    private boolean active;
+}
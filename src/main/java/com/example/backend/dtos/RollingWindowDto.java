@@ -0,0 +1,26 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class RollingWindowDto {
+    private int days;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal debitTotal;
+    private long debitCount;
+    private BigDecimal creditTotal;
+    private long creditCount;
+    private List<CategoryTotalDto> debitByCategory;
+    private List<CategoryTotalDto> creditByCategory;
+}
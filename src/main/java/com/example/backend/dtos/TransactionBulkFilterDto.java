@@ -0,0 +1,21 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class TransactionBulkFilterDto {
+    private String merchant;
+    private LocalDate from;
+    private LocalDate to;
+    private Long categoryId;
+    private List<Long> ids;
+}
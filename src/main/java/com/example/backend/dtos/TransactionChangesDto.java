@@ -0,0 +1,19 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class TransactionChangesDto {
+    private List<TransactionDto> upserts;
+    private List<Long> deletedIds;
+    private String watermark;
+    private boolean hasMore;
+}
@@ -1,12 +1,12 @@
 package com.example.backend.dtos;
 
 import com.example.backend.entities.TransactionDirection;
+import com.example.backend.utils.Money;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @AllArgsConstructor
@@ -17,7 +17,7 @@ public class TransactionDto {
     private Long id;
     private Long smsId;
     private LocalDate txnDate;
-    private BigDecimal amount;
+    private Money amount;
     private String merchant;
     private String paymentType;
     private String transactionType;
@@ -25,4 +25,5 @@ public class TransactionDto {
     private Long categoryId;
     private String categoryName;
     private String notes;
+    private Long duplicateOfId;
 }
@@ -0,0 +1,19 @@
+package com.example.backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class UpdateBudgetDto {
+    private String name;
+    private BigDecimal limitAmount;
+    private Integer thresholdPercent;
+    private String alertEmail;
+}
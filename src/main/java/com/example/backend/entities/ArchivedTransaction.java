@@ -0,0 +1,89 @@
+package com.example.backend.entities;
+
+import com.example.backend.utils.Money;
+import com.example.backend.utils.TransactionFingerprint;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cold tier of {@link Transaction}: rows older than the tiering horizon, moved here by
+ * TransactionTieringService with their original ids. Foreign keys are plain columns so the table stays
+ * compact and rows never hold references into the hot graph. Archived rows are read-only.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "transactions_archive",
+        indexes = {
+                @Index(name = "idx_transactions_archive_date", columnList = "txn_date DESC, id DESC"),
+                @Index(name = "idx_transactions_archive_change_xid", columnList = "change_xid, id"),
+                @Index(name = "idx_transactions_archive_fingerprint", columnList = "fingerprint")
+        }
+)
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    @Column(name = "sms_id")
+    private Long smsId;
+
+    @Column(name = "txn_date", nullable = false)
+    private LocalDate txnDate;
+
+    @Column(name = "amount", nullable = false, precision = 12, scale = 2)
+    private Money amount;
+
+    @Column(name = "merchant")
+    private String merchant;
+
+    @Column(name = "payment_type")
+    private String paymentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false, length = 10)
+    private TransactionDirection transactionType;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "notes")
+    private String notes;
+
+    @Column(name = "is_deleted")
+    private Boolean isDeleted;
+
+    @Column(name = "fingerprint", length = TransactionFingerprint.LENGTH)
+    private String fingerprint;
+
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+
+    // Scored by AnomalyDetectionService through JDBC, never through the entity
+    @Column(name = "anomaly_score", insertable = false, updatable = false)
+    private Double anomalyScore;
+
+    // Carried over from the hot row when archived, so moving a row does not resend it to sync clients
+    @ColumnDefault("0")
+    @Column(name = "change_xid", nullable = false, insertable = false, updatable = false)
+    private Long changeXid;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,81 @@
+package com.example.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Spending limit per category (or across all categories when categoryId is null) and period.
+ * spentCents is the running debit total of the period starting at periodStart; BudgetService keeps it
+ * current on every transaction write instead of summing transactions on read.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "budgets")
+public class Budget {
+
+    public static final int ALERT_NONE = 0;
+    public static final int ALERT_THRESHOLD = 1;
+    public static final int ALERT_EXCEEDED = 2;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    // Plain column rather than a foreign key so deleting a category does not need to touch budgets
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false, length = 10)
+    private BudgetPeriod period;
+
+    @Column(name = "limit_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal limitAmount;
+
+    // Percentage of the limit at which the early warning is sent
+    @Column(name = "threshold_percent", nullable = false)
+    private Integer thresholdPercent;
+
+    @Column(name = "alert_email")
+    private String alertEmail;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "spent_cents", nullable = false)
+    private Long spentCents;
+
+    // Highest alert already sent for the current period; reset when the period rolls over
+    @Column(name = "alert_level", nullable = false)
+    private Integer alertLevel;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
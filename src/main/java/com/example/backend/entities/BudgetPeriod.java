@@ -0,0 +1,29 @@
+package com.example.backend.entities;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum BudgetPeriod {
+    WEEKLY,
+    MONTHLY,
+    YEARLY;
+
+    // Weeks start on Monday
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTHLY -> date.withDayOfMonth(1);
+            case YEARLY -> date.withDayOfYear(1);
+        };
+    }
+
+    // Exclusive end of the period starting at start
+    public LocalDate endOf(LocalDate start) {
+        return switch (this) {
+            case WEEKLY -> start.plusWeeks(1);
+            case MONTHLY -> start.plusMonths(1);
+            case YEARLY -> start.plusYears(1);
+        };
+    }
+}
@@ -1,12 +1,12 @@
 package com.example.backend.entities;
 
+import com.example.backend.utils.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,7 +31,7 @@ public class GroupTransaction {
     private String description;
 
     @Column(name = "amount", nullable = false, precision = 12, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "paid_by_member_id", nullable = false)
@@ -1,13 +1,12 @@
 package com.example.backend.entities;
 
+import com.example.backend.utils.Money;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -29,5 +28,5 @@ public class GroupTransactionParticipant {
     private GroupMember member;
 
     @Column(name = "share_amount", nullable = false, precision = 12, scale = 2)
-    private BigDecimal shareAmount;
+    private Money shareAmount;
 }
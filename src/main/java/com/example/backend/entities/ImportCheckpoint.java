@@ -0,0 +1,48 @@
+package com.example.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of an import that has committed at least one chunk but not finished. Uploading the same file
+ * with the same duplicate policy again skips the rows already saved and carries the counts over.
+ * Removed when the import completes.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "import_checkpoints")
+public class ImportCheckpoint {
+
+    // Hex SHA-256 of the duplicate policy and the uploaded bytes
+    @Id
+    @Column(name = "import_key", length = 64)
+    private String key;
+
+    // Data rows read up to the end of the last committed chunk, failed rows included
+    @Column(name = "rows_done", nullable = false)
+    private long rowsDone;
+
+    @Column(name = "success_count", nullable = false)
+    private long successCount;
+
+    @Column(name = "error_count", nullable = false)
+    private long errorCount;
+
+    @Column(name = "duplicate_count", nullable = false)
+    private long duplicateCount;
+
+    // Ids inserted by this import so far, as IdRanges text; its own rows are never treated as duplicates
+    @Column(name = "own_id_ranges", columnDefinition = "text")
+    private String ownIdRanges;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,39 @@
+package com.example.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted running statistics (Welford count, mean and sum of squared deviations) of the log-amount of
+ * debits for one merchant or category, so anomaly scoring resumes after a restart without replaying history.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "spend_baselines")
+public class SpendBaseline {
+
+    // "m:<normalized merchant>" or "c:<category id>"
+    @Id
+    @Column(name = "baseline_key", length = 300)
+    private String key;
+
+    @Column(name = "sample_count", nullable = false)
+    private long count;
+
+    @Column(name = "mean", nullable = false)
+    private double mean;
+
+    @Column(name = "m2", nullable = false)
+    private double m2;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
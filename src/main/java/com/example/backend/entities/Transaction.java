@@ -1,12 +1,14 @@
 package com.example.backend.entities;
 
+import com.example.backend.utils.Money;
+import com.example.backend.utils.TransactionFingerprint;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -30,7 +32,7 @@ public class Transaction {
     private LocalDate txnDate;
 
     @Column(name = "amount", nullable = false, precision = 12, scale = 2)
-    private BigDecimal amount;
+    private Money amount;
 
     @Column(name = "merchant")
     private String merchant;
@@ -52,6 +54,26 @@ public class Transaction {
     @Column(name = "is_deleted")
     private Boolean isDeleted = false;
 
+    // Derived from date, amount, merchant and direction; see TransactionFingerprint
+    @Column(name = "fingerprint", length = TransactionFingerprint.LENGTH)
+    private String fingerprint;
+
+    // Set when the row was created despite matching the fingerprint of this earlier transaction
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+
+    // Standard deviations above the usual log-amount for its merchant or category; only set on outliers.
+    // Written with JDBC by AnomalyDetectionService inside the writer's transaction, so the entity must never
+    // flush its stale copy over it
+    @Column(name = "anomaly_score", insertable = false, updatable = false)
+    private Double anomalyScore;
+
+    // Id of the database transaction that last changed a client-visible column, stamped by the
+    // transactions_change_xid trigger (TransactionChangeXidMigration); orders the delta-sync feed
+    @ColumnDefault("0")
+    @Column(name = "change_xid", nullable = false, insertable = false, updatable = false)
+    private Long changeXid;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -62,10 +84,12 @@ public class Transaction {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        fingerprint = TransactionFingerprint.of(this);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        fingerprint = TransactionFingerprint.of(this);
     }
 }
@@ -0,0 +1,47 @@
+package com.example.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(
+        name = "transaction_monthly_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_transaction_monthly_rollup_key",
+                columnNames = {"month_start", "category_id", "direction"}
+        )
+)
+public class TransactionMonthlyRollup {
+
+    public static final long UNCATEGORIZED = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate month;
+
+    // UNCATEGORIZED (0) instead of NULL so the unique key can drive ON CONFLICT upserts
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, length = 10)
+    private TransactionDirection direction;
+
+    @Column(name = "amount_cents", nullable = false)
+    private Long amountCents;
+
+    @Column(name = "txn_count", nullable = false)
+    private Long txnCount;
+}
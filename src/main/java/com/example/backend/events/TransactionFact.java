@@ -0,0 +1,34 @@
+package com.example.backend.events;
+
+import com.example.backend.entities.Transaction;
+import com.example.backend.entities.TransactionDirection;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable view of the fields derived aggregates care about, captured at the moment of a write.
+ */
+public record TransactionFact(
+        Long id,
+        LocalDate txnDate,
+        long amountCents,
+        Long categoryId,
+        TransactionDirection direction,
+        String merchant
+) {
+
+    public static TransactionFact of(Transaction transaction) {
+        return new TransactionFact(
+                transaction.getId(),
+                transaction.getTxnDate(),
+                transaction.getAmount().cents(),
+                transaction.getCategory() == null ? null : transaction.getCategory().getId(),
+                transaction.getTransactionType(),
+                transaction.getMerchant()
+        );
+    }
+
+    public TransactionFact withCategoryId(Long newCategoryId) {
+        return new TransactionFact(id, txnDate, amountCents, newCategoryId, direction, merchant);
+    }
+}
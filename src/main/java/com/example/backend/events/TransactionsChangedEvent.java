@@ -0,0 +1,23 @@
+package com.example.backend.events;
+
+import java.util.List;
+
+/**
+ * Published synchronously inside the writing transaction whenever live (non-deleted) transactions change.
+ * An update is expressed as the old fact in {@code removed} and the new fact in {@code added};
+ * listeners keep derived state correct by subtracting the former and adding the latter.
+ */
+public record TransactionsChangedEvent(List<TransactionFact> removed, List<TransactionFact> added) {
+
+    public static TransactionsChangedEvent inserted(List<TransactionFact> added) {
+        return new TransactionsChangedEvent(List.of(), added);
+    }
+
+    public static TransactionsChangedEvent updated(TransactionFact before, TransactionFact after) {
+        return new TransactionsChangedEvent(List.of(before), List.of(after));
+    }
+
+    public static TransactionsChangedEvent deleted(List<TransactionFact> removed) {
+        return new TransactionsChangedEvent(removed, List.of());
+    }
+}
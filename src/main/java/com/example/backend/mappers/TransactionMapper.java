@@ -4,10 +4,12 @@ import com.example.backend.dtos.CreateTransactionDto;
 import com.example.backend.dtos.TransactionDto;
 import com.example.backend.dtos.UpdateTransactionDto;
 import com.example.backend.entities.Transaction;
+import com.example.backend.utils.Money;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
@@ -30,6 +32,10 @@ public interface TransactionMapper {
     @Mapping(target = "transactionType", ignore = true)
     @Mapping(target = "notes", ignore = true)
     @Mapping(target = "isDeleted", ignore = true)
+    @Mapping(target = "fingerprint", ignore = true)
+    @Mapping(target = "duplicateOfId", ignore = true)
+    @Mapping(target = "anomalyScore", ignore = true)
+    @Mapping(target = "changeXid", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Transaction toTransaction(CreateTransactionDto dto);
@@ -43,7 +49,16 @@ public interface TransactionMapper {
     @Mapping(target = "transactionType", ignore = true)
     @Mapping(target = "category", ignore = true)
     @Mapping(target = "isDeleted", ignore = true)
+    @Mapping(target = "fingerprint", ignore = true)
+    @Mapping(target = "duplicateOfId", ignore = true)
+    @Mapping(target = "anomalyScore", ignore = true)
+    @Mapping(target = "changeXid", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     void updateTransaction(@MappingTarget Transaction transaction, UpdateTransactionDto dto);
+
+    // Request amounts stay BigDecimal; entities and responses carry Money
+    default Money toMoney(BigDecimal amount) {
+        return amount == null ? null : Money.of(amount);
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entities.Budget;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Budget b WHERE b.id = :id")
+    Optional<Budget> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Adds to the running total if the stored period is still the given one. Returns 0 when the
+     * budget has not been rolled over to that period yet (or no longer exists).
+     */
+    @Modifying
+    @Query(value = "UPDATE budgets SET spent_cents = spent_cents + :deltaCents " +
+            "WHERE id = :id AND period_start = :periodStart",
+            nativeQuery = true)
+    int addSpend(@Param("id") Long id, @Param("periodStart") LocalDate periodStart, @Param("deltaCents") long deltaCents);
+
+    @Modifying
+    @Query(value = "UPDATE budgets SET alert_level = :alertLevel " +
+            "WHERE id = :id AND period_start = :periodStart AND alert_level < :alertLevel",
+            nativeQuery = true)
+    int raiseAlertLevel(@Param("id") Long id, @Param("periodStart") LocalDate periodStart, @Param("alertLevel") int alertLevel);
+}
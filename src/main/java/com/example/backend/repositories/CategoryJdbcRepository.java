@@ -0,0 +1,75 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entities.Category;
+import com.example.backend.utils.JdbcTimestamps;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Set-based category writes for imports, where resolving names one at a time would cost a round trip
+ * (and a race on the unique name) per row. Participates in the caller's Spring transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CategoryJdbcRepository {
+
+    // Names another writer created first are skipped here and read back by the lookup below
+    private static final String INSERT_MISSING_SQL = "INSERT INTO categories (name, created_at) " +
+            "SELECT unnest(?::varchar[]), ? ON CONFLICT (name) DO NOTHING RETURNING id, name";
+
+    private static final String FIND_BY_NAMES_SQL = "SELECT id, name FROM categories WHERE lower(name) = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates whichever of the given names do not exist yet, in one statement, and returns the category of
+     * every name keyed by its lower-cased form.
+     */
+    public Map<String, Category> createMissing(Collection<String> names) {
+        Map<String, Category> categories = new HashMap<>();
+        if (names.isEmpty()) {
+            return categories;
+        }
+
+        String[] values = names.toArray(String[]::new);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_MISSING_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", values));
+            JdbcTimestamps.set(ps, 2, LocalDateTime.now());
+            return ps;
+        }, (RowCallbackHandler) rs -> put(categories, rs));
+
+        List<String> conflicting = names.stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .filter(key -> !categories.containsKey(key))
+                .distinct()
+                .toList();
+        if (!conflicting.isEmpty()) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(FIND_BY_NAMES_SQL);
+                ps.setArray(1, connection.createArrayOf("varchar", conflicting.toArray()));
+                return ps;
+            }, (RowCallbackHandler) rs -> put(categories, rs));
+        }
+        return categories;
+    }
+
+    private static void put(Map<String, Category> categories, ResultSet rs) throws SQLException {
+        Category category = new Category();
+        category.setId(rs.getLong(1));
+        category.setName(rs.getString(2));
+        categories.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims the key for the current transaction. A concurrent claim of the same key waits on the
+     * primary-key entry until this transaction ends, then sees the stored response (or takes over after
+     * a rollback). Expired rows are reclaimed in place. Returns 1 when claimed, 0 when already answered.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idem_key, request_hash, created_at, expires_at) " +
+            "VALUES (:key, :requestHash, now() AT TIME ZONE 'UTC', now() AT TIME ZONE 'UTC' + make_interval(hours => :ttlHours)) " +
+            "ON CONFLICT (idem_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, status_code = NULL, " +
+            "location = NULL, response_body = NULL, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at < now() AT TIME ZONE 'UTC'",
+            nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash, @Param("ttlHours") int ttlHours);
+
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET status_code = :statusCode, location = :location, " +
+            "response_body = :responseBody WHERE idem_key = :key",
+            nativeQuery = true)
+    int complete(@Param("key") String key,
+                 @Param("statusCode") int statusCode,
+                 @Param("location") String location,
+                 @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE expires_at < now() AT TIME ZONE 'UTC'", nativeQuery = true)
+    int deleteExpired();
+}
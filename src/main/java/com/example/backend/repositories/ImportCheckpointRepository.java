@@ -0,0 +1,16 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entities.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+
+    @Modifying
+    @Query("DELETE FROM ImportCheckpoint c WHERE c.updatedAt < :cutoff")
+    int deleteUpdatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
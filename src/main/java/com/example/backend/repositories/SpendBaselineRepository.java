@@ -0,0 +1,7 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entities.SpendBaseline;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SpendBaselineRepository extends JpaRepository<SpendBaseline, String> {
+}
@@ -0,0 +1,195 @@
+package com.example.backend.repositories;
+
+import com.example.backend.dtos.TransactionDto;
+import com.example.backend.entities.Category;
+import com.example.backend.entities.SmsMessage;
+import com.example.backend.entities.Transaction;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.utils.JdbcTimestamps;
+import com.example.backend.utils.Money;
+import com.example.backend.utils.TransactionCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * JDBC access to transactions_archive, the cold tier of transactions. Readers call {@link #reaches}
+ * to decide whether a date range needs the archive at all, so recent-only queries never touch it.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionArchiveRepository {
+
+    private static final String TIER_COLUMNS = "id, sms_id, txn_date, amount, merchant, payment_type, " +
+            "transaction_type, category_id, notes, is_deleted, fingerprint, duplicate_of_id, created_at, updated_at, " +
+            "anomaly_score, change_xid";
+
+    /**
+     * Drop-in replacement for the transactions table in read-only SQL that must see both tiers.
+     * Predicates on the outer query are pushed into each branch, so the hot table's indexes still apply.
+     */
+    public static final String ALL_TIERS = "(SELECT " + TIER_COLUMNS + " FROM transactions " +
+            "UNION ALL SELECT " + TIER_COLUMNS + " FROM transactions_archive)";
+
+    // One batch per statement: the moved rows leave the hot table and land in the archive atomically
+    private static final String MOVE_SQL = "WITH moved AS (DELETE FROM transactions WHERE id IN (" +
+            "SELECT id FROM transactions WHERE txn_date < ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING " + TIER_COLUMNS + ") " +
+            "INSERT INTO transactions_archive (" + TIER_COLUMNS + ", archived_at) " +
+            "SELECT " + TIER_COLUMNS + ", ? FROM moved";
+
+    private static final String DTO_SQL = "SELECT a.id, a.sms_id, a.txn_date, a.amount, a.merchant, a.payment_type, " +
+            "a.transaction_type, a.category_id, c.name, a.notes, a.duplicate_of_id " +
+            "FROM transactions_archive a LEFT JOIN categories c ON c.id = a.category_id " +
+            "WHERE a.is_deleted = false %s";
+
+    private static final RowMapper<Transaction> TRANSACTION_ROW_MAPPER = (rs, rowNum) -> {
+        Transaction tx = new Transaction();
+        tx.setId(rs.getLong(1));
+        Long smsId = rs.getObject(2, Long.class);
+        if (smsId != null) {
+            SmsMessage smsMessage = new SmsMessage();
+            smsMessage.setId(smsId);
+            tx.setSmsMessage(smsMessage);
+        }
+        tx.setTxnDate(rs.getObject(3, LocalDate.class));
+        tx.setAmount(Money.of(rs.getBigDecimal(4)));
+        tx.setMerchant(rs.getString(5));
+        tx.setPaymentType(rs.getString(6));
+        tx.setTransactionType(TransactionDirection.valueOf(rs.getString(7)));
+        Long categoryId = rs.getObject(8, Long.class);
+        if (categoryId != null) {
+            Category category = new Category();
+            category.setId(categoryId);
+            category.setName(rs.getString(9));
+            tx.setCategory(category);
+        }
+        tx.setNotes(rs.getString(10));
+        tx.setDuplicateOfId(rs.getObject(11, Long.class));
+        tx.setIsDeleted(false);
+        return tx;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Newest archived txn_date; empty when the archive is empty, null until first looked up
+    private final AtomicReference<Optional<LocalDate>> newestArchived = new AtomicReference<>();
+
+    public boolean reaches(@Nullable LocalDate from) {
+        Optional<LocalDate> newest = newestArchived.get();
+        if (newest == null) {
+            newest = refreshBoundary();
+        }
+        return newest.isPresent() && (from == null || !from.isAfter(newest.get()));
+    }
+
+    public Optional<LocalDate> refreshBoundary() {
+        Optional<LocalDate> newest = Optional.ofNullable(
+                jdbcTemplate.queryForObject("SELECT MAX(txn_date) FROM transactions_archive", LocalDate.class));
+        newestArchived.set(newest);
+        return newest;
+    }
+
+    /**
+     * Moves up to batchSize transactions dated before the cutoff into the archive and returns how many moved.
+     * Readers are told about the new boundary first, so they union the archive before any row lands there.
+     */
+    public int archiveBatch(LocalDate before, int batchSize) {
+        LocalDate newestMoved = before.minusDays(1);
+        newestArchived.getAndUpdate(current -> current != null && current.isPresent() && current.get().isAfter(newestMoved)
+                ? current : Optional.of(newestMoved));
+        return jdbcTemplate.update(MOVE_SQL, before, batchSize,
+                JdbcTimestamps.utc(LocalDateTime.now()));
+    }
+
+    // Deleted rows count too: they are archived history all the same
+    public boolean contains(Long id) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM transactions_archive WHERE id = ?)", Boolean.class, id));
+    }
+
+    public boolean existsLiveWithCategory(Long categoryId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM transactions_archive WHERE category_id = ? AND is_deleted = false)",
+                Boolean.class, categoryId));
+    }
+
+    public Optional<TransactionDto> findTransactionDto(Long id) {
+        return jdbcTemplate.query(String.format(DTO_SQL, "AND a.id = ?"), TransactionJdbcRepository.DTO_ROW_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Archived listing rows in (txnDate DESC, id DESC) order, optionally after a keyset cursor and limited.
+     */
+    public List<TransactionDto> findTransactionDtos(@Nullable LocalDate from,
+                                                    @Nullable LocalDate to,
+                                                    @Nullable Long categoryId,
+                                                    @Nullable TransactionCursor after,
+                                                    @Nullable Integer limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = filters(from, to, categoryId, params);
+        if (after != null) {
+            where.append("AND (a.txn_date, a.id) < (?, ?) ");
+            params.add(after.txnDate());
+            params.add(after.id());
+        }
+        where.append("ORDER BY a.txn_date DESC, a.id DESC");
+        if (limit != null) {
+            where.append(" LIMIT ?");
+            params.add(limit);
+        }
+
+        return jdbcTemplate.query(String.format(DTO_SQL, where), TransactionJdbcRepository.DTO_ROW_MAPPER, params.toArray());
+    }
+
+    /**
+     * Archived rows as detached, read-only Transaction instances through a server-side cursor.
+     * The caller must close the stream and hold a transaction for the cursor to stream.
+     */
+    public Stream<Transaction> streamTransactions(@Nullable LocalDate from,
+                                                  @Nullable LocalDate to,
+                                                  @Nullable Long categoryId) {
+        List<Object> params = new ArrayList<>();
+        String sql = String.format(DTO_SQL, filters(from, to, categoryId, params).append("ORDER BY a.txn_date, a.id"));
+
+        return jdbcTemplate.queryForStream(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(TransactionJdbcRepository.BATCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, TRANSACTION_ROW_MAPPER);
+    }
+
+    private static StringBuilder filters(@Nullable LocalDate from, @Nullable LocalDate to, @Nullable Long categoryId,
+                                         List<Object> params) {
+        StringBuilder where = new StringBuilder();
+        if (from != null) {
+            where.append("AND a.txn_date >= ? ");
+            params.add(from);
+        }
+        if (to != null) {
+            where.append("AND a.txn_date <= ? ");
+            params.add(to);
+        }
+        if (categoryId != null) {
+            where.append("AND a.category_id = ? ");
+            params.add(categoryId);
+        }
+        return where;
+    }
+}
@@ -0,0 +1,477 @@
+package com.example.backend.repositories;
+
+import com.example.backend.dtos.AnomalyDto;
+import com.example.backend.dtos.TransactionBulkFilterDto;
+import com.example.backend.dtos.TransactionDto;
+import com.example.backend.entities.Transaction;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.utils.IdRanges;
+import com.example.backend.utils.JdbcTimestamps;
+import com.example.backend.utils.Money;
+import com.example.backend.utils.MoneyUtils;
+import com.example.backend.utils.SyncWatermark;
+import com.example.backend.utils.TransactionFingerprint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Plain-JDBC access to the transactions table for set-based and high-volume paths where
+ * going through the persistence context would cost one statement (or one managed entity) per row.
+ * Participates in the caller's Spring transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionJdbcRepository {
+
+    public static final int BATCH_SIZE = 500;
+    public static final int MAX_FILTER_IDS = 10_000;
+
+    private static final String INSERT_SQL = "INSERT INTO transactions " +
+            "(sms_id, txn_date, amount, merchant, payment_type, transaction_type, category_id, notes, " +
+            "is_deleted, fingerprint, duplicate_of_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?)";
+
+    // Lock the matching rows first so the returned old category is exactly what was overwritten
+    private static final String RECATEGORIZE_SQL = "WITH target AS (" +
+            "SELECT id, category_id FROM transactions WHERE is_deleted = false %s " +
+            "AND category_id IS DISTINCT FROM ? FOR UPDATE) " +
+            "UPDATE transactions t SET category_id = ?, updated_at = ? FROM target WHERE t.id = target.id " +
+            "RETURNING t.id, t.txn_date, t.amount, target.category_id, t.transaction_type, t.merchant";
+
+    private static final String SOFT_DELETE_SQL = "UPDATE transactions SET is_deleted = true, updated_at = ? " +
+            "WHERE is_deleted = false %s " +
+            "RETURNING id, txn_date, amount, category_id, transaction_type, merchant";
+
+    private static final String ARCHIVED_MATCHES_SQL = "SELECT COUNT(*) FROM transactions_archive " +
+            "WHERE is_deleted = false %s";
+
+    private static final String DTO_COLUMNS = "t.id, t.sms_id, t.txn_date, t.amount, t.merchant, t.payment_type, " +
+            "t.transaction_type, t.category_id, c.name, t.notes, t.duplicate_of_id";
+
+    // ILIKE on merchant/notes is served by the partial trigram GIN indexes from TransactionIndexMigration;
+    // word_similarity ranks fragment matches ("swig" -> "Swiggy") above incidental ones
+    // %s is the row source: the hot table, or both tiers when the date range reaches the archive
+    private static final String SEARCH_SQL = "SELECT " + DTO_COLUMNS + " FROM %s t " +
+            "LEFT JOIN categories c ON c.id = t.category_id " +
+            "WHERE t.is_deleted = false AND (t.merchant ILIKE ? OR t.notes ILIKE ?) %s" +
+            "ORDER BY GREATEST(word_similarity(?, t.merchant), word_similarity(?, t.notes)) DESC, " +
+            "t.txn_date DESC, t.id DESC LIMIT ?";
+
+    // Served by the (change_xid, id) index of each tier. Deleted rows are included so they surface as tombstones.
+    // change_xid is the id of the transaction that last wrote the row; below the xmin of the current snapshot
+    // every writer has finished, so no row can still appear behind a watermark taken from this page.
+    private static final String CHANGES_SQL = "SELECT " + DTO_COLUMNS + ", t.is_deleted, t.change_xid " +
+            "FROM " + TransactionArchiveRepository.ALL_TIERS + " t LEFT JOIN categories c ON c.id = t.category_id " +
+            "WHERE t.change_xid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint %s" +
+            "ORDER BY t.change_xid, t.id LIMIT ?";
+
+    // One probe of the fingerprint index per tier for the whole chunk; the oldest match is the original
+    private static final String DUPLICATES_SQL = "SELECT fingerprint, MIN(id) FROM " + TransactionArchiveRepository.ALL_TIERS +
+            " t WHERE is_deleted = false AND fingerprint = ANY (?) %s GROUP BY fingerprint";
+    private static final String EXCLUDE_ID_RANGES = "AND NOT EXISTS (SELECT 1 FROM unnest(?, ?) AS r(lo, hi) " +
+            "WHERE t.id BETWEEN r.lo AND r.hi)";
+
+    private static final String MISSING_FINGERPRINTS_SQL = "SELECT id, txn_date, amount, merchant, transaction_type " +
+            "FROM %s WHERE id > ? AND fingerprint IS NULL ORDER BY id LIMIT ?";
+
+    private static final String DEBIT_TOTAL_SQL = "SELECT COALESCE(SUM(amount), 0) FROM %s t " +
+            "WHERE is_deleted = false AND transaction_type = 'DEBIT' AND txn_date >= ? AND txn_date < ? %s";
+
+    private static final String LIVE_FACTS_SQL = "SELECT id, txn_date, amount, category_id, transaction_type, merchant " +
+            "FROM " + TransactionArchiveRepository.ALL_TIERS + " t WHERE is_deleted = false";
+
+    private static final String ANOMALIES_SQL = "SELECT t.id, t.txn_date, t.amount, t.merchant, t.category_id, t.anomaly_score " +
+            "FROM %s t WHERE t.is_deleted = false AND t.anomaly_score IS NOT NULL %s" +
+            "ORDER BY t.txn_date DESC, t.id DESC LIMIT ?";
+
+    private static final String LIVE_FACTS_SINCE_SQL = "SELECT id, txn_date, amount, category_id, transaction_type, merchant " +
+            "FROM %s t WHERE is_deleted = false AND txn_date >= ?";
+
+    static final RowMapper<TransactionDto> DTO_ROW_MAPPER = (rs, rowNum) -> new TransactionDto(
+            rs.getLong(1),
+            rs.getObject(2, Long.class),
+            rs.getObject(3, LocalDate.class),
+            Money.of(rs.getBigDecimal(4)),
+            rs.getString(5),
+            rs.getString(6),
+            rs.getString(6),
+            TransactionDirection.valueOf(rs.getString(7)),
+            rs.getObject(8, Long.class),
+            rs.getString(9),
+            rs.getString(10),
+            rs.getObject(11, Long.class)
+    );
+
+    private static final RowMapper<TransactionFact> FACT_ROW_MAPPER = (rs, rowNum) -> new TransactionFact(
+            rs.getLong(1),
+            rs.getObject(2, LocalDate.class),
+            MoneyUtils.toCents(rs.getBigDecimal(3)),
+            rs.getObject(4, Long.class),
+            TransactionDirection.valueOf(rs.getString(5)),
+            rs.getString(6)
+    );
+
+    private static final RowMapper<TransactionChange> CHANGE_ROW_MAPPER = (rs, rowNum) -> new TransactionChange(
+            DTO_ROW_MAPPER.mapRow(rs, rowNum),
+            rs.getBoolean(12),
+            rs.getLong(13)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionArchiveRepository archiveRepository;
+
+    public record TransactionChange(TransactionDto transaction, boolean deleted, long changeXid) {
+
+        public SyncWatermark watermark() {
+            return new SyncWatermark(changeXid, transaction.getId());
+        }
+    }
+
+    /**
+     * Inserts the given transactions in JDBC batches of {@link #BATCH_SIZE} and writes the generated
+     * ids back onto the entities. Transaction uses IDENTITY ids, which stops Hibernate from batching
+     * these inserts itself.
+     */
+    public void insertAll(List<Transaction> transactions) {
+        for (int start = 0; start < transactions.size(); start += BATCH_SIZE) {
+            List<Transaction> chunk = transactions.subList(start, Math.min(start + BATCH_SIZE, transactions.size()));
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                    for (Transaction tx : chunk) {
+                        bindInsert(ps, tx);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    readGeneratedIds(ps, chunk);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Maps each given fingerprint that matches a live transaction in either tier to the oldest such
+     * transaction's id, ignoring transactions whose id is in {@code excluded}. Issues one ANY(array) query
+     * per {@link #BATCH_SIZE} fingerprints.
+     */
+    public Map<String, Long> findIdsByFingerprint(Collection<String> fingerprints, @Nullable IdRanges excluded) {
+        boolean exclude = excluded != null && !excluded.isEmpty();
+        String sql = String.format(DUPLICATES_SQL, exclude ? EXCLUDE_ID_RANGES : "");
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(fingerprints));
+        Map<String, Long> ids = new HashMap<>();
+        for (int start = 0; start < distinct.size(); start += BATCH_SIZE) {
+            List<String> chunk = distinct.subList(start, Math.min(start + BATCH_SIZE, distinct.size()));
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setArray(1, connection.createArrayOf("varchar", chunk.toArray()));
+                if (exclude) {
+                    ps.setArray(2, connection.createArrayOf("bigint", excluded.starts()));
+                    ps.setArray(3, connection.createArrayOf("bigint", excluded.ends()));
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> ids.put(rs.getString(1), rs.getLong(2)));
+        }
+        return ids;
+    }
+
+    /**
+     * Computes the fingerprint of up to limit rows of the given tier that predate the column, walking
+     * the primary key from afterId. Returns the last id handled, or null when nothing was left.
+     * updated_at is left alone so delta-sync clients are not sent the whole history again.
+     */
+    public Long backfillFingerprints(String table, long afterId, int limit) {
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query(String.format(MISSING_FINGERPRINTS_SQL, table), (RowCallbackHandler) rs -> updates.add(new Object[]{
+                TransactionFingerprint.of(rs.getObject(2, LocalDate.class), rs.getBigDecimal(3), rs.getString(4),
+                        TransactionDirection.valueOf(rs.getString(5))),
+                rs.getLong(1)
+        }), afterId, limit);
+
+        if (updates.isEmpty()) {
+            return null;
+        }
+        jdbcTemplate.batchUpdate("UPDATE " + table + " SET fingerprint = ? WHERE id = ?", updates);
+        return (Long) updates.get(updates.size() - 1)[1];
+    }
+
+    /**
+     * Ranked substring search over merchant and notes, combined with the optional date/category filters.
+     */
+    public List<TransactionDto> search(String query, LocalDate from, LocalDate to, Long categoryId, int limit) {
+        String pattern = "%" + escapeLike(query) + "%";
+        List<Object> params = new ArrayList<>();
+        params.add(pattern);
+        params.add(pattern);
+
+        StringBuilder where = new StringBuilder();
+        if (from != null) {
+            where.append("AND t.txn_date >= ? ");
+            params.add(from);
+        }
+        if (to != null) {
+            where.append("AND t.txn_date <= ? ");
+            params.add(to);
+        }
+        if (categoryId != null) {
+            where.append("AND t.category_id = ? ");
+            params.add(categoryId);
+        }
+
+        params.add(query);
+        params.add(query);
+        params.add(limit);
+
+        String source = archiveRepository.reaches(from) ? TransactionArchiveRepository.ALL_TIERS : "transactions";
+        return jdbcTemplate.query(String.format(SEARCH_SQL, source, where), DTO_ROW_MAPPER, params.toArray());
+    }
+
+    /**
+     * Total of live debits dated in [from, toExclusive), in cents, optionally for one category.
+     */
+    public long sumDebitCents(@Nullable Long categoryId, LocalDate from, LocalDate toExclusive) {
+        List<Object> params = new ArrayList<>(List.of(from, toExclusive));
+        String where = "";
+        if (categoryId != null) {
+            where = "AND category_id = ?";
+            params.add(categoryId);
+        }
+        String source = archiveRepository.reaches(from) ? TransactionArchiveRepository.ALL_TIERS : "transactions";
+        BigDecimal total = jdbcTemplate.queryForObject(String.format(DEBIT_TOTAL_SQL, source, where),
+                BigDecimal.class, params.toArray());
+        return MoneyUtils.toCents(total);
+    }
+
+    /**
+     * Writes anomaly scores by id; a null score clears the flag. updated_at is left alone, the score is
+     * not part of what delta-sync clients receive.
+     */
+    public void setAnomalyScores(Map<Long, Double> scores) {
+        List<Object[]> updates = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> updates.add(new Object[]{score, id}));
+        jdbcTemplate.batchUpdate("UPDATE transactions SET anomaly_score = ? WHERE id = ?", updates,
+                new int[]{Types.DOUBLE, Types.BIGINT});
+    }
+
+    /**
+     * Live transactions flagged as anomalies, newest first, optionally within [from, to].
+     */
+    public List<AnomalyDto> findAnomalies(@Nullable LocalDate from, @Nullable LocalDate to, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder();
+        if (from != null) {
+            where.append("AND t.txn_date >= ? ");
+            params.add(from);
+        }
+        if (to != null) {
+            where.append("AND t.txn_date <= ? ");
+            params.add(to);
+        }
+        params.add(limit);
+
+        String source = archiveRepository.reaches(from) ? TransactionArchiveRepository.ALL_TIERS : "transactions";
+        return jdbcTemplate.query(String.format(ANOMALIES_SQL, source, where), (rs, rowNum) -> new AnomalyDto(
+                rs.getLong(1),
+                rs.getObject(2, LocalDate.class),
+                rs.getString(4),
+                rs.getObject(5, Long.class),
+                rs.getBigDecimal(3),
+                rs.getDouble(6)
+        ), params.toArray());
+    }
+
+    /**
+     * Feeds every live transaction to the consumer through a server-side cursor, {@link #BATCH_SIZE} rows per
+     * round trip. Must run inside a transaction, otherwise the driver buffers the whole result set.
+     */
+    public void forEachLiveFact(Consumer<TransactionFact> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LIVE_FACTS_SQL);
+            ps.setFetchSize(BATCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(FACT_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Like {@link #forEachLiveFact} for transactions dated on or after from; only reads the archive when
+     * from reaches it.
+     */
+    public void forEachLiveFactSince(LocalDate from, Consumer<TransactionFact> consumer) {
+        String source = archiveRepository.reaches(from) ? TransactionArchiveRepository.ALL_TIERS : "transactions";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(String.format(LIVE_FACTS_SINCE_SQL, source));
+            ps.setFetchSize(BATCH_SIZE);
+            ps.setObject(1, from);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(FACT_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Transactions written after the watermark (live or soft-deleted) in commit-safe (changeXid, id) order.
+     * Rows written by transactions that may still be running are held back, together with everything after
+     * them, so a long-open writer delays the feed but is never skipped.
+     */
+    public List<TransactionChange> findChanges(SyncWatermark since, int limit) {
+        List<Object> params = new ArrayList<>();
+
+        String where = "";
+        if (since != null) {
+            where = "AND (t.change_xid, t.id) > (?, ?) ";
+            params.add(since.changeXid());
+            params.add(since.id());
+        }
+        params.add(limit);
+
+        return jdbcTemplate.query(String.format(CHANGES_SQL, where), CHANGE_ROW_MAPPER, params.toArray());
+    }
+
+    /**
+     * Moves every live transaction matching the filter to the given category in a single UPDATE.
+     * Returns one fact per changed row carrying its previous category.
+     */
+    public List<TransactionFact> recategorize(TransactionBulkFilterDto filter, Long categoryId) {
+        List<Object> params = new ArrayList<>();
+        String where = buildFilter(filter, params);
+        params.add(categoryId);
+        params.add(categoryId);
+        params.add(JdbcTimestamps.utc(LocalDateTime.now()));
+
+        return jdbcTemplate.query(String.format(RECATEGORIZE_SQL, where), FACT_ROW_MAPPER, params.toArray());
+    }
+
+    /**
+     * Soft-deletes every live transaction matching the filter in a single UPDATE.
+     * Returns one fact per deleted row.
+     */
+    public List<TransactionFact> softDelete(TransactionBulkFilterDto filter) {
+        List<Object> params = new ArrayList<>();
+        params.add(JdbcTimestamps.utc(LocalDateTime.now()));
+        String where = buildFilter(filter, params);
+
+        return jdbcTemplate.query(String.format(SOFT_DELETE_SQL, where), FACT_ROW_MAPPER, params.toArray());
+    }
+
+    /**
+     * Counts the live archived transactions matching the filter. Bulk writes only change the hot table,
+     * so callers report these as skipped. With a target category, rows already in it are not counted.
+     */
+    public int countArchivedMatches(TransactionBulkFilterDto filter, @Nullable Long targetCategoryId) {
+        List<Object> params = new ArrayList<>();
+        String where = buildFilter(filter, params);
+        if (!archiveRepository.reaches(filter.getFrom())) {
+            return 0;
+        }
+        if (targetCategoryId != null) {
+            where += "AND category_id IS DISTINCT FROM ? ";
+            params.add(targetCategoryId);
+        }
+        Integer count = jdbcTemplate.queryForObject(String.format(ARCHIVED_MATCHES_SQL, where),
+                Integer.class, params.toArray());
+        return count == null ? 0 : count;
+    }
+
+    // Emits only the predicates actually supplied; values are always bound, never concatenated
+    private String buildFilter(TransactionBulkFilterDto filter, List<Object> params) {
+        if (filter == null) {
+            throw new IllegalArgumentException("filter is required");
+        }
+
+        StringBuilder where = new StringBuilder();
+        if (filter.getMerchant() != null && !filter.getMerchant().isBlank()) {
+            where.append("AND LOWER(merchant) = LOWER(?) ");
+            params.add(filter.getMerchant().trim());
+        }
+        if (filter.getFrom() != null) {
+            where.append("AND txn_date >= ? ");
+            params.add(filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            where.append("AND txn_date <= ? ");
+            params.add(filter.getTo());
+        }
+        if (filter.getCategoryId() != null) {
+            where.append("AND category_id = ? ");
+            params.add(filter.getCategoryId());
+        }
+        if (filter.getIds() != null && !filter.getIds().isEmpty()) {
+            if (filter.getIds().size() > MAX_FILTER_IDS) {
+                throw new IllegalArgumentException("At most " + MAX_FILTER_IDS + " ids can be given per request");
+            }
+            where.append("AND id IN (")
+                    .append(String.join(", ", Collections.nCopies(filter.getIds().size(), "?")))
+                    .append(") ");
+            params.addAll(filter.getIds());
+        }
+
+        if (where.length() == 0) {
+            throw new IllegalArgumentException("At least one filter (merchant, from, to, categoryId, ids) is required");
+        }
+        return where.toString();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private void bindInsert(PreparedStatement ps, Transaction tx) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        tx.setIsDeleted(false);
+        tx.setCreatedAt(now);
+        tx.setUpdatedAt(now);
+
+        setNullableLong(ps, 1, tx.getSmsMessage() == null ? null : tx.getSmsMessage().getId());
+        ps.setObject(2, tx.getTxnDate());
+        ps.setBigDecimal(3, tx.getAmount().toBigDecimal());
+        ps.setString(4, tx.getMerchant());
+        ps.setString(5, tx.getPaymentType());
+        ps.setString(6, tx.getTransactionType().name());
+        setNullableLong(ps, 7, tx.getCategory() == null ? null : tx.getCategory().getId());
+        ps.setString(8, tx.getNotes());
+        tx.setFingerprint(TransactionFingerprint.of(tx));
+        ps.setString(9, tx.getFingerprint());
+        setNullableLong(ps, 10, tx.getDuplicateOfId());
+        JdbcTimestamps.set(ps, 11, now);
+        JdbcTimestamps.set(ps, 12, now);
+    }
+
+    private void readGeneratedIds(PreparedStatement ps, List<Transaction> chunk) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            int index = 0;
+            while (keys.next() && index < chunk.size()) {
+                chunk.get(index++).setId(keys.getLong(1));
+            }
+            if (index != chunk.size()) {
+                throw new SQLException("Expected " + chunk.size() + " generated ids but received " + index);
+            }
+        }
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entities.TransactionMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TransactionMonthlyRollupRepository extends JpaRepository<TransactionMonthlyRollup, Long> {
+
+    @Query("SELECT r FROM TransactionMonthlyRollup r WHERE r.month >= :from AND r.month <= :to " +
+            "AND (:categoryId IS NULL OR r.categoryId = :categoryId) " +
+            "ORDER BY r.month, r.categoryId, r.direction")
+    List<TransactionMonthlyRollup> findSummary(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("categoryId") Long categoryId
+    );
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollup (month_start, category_id, direction, amount_cents, txn_count) " +
+            "VALUES (:month, :categoryId, :direction, :amountCents, :txnCount) " +
+            "ON CONFLICT (month_start, category_id, direction) DO UPDATE SET " +
+            "amount_cents = transaction_monthly_rollup.amount_cents + EXCLUDED.amount_cents, " +
+            "txn_count = transaction_monthly_rollup.txn_count + EXCLUDED.txn_count",
+            nativeQuery = true)
+    int applyDelta(
+            @Param("month") LocalDate month,
+            @Param("categoryId") long categoryId,
+            @Param("direction") String direction,
+            @Param("amountCents") long amountCents,
+            @Param("txnCount") long txnCount
+    );
+
+    // Blocks concurrent deltas for the rest of the rebuild transaction; writers that are still
+    // in flight commit first, so their rows are already visible to the rebuild SELECT.
+    @Modifying
+    @Query(value = "LOCK TABLE transaction_monthly_rollup IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_monthly_rollup", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollup (month_start, category_id, direction, amount_cents, txn_count) " +
+            "SELECT CAST(date_trunc('month', txn_date) AS date), COALESCE(category_id, 0), transaction_type, " +
+            "CAST(SUM(ROUND(amount * 100)) AS bigint), COUNT(*) " +
+            "FROM " + TransactionArchiveRepository.ALL_TIERS + " t WHERE is_deleted = false " +
+            "GROUP BY 1, 2, 3",
+            nativeQuery = true)
+    int rebuildFromTransactions();
+}
@@ -0,0 +1,45 @@
+package com.example.backend.repositories;
+
+import com.example.backend.dtos.TransactionDto;
+import com.example.backend.entities.Transaction;
+import com.example.backend.utils.TransactionCursor;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered transaction reads built with the Criteria API. Only the predicates that were actually
+ * supplied are emitted, so PostgreSQL plans each combination against the matching partial index
+ * instead of a generic "(:param IS NULL OR ...)" plan.
+ * Archived rows are included only when the requested range reaches back into transactions_archive.
+ */
+public interface TransactionQueryRepository {
+
+    List<TransactionDto> findTransactionDtos(
+            @Nullable LocalDate from,
+            @Nullable LocalDate to,
+            @Nullable Long categoryId
+    );
+
+    /**
+     * One keyset page ordered by txnDate DESC, id DESC, starting strictly after {@code after} when given.
+     */
+    List<TransactionDto> findTransactionDtoPage(
+            @Nullable LocalDate from,
+            @Nullable LocalDate to,
+            @Nullable Long categoryId,
+            @Nullable TransactionCursor after,
+            int limit
+    );
+
+    /**
+     * Streams matching rows through a server-side cursor. Must be consumed inside a transaction.
+     */
+    Stream<Transaction> streamTransactions(
+            @Nullable LocalDate from,
+            @Nullable LocalDate to,
+            @Nullable Long categoryId
+    );
+}
@@ -0,0 +1,153 @@
+package com.example.backend.repositories;
+
+import com.example.backend.dtos.TransactionDto;
+import com.example.backend.entities.Category;
+import com.example.backend.entities.Transaction;
+import com.example.backend.utils.TransactionCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class TransactionQueryRepositoryImpl implements TransactionQueryRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final Comparator<TransactionDto> NEWEST_FIRST = Comparator
+            .comparing(TransactionDto::getTxnDate)
+            .thenComparing(TransactionDto::getId)
+            .reversed();
+
+    private final TransactionArchiveRepository archiveRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TransactionDto> findTransactionDtos(LocalDate from, LocalDate to, Long categoryId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionDto> query = cb.createQuery(TransactionDto.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        selectDto(cb, query, t);
+        query.where(filters(cb, t, from, to, categoryId).toArray(new Predicate[0]));
+
+        List<TransactionDto> transactions = entityManager.createQuery(query).getResultList();
+        if (!archiveRepository.reaches(from)) {
+            return transactions;
+        }
+        List<TransactionDto> allTiers = new ArrayList<>(transactions);
+        allTiers.addAll(archiveRepository.findTransactionDtos(from, to, categoryId, null, null));
+        return allTiers;
+    }
+
+    @Override
+    public List<TransactionDto> findTransactionDtoPage(LocalDate from, LocalDate to, Long categoryId,
+                                                       TransactionCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionDto> query = cb.createQuery(TransactionDto.class);
+        Root<Transaction> t = query.from(Transaction.class);
+
+        selectDto(cb, query, t);
+        List<Predicate> predicates = filters(cb, t, from, to, categoryId);
+        if (after != null) {
+            Path<LocalDate> txnDate = t.get("txnDate");
+            Path<Long> id = t.get("id");
+            // The redundant txnDate <= bound gives the planner a range to seek on the (txn_date, id) index
+            predicates.add(cb.lessThanOrEqualTo(txnDate, after.txnDate()));
+            predicates.add(cb.or(
+                    cb.lessThan(txnDate, after.txnDate()),
+                    cb.and(cb.equal(txnDate, after.txnDate()), cb.lessThan(id, after.id()))
+            ));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(t.get("txnDate")), cb.desc(t.get("id")));
+
+        List<TransactionDto> page = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        if (!archiveRepository.reaches(from)) {
+            return page;
+        }
+
+        // Both tiers are already in page order; the next page is the first `limit` of their merge
+        List<TransactionDto> merged = new ArrayList<>(page);
+        merged.addAll(archiveRepository.findTransactionDtos(from, to, categoryId, after, limit));
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    @Override
+    public Stream<Transaction> streamTransactions(LocalDate from, LocalDate to, Long categoryId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> t = query.from(Transaction.class);
+        t.fetch("category", JoinType.LEFT);
+
+        query.select(t);
+        query.where(filters(cb, t, from, to, categoryId).toArray(new Predicate[0]));
+        query.orderBy(cb.asc(t.get("txnDate")), cb.asc(t.get("id")));
+
+        Stream<Transaction> transactions = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+        if (!archiveRepository.reaches(from)) {
+            return transactions;
+        }
+        // Archived history first; Stream.concat is lazy and closes both cursors
+        return Stream.concat(archiveRepository.streamTransactions(from, to, categoryId), transactions);
+    }
+
+    // Builds TransactionDto straight from the row, joining categories in the same statement,
+    // so listings load no managed entities and never touch the lazy category proxy.
+    private void selectDto(CriteriaBuilder cb, CriteriaQuery<TransactionDto> query, Root<Transaction> t) {
+        Join<Transaction, Category> c = t.join("category", JoinType.LEFT);
+        query.select(cb.construct(
+                TransactionDto.class,
+                t.get("id"),
+                t.get("smsMessage").get("id"),
+                t.get("txnDate"),
+                t.get("amount"),
+                t.get("merchant"),
+                t.get("paymentType"),
+                t.get("paymentType"),
+                t.get("transactionType"),
+                c.get("id"),
+                c.get("name"),
+                t.get("notes"),
+                t.get("duplicateOfId")
+        ));
+    }
+
+    private List<Predicate> filters(CriteriaBuilder cb, Root<Transaction> t,
+                                    LocalDate from, LocalDate to, Long categoryId) {
+        List<Predicate> predicates = new ArrayList<>();
+        // Matches the "WHERE is_deleted = false" predicate of the partial indexes
+        predicates.add(cb.equal(t.get("isDeleted"), false));
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(t.<LocalDate>get("txnDate"), from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThanOrEqualTo(t.<LocalDate>get("txnDate"), to));
+        }
+        if (categoryId != null) {
+            predicates.add(cb.equal(t.get("category").get("id"), categoryId));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.AnomalyDto;
+import com.example.backend.entities.SpendBaseline;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.SpendBaselineRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.utils.TransactionFingerprint;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scores incoming debits against the running statistics of their merchant, or of their category while the
+ * merchant has too little history. Each baseline is a Welford accumulator over log(amount), so scoring and
+ * updating cost O(1) per transaction, and working in log space keeps a handful of big purchases from
+ * swamping the variance. Outliers get their score stored on the row in the writer's transaction.
+ * Baselines are patched after commit and saved periodically, so a restart resumes from the last save
+ * instead of replaying history.
+ */
+@Service
+@Slf4j
+public class AnomalyDetectionService {
+
+    public static final int MAX_LIMIT = 500;
+
+    // Fixed-price charges have almost no spread; without a floor any change at all would be an outlier
+    private static final double MIN_STDDEV = 0.05;
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final SpendBaselineRepository baselineRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double zThreshold;
+    private final int minSamples;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Welford> baselines = new HashMap<>();
+    // Baselines changed since the last save
+    private final Set<String> dirty = new HashSet<>();
+    // Non-null while the baselines are being loaded; events are replayed onto them afterwards
+    private List<TransactionsChangedEvent> pendingDuringLoad;
+
+    public AnomalyDetectionService(
+            TransactionJdbcRepository transactionJdbcRepository,
+            SpendBaselineRepository baselineRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.anomaly.z-threshold:3.0}") double zThreshold,
+            @Value("${app.anomaly.min-samples:5}") int minSamples
+    ) {
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.baselineRepository = baselineRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.zThreshold = zThreshold;
+        this.minSamples = Math.max(2, minSamples);
+    }
+
+    /**
+     * Scores new and changed debits in the writer's transaction, against the baselines as they were
+     * before this write. Updates are rescored so a corrected amount also clears a stale flag.
+     */
+    @EventListener
+    @Transactional
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        Map<Long, TransactionFact> before = event.removed().stream()
+                .collect(Collectors.toMap(TransactionFact::id, Function.identity(), (a, b) -> a));
+        Map<Long, Double> scores = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (TransactionFact fact : event.added()) {
+                TransactionFact previous = before.get(fact.id());
+                if (previous == null) {
+                    Double score = score(fact);
+                    if (score != null) {
+                        scores.put(fact.id(), score);
+                    }
+                } else if (!previous.equals(fact)) {
+                    scores.put(fact.id(), score(fact));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!scores.isEmpty()) {
+            transactionJdbcRepository.setAnomalyScores(scores);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(event);
+            }
+        });
+    }
+
+    /**
+     * Loads the saved baselines, or builds them once from the whole history when none were saved yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, Welford> loaded = new HashMap<>();
+        boolean fromHistory;
+        try {
+            List<SpendBaseline> saved = baselineRepository.findAll();
+            saved.forEach(baseline -> loaded.put(baseline.getKey(),
+                    new Welford(baseline.getCount(), baseline.getMean(), baseline.getM2())));
+            fromHistory = saved.isEmpty();
+            if (fromHistory) {
+                transactionTemplate.executeWithoutResult(status ->
+                        transactionJdbcRepository.forEachLiveFact(fact -> add(loaded, fact, 1)));
+            }
+        } catch (Exception ex) {
+            log.error("Spend baseline load failed", ex);
+            lock.writeLock().lock();
+            try {
+                pendingDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // A write committed while history was being read may be counted twice; one extra sample
+            // does not move a baseline in any way that matters
+            baselines.clear();
+            baselines.putAll(loaded);
+            if (fromHistory) {
+                dirty.addAll(loaded.keySet());
+            }
+            pendingDuringLoad.forEach(event -> apply(baselines, event));
+            pendingDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded {} spend baselines{}.", loaded.size(), fromHistory ? " from transaction history" : "");
+        if (fromHistory) {
+            persist();
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(cron = "${app.anomaly.persist-cron:0 */10 * * * *}")
+    public void persist() {
+        List<SpendBaseline> changed = new ArrayList<>();
+        List<String> emptied = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (String key : dirty) {
+                Welford welford = baselines.get(key);
+                if (welford == null) {
+                    emptied.add(key);
+                } else {
+                    changed.add(new SpendBaseline(key, welford.count, welford.mean, welford.m2, now));
+                }
+            }
+            dirty.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (changed.isEmpty() && emptied.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                baselineRepository.saveAll(changed);
+                baselineRepository.deleteAllById(emptied);
+            });
+        } catch (Exception ex) {
+            log.error("Saving {} spend baselines failed", changed.size() + emptied.size(), ex);
+            lock.writeLock().lock();
+            try {
+                changed.forEach(baseline -> dirty.add(baseline.getKey()));
+                dirty.addAll(emptied);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public List<AnomalyDto> getAnomalies(@Nullable LocalDate from, @Nullable LocalDate to, @Nullable Integer limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        int effectiveLimit = limit == null ? 100 : limit;
+        if (effectiveLimit < 1 || effectiveLimit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return transactionJdbcRepository.findAnomalies(from, to, effectiveLimit);
+    }
+
+    /**
+     * Standard deviations above the baseline mean of log(amount), rounded to two decimals, or null when the
+     * transaction is not an outlier or there is no baseline with enough samples to judge it.
+     */
+    @Nullable
+    private Double score(TransactionFact fact) {
+        if (fact.direction() != TransactionDirection.DEBIT || fact.amountCents() <= 0) {
+            return null;
+        }
+        Welford baseline = baselines.get(merchantKey(fact));
+        if (baseline == null || baseline.count < minSamples) {
+            baseline = fact.categoryId() == null ? null : baselines.get(categoryKey(fact.categoryId()));
+        }
+        if (baseline == null || baseline.count < minSamples) {
+            return null;
+        }
+
+        double z = (Math.log(fact.amountCents()) - baseline.mean) / Math.max(baseline.stddev(), MIN_STDDEV);
+        return z >= zThreshold ? Math.round(z * 100) / 100.0 : null;
+    }
+
+    private void apply(TransactionsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(event);
+                return;
+            }
+            apply(baselines, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Map<String, Welford> state, TransactionsChangedEvent event) {
+        event.removed().forEach(fact -> add(state, fact, -1));
+        event.added().forEach(fact -> add(state, fact, 1));
+    }
+
+    private void add(Map<String, Welford> state, TransactionFact fact, int sign) {
+        if (fact.direction() != TransactionDirection.DEBIT || fact.amountCents() <= 0) {
+            return;
+        }
+        double x = Math.log(fact.amountCents());
+        List<String> keys = new ArrayList<>(2);
+        String merchantKey = merchantKey(fact);
+        if (merchantKey != null) {
+            keys.add(merchantKey);
+        }
+        if (fact.categoryId() != null) {
+            keys.add(categoryKey(fact.categoryId()));
+        }
+
+        for (String key : keys) {
+            if (sign > 0) {
+                state.computeIfAbsent(key, k -> new Welford(0, 0, 0)).add(x);
+            } else {
+                Welford welford = state.get(key);
+                if (welford == null) {
+                    continue;
+                }
+                welford.remove(x);
+                if (welford.count == 0) {
+                    state.remove(key);
+                }
+            }
+            if (state == baselines) {
+                dirty.add(key);
+            }
+        }
+    }
+
+    @Nullable
+    private static String merchantKey(TransactionFact fact) {
+        String merchant = TransactionFingerprint.normalizeMerchant(fact.merchant());
+        return merchant.isEmpty() ? null : "m:" + merchant;
+    }
+
+    private static String categoryKey(Long categoryId) {
+        return "c:" + categoryId;
+    }
+
+    private static final class Welford {
+
+        long count;
+        double mean;
+        // Sum of squared deviations from the mean
+        double m2;
+
+        Welford(long count, double mean, double m2) {
+            this.count = count;
+            this.mean = mean;
+            this.m2 = m2;
+        }
+
+        void add(double x) {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+
+        // Inverse of add, so deletes and updates leave the baseline as if the sample had never been seen
+        void remove(double x) {
+            if (count <= 1) {
+                count = 0;
+                mean = 0;
+                m2 = 0;
+                return;
+            }
+            double previousMean = (count * mean - x) / (count - 1);
+            m2 = Math.max(0, m2 - (x - mean) * (x - previousMean));
+            mean = previousMean;
+            count--;
+        }
+
+        double stddev() {
+            return count < 2 ? 0 : Math.sqrt(m2 / (count - 1));
+        }
+    }
+}
@@ -0,0 +1,531 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.BudgetDto;
+import com.example.backend.dtos.CreateBudgetDto;
+import com.example.backend.dtos.UpdateBudgetDto;
+import com.example.backend.entities.Budget;
+import com.example.backend.entities.BudgetPeriod;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.exceptions.AppException;
+import com.example.backend.repositories.BudgetRepository;
+import com.example.backend.repositories.CategoryRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.utils.MoneyUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Category budgets with period-to-date spend maintained incrementally. The running totals live in the
+ * budgets table and are adjusted in the writer's transaction, one statement per touched budget; an
+ * in-memory copy answers every read, so checking a budget is a map lookup rather than a scan.
+ * Crossing the warning threshold or the limit sends one email per level and period, decided on
+ * committed totals only.
+ * A budget covering all categories is touched by every debit write, and its row stays locked until that
+ * writer commits, so while one exists all transaction writes that include a debit commit one at a time.
+ */
+@Service
+@Slf4j
+public class BudgetService {
+
+    public static final int DEFAULT_THRESHOLD_PERCENT = 80;
+
+    private final BudgetRepository budgetRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    // Alert bookkeeping runs after the writer committed, so it needs a transaction of its own
+    private final TransactionTemplate newTransactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BudgetState> budgets = new HashMap<>();
+    private Map<Long, List<BudgetState>> byCategory = new HashMap<>();
+    private List<BudgetState> overall = List.of();
+
+    public BudgetService(BudgetRepository budgetRepository,
+                         CategoryRepository categoryRepository,
+                         TransactionJdbcRepository transactionJdbcRepository,
+                         EmailService emailService,
+                         PlatformTransactionManager transactionManager) {
+        this.budgetRepository = budgetRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Adds the net debit delta of a write to every budget whose current period it falls in, inside the
+     * writer's transaction. The first write of a new period recounts that period instead.
+     */
+    @EventListener
+    @Transactional
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        LocalDate today = LocalDate.now();
+        // Budget rows are updated in id order, so two writers touching the same budgets never deadlock
+        Map<BudgetState, Long> deltas = new TreeMap<>(Comparator.comparing(budget -> budget.id));
+        lock.readLock().lock();
+        try {
+            event.removed().forEach(fact -> accumulate(deltas, fact, -1, today));
+            event.added().forEach(fact -> accumulate(deltas, fact, 1, today));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Change> changes = new ArrayList<>();
+        deltas.forEach((budget, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            LocalDate periodStart = budget.period.startOf(today);
+            // Native statement, so Hibernate flushes this transaction's pending writes first
+            if (budgetRepository.addSpend(budget.id, periodStart, delta) == 1) {
+                changes.add(Change.delta(budget.id, periodStart, delta));
+            } else {
+                rollOver(budget.id, today, delta).ifPresent(changes::add);
+            }
+        });
+
+        if (!changes.isEmpty()) {
+            afterCommit(() -> applyCommitted(changes));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            List<Budget> stored = budgetRepository.findAll();
+            lock.writeLock().lock();
+            try {
+                budgets.clear();
+                stored.forEach(budget -> budgets.put(budget.getId(), new BudgetState(budget)));
+                reindex();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Loaded {} budgets.", stored.size());
+        } catch (Exception ex) {
+            log.error("Budget load failed", ex);
+            return;
+        }
+        rollOverPeriods();
+    }
+
+    /**
+     * Moves budgets whose period has ended onto the current one, recounting its spend. Writes do the same
+     * lazily; this keeps reads of budgets nobody has spent against since midnight current.
+     */
+    @Scheduled(cron = "${app.budgets.rollover-cron:0 1 0 * * *}")
+    public void rollOverPeriods() {
+        LocalDate today = LocalDate.now();
+        List<Long> stale = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            budgets.values().stream()
+                    .filter(budget -> !budget.period.startOf(today).equals(budget.periodStart))
+                    .forEach(budget -> stale.add(budget.id));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (Long budgetId : stale) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> rollOver(budgetId, today, 0)
+                        .ifPresent(change -> afterCommit(() -> applyCommitted(List.of(change)))));
+            } catch (Exception ex) {
+                log.error("Budget {} period rollover failed", budgetId, ex);
+            }
+        }
+    }
+
+    public List<BudgetDto> getBudgets() {
+        lock.readLock().lock();
+        try {
+            return budgets.values().stream()
+                    .sorted(Comparator.comparing(budget -> budget.id))
+                    .map(BudgetState::toDto)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BudgetDto getBudget(Long id) {
+        lock.readLock().lock();
+        try {
+            BudgetState budget = budgets.get(id);
+            if (budget == null) {
+                throw new AppException("Budget not found", HttpStatus.NOT_FOUND);
+            }
+            return budget.toDto();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Transactional
+    public BudgetDto createBudget(CreateBudgetDto createBudgetDto) {
+        if (createBudgetDto.getName() == null || createBudgetDto.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (createBudgetDto.getPeriod() == null) {
+            throw new IllegalArgumentException("period is required");
+        }
+        validateLimit(createBudgetDto.getLimitAmount());
+        int thresholdPercent = createBudgetDto.getThresholdPercent() == null
+                ? DEFAULT_THRESHOLD_PERCENT : validateThreshold(createBudgetDto.getThresholdPercent());
+        Long categoryId = createBudgetDto.getCategoryId();
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            throw new AppException("Category not found", HttpStatus.NOT_FOUND);
+        }
+
+        BudgetPeriod period = createBudgetDto.getPeriod();
+        LocalDate periodStart = period.startOf(LocalDate.now());
+        long spentCents = transactionJdbcRepository.sumDebitCents(categoryId, periodStart, period.endOf(periodStart));
+
+        Budget budget = new Budget();
+        budget.setName(createBudgetDto.getName().trim());
+        budget.setCategoryId(categoryId);
+        budget.setPeriod(period);
+        budget.setLimitAmount(createBudgetDto.getLimitAmount());
+        budget.setThresholdPercent(thresholdPercent);
+        budget.setAlertEmail(blankToNull(createBudgetDto.getAlertEmail()));
+        budget.setPeriodStart(periodStart);
+        budget.setSpentCents(spentCents);
+        // A budget created already over its threshold does not alert for what happened before it existed
+        budget.setAlertLevel(levelFor(MoneyUtils.toCents(budget.getLimitAmount()), thresholdPercent, spentCents));
+
+        Budget saved = budgetRepository.save(budget);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                budgets.put(saved.getId(), new BudgetState(saved));
+                reindex();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        return new BudgetState(saved).toDto();
+    }
+
+    /**
+     * Changes the name, limit, threshold or email. The alert level is re-derived from the new limit without
+     * sending anything, so raising a limit re-arms its alerts and lowering one does not alert retroactively.
+     */
+    @Transactional
+    public BudgetDto updateBudget(Long id, UpdateBudgetDto updateBudgetDto) {
+        Budget budget = budgetRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new AppException("Budget not found", HttpStatus.NOT_FOUND));
+
+        if (updateBudgetDto.getName() != null && !updateBudgetDto.getName().isBlank()) {
+            budget.setName(updateBudgetDto.getName().trim());
+        }
+        if (updateBudgetDto.getLimitAmount() != null) {
+            validateLimit(updateBudgetDto.getLimitAmount());
+            budget.setLimitAmount(updateBudgetDto.getLimitAmount());
+        }
+        if (updateBudgetDto.getThresholdPercent() != null) {
+            budget.setThresholdPercent(validateThreshold(updateBudgetDto.getThresholdPercent()));
+        }
+        if (updateBudgetDto.getAlertEmail() != null) {
+            budget.setAlertEmail(blankToNull(updateBudgetDto.getAlertEmail()));
+        }
+        budget.setAlertLevel(levelFor(MoneyUtils.toCents(budget.getLimitAmount()), budget.getThresholdPercent(),
+                budget.getSpentCents()));
+
+        Budget saved = budgetRepository.save(budget);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                BudgetState state = budgets.get(id);
+                if (state != null) {
+                    state.updateDefinition(saved);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        return new BudgetState(saved).toDto();
+    }
+
+    @Transactional
+    public BudgetDto deleteBudget(Long id) {
+        Budget budget = budgetRepository.findById(id)
+                .orElseThrow(() -> new AppException("Budget not found", HttpStatus.NOT_FOUND));
+        BudgetDto deleted = new BudgetState(budget).toDto();
+
+        budgetRepository.delete(budget);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                budgets.remove(id);
+                reindex();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        return deleted;
+    }
+
+    private void accumulate(Map<BudgetState, Long> deltas, TransactionFact fact, int sign, LocalDate today) {
+        if (fact.direction() != TransactionDirection.DEBIT) {
+            return;
+        }
+        List<BudgetState> categoryBudgets = fact.categoryId() == null
+                ? List.of() : byCategory.getOrDefault(fact.categoryId(), List.of());
+        for (List<BudgetState> candidates : List.of(categoryBudgets, overall)) {
+            for (BudgetState budget : candidates) {
+                // Only spend dated in the current period counts; other periods are recounted on rollover
+                if (budget.period.startOf(fact.txnDate()).equals(budget.period.startOf(today))) {
+                    deltas.merge(budget, sign * fact.amountCents(), Long::sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recounts the current period of a budget still on an older one. The recount runs in the caller's
+     * transaction, so it already includes that transaction's own writes. If another writer rolled the budget
+     * over first, its recount could not see them, and pendingDelta is added on top instead.
+     */
+    private Optional<Change> rollOver(Long budgetId, LocalDate today, long pendingDelta) {
+        Budget budget = budgetRepository.findByIdForUpdate(budgetId).orElse(null);
+        if (budget == null) {
+            return Optional.empty();
+        }
+
+        LocalDate periodStart = budget.getPeriod().startOf(today);
+        if (periodStart.equals(budget.getPeriodStart())) {
+            if (pendingDelta == 0 || budgetRepository.addSpend(budgetId, periodStart, pendingDelta) == 0) {
+                return Optional.empty();
+            }
+            return Optional.of(Change.delta(budgetId, periodStart, pendingDelta));
+        }
+
+        budget.setPeriodStart(periodStart);
+        budget.setSpentCents(transactionJdbcRepository.sumDebitCents(
+                budget.getCategoryId(), periodStart, budget.getPeriod().endOf(periodStart)));
+        budget.setAlertLevel(Budget.ALERT_NONE);
+        budgetRepository.save(budget);
+        return Optional.of(Change.reset(budgetId, periodStart, budget.getSpentCents()));
+    }
+
+    private void applyCommitted(List<Change> changes) {
+        List<Alert> alerts = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (Change change : changes) {
+                BudgetState budget = budgets.get(change.budgetId());
+                if (budget != null && budget.apply(change)) {
+                    Alert alert = budget.raiseAlertLevel();
+                    if (alert != null) {
+                        alerts.add(alert);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        alerts.forEach(this::sendAlert);
+    }
+
+    private void sendAlert(Alert alert) {
+        try {
+            newTransactionTemplate.executeWithoutResult(status ->
+                    budgetRepository.raiseAlertLevel(alert.budgetId(), alert.periodStart(), alert.level()));
+            log.info("Budget {} reached alert level {} for the period starting {}.",
+                    alert.budgetId(), alert.level(), alert.periodStart());
+            if (alert.email() != null) {
+                emailService.sendBudgetAlert(alert.email(), alert.name(), MoneyUtils.fromCents(alert.limitCents()),
+                        MoneyUtils.fromCents(alert.spentCents()), alert.level() == Budget.ALERT_EXCEEDED);
+            }
+        } catch (Exception ex) {
+            log.error("Budget {} alert could not be sent", alert.budgetId(), ex);
+        }
+    }
+
+    private void reindex() {
+        Map<Long, List<BudgetState>> index = new HashMap<>();
+        List<BudgetState> all = new ArrayList<>();
+        for (BudgetState budget : budgets.values()) {
+            if (budget.categoryId == null) {
+                all.add(budget);
+            } else {
+                index.computeIfAbsent(budget.categoryId, id -> new ArrayList<>()).add(budget);
+            }
+        }
+        byCategory = index;
+        overall = all;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    static int levelFor(long limitCents, int thresholdPercent, long spentCents) {
+        if (spentCents > limitCents) {
+            return Budget.ALERT_EXCEEDED;
+        }
+        if (spentCents * 100 >= limitCents * thresholdPercent) {
+            return Budget.ALERT_THRESHOLD;
+        }
+        return Budget.ALERT_NONE;
+    }
+
+    private static void validateLimit(BigDecimal limitAmount) {
+        if (limitAmount == null || limitAmount.signum() <= 0) {
+            throw new IllegalArgumentException("limitAmount must be greater than zero");
+        }
+    }
+
+    private static int validateThreshold(int thresholdPercent) {
+        if (thresholdPercent < 1 || thresholdPercent > 100) {
+            throw new IllegalArgumentException("thresholdPercent must be between 1 and 100");
+        }
+        return thresholdPercent;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // A committed adjustment: either a delta to the running total or the recounted total of a new period
+    private record Change(Long budgetId, LocalDate periodStart, long deltaCents, Long recountedCents) {
+
+        static Change delta(Long budgetId, LocalDate periodStart, long deltaCents) {
+            return new Change(budgetId, periodStart, deltaCents, null);
+        }
+
+        static Change reset(Long budgetId, LocalDate periodStart, long recountedCents) {
+            return new Change(budgetId, periodStart, 0, recountedCents);
+        }
+    }
+
+    private record Alert(Long budgetId, String name, String email, LocalDate periodStart, int level,
+                         long limitCents, long spentCents) {
+    }
+
+    private static final class BudgetState {
+
+        final Long id;
+        final Long categoryId;
+        final BudgetPeriod period;
+        String name;
+        long limitCents;
+        int thresholdPercent;
+        String alertEmail;
+        LocalDate periodStart;
+        long spentCents;
+        int alertLevel;
+        // Deltas for a newer period that committed before the recount of that period reached memory
+        LocalDate pendingStart;
+        long pendingCents;
+
+        BudgetState(Budget budget) {
+            this.id = budget.getId();
+            this.categoryId = budget.getCategoryId();
+            this.period = budget.getPeriod();
+            this.periodStart = budget.getPeriodStart();
+            this.spentCents = budget.getSpentCents();
+            updateDefinition(budget);
+        }
+
+        void updateDefinition(Budget budget) {
+            name = budget.getName();
+            limitCents = MoneyUtils.toCents(budget.getLimitAmount());
+            thresholdPercent = budget.getThresholdPercent();
+            alertEmail = budget.getAlertEmail();
+            if (budget.getPeriodStart().equals(periodStart)) {
+                alertLevel = budget.getAlertLevel();
+            }
+        }
+
+        // Returns false when the change belongs to a period this copy has already left behind
+        boolean apply(Change change) {
+            if (change.periodStart().isBefore(periodStart)) {
+                return false;
+            }
+            if (change.recountedCents() != null) {
+                spentCents = change.recountedCents();
+                if (change.periodStart().equals(pendingStart)) {
+                    spentCents += pendingCents;
+                }
+                periodStart = change.periodStart();
+                alertLevel = Budget.ALERT_NONE;
+                pendingStart = null;
+                pendingCents = 0;
+                return true;
+            }
+            if (change.periodStart().equals(periodStart)) {
+                spentCents += change.deltaCents();
+                return true;
+            }
+            if (!change.periodStart().equals(pendingStart)) {
+                pendingStart = change.periodStart();
+                pendingCents = 0;
+            }
+            pendingCents += change.deltaCents();
+            return false;
+        }
+
+        Alert raiseAlertLevel() {
+            int level = levelFor(limitCents, thresholdPercent, spentCents);
+            if (level <= alertLevel) {
+                return null;
+            }
+            alertLevel = level;
+            return new Alert(id, name, alertEmail, periodStart, level, limitCents, spentCents);
+        }
+
+        BudgetDto toDto() {
+            return new BudgetDto(
+                    id,
+                    name,
+                    categoryId,
+                    period,
+                    MoneyUtils.fromCents(limitCents),
+                    thresholdPercent,
+                    alertEmail,
+                    periodStart,
+                    period.endOf(periodStart).minusDays(1),
+                    MoneyUtils.fromCents(spentCents),
+                    MoneyUtils.fromCents(limitCents - spentCents),
+                    spentCents * 100 >= limitCents * thresholdPercent,
+                    spentCents > limitCents);
+        }
+    }
+}
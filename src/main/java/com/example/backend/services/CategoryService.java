@@ -6,6 +6,7 @@ import com.example.backend.entities.Category;
 import com.example.backend.exceptions.AppException;
 import com.example.backend.mappers.CategoryMapper;
 import com.example.backend.repositories.CategoryRepository;
+import com.example.backend.repositories.TransactionArchiveRepository;
 import com.example.backend.repositories.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -19,7 +20,9 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final TransactionRepository transactionRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
     private final CategoryMapper categoryMapper;
+    private final ResourceVersionTracker versionTracker;
 
     public List<CategoryDto> allCategories() {
         return categoryMapper.toCategoryDtos(categoryRepository.findAll());
@@ -29,6 +32,7 @@ public class CategoryService {
         Category category = categoryMapper.toCategory(createCategoryDto);
 
         Category savedCategory = categoryRepository.save(category);
+        versionTracker.bumpAfterCommit(ResourceVersionTracker.Resource.CATEGORIES);
 
         return categoryMapper.toCategoryDto(savedCategory);
     }
@@ -40,6 +44,9 @@ public class CategoryService {
         categoryMapper.updateCategory(category, createCategoryDto);
 
         Category savedCategory = categoryRepository.save(category);
+        // Transaction listings carry the category name, so a rename changes them too
+        versionTracker.bumpAfterCommit(
+                ResourceVersionTracker.Resource.CATEGORIES, ResourceVersionTracker.Resource.TRANSACTIONS);
 
         return categoryMapper.toCategoryDto(savedCategory);
     }
@@ -48,8 +55,9 @@ public class CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new AppException("Category not found", HttpStatus.NOT_FOUND));
 
-        // Check if category is in use
-        boolean isInUse = transactionRepository.existsByCategoryIdAndIsDeletedFalse(id);
+        // Check if category is in use, archived history included
+        boolean isInUse = transactionRepository.existsByCategoryIdAndIsDeletedFalse(id)
+                || transactionArchiveRepository.existsLiveWithCategory(id);
         if (isInUse) {
             throw new AppException("Cannot delete category that is in use by transactions", HttpStatus.BAD_REQUEST);
         }
@@ -57,6 +65,7 @@ public class CategoryService {
         CategoryDto categoryDto = categoryMapper.toCategoryDto(category);
 
         categoryRepository.deleteById(id);
+        versionTracker.bumpAfterCommit(ResourceVersionTracker.Resource.CATEGORIES);
 
         return categoryDto;
     }
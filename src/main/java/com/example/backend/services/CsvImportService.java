@@ -1,15 +1,26 @@
 package com.example.backend.services;
 
 import com.example.backend.entities.Category;
+import com.example.backend.entities.ImportCheckpoint;
 import com.example.backend.entities.TransactionDirection;
 import com.example.backend.entities.Transaction;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.CategoryJdbcRepository;
 import com.example.backend.repositories.CategoryRepository;
-import com.example.backend.repositories.TransactionRepository;
+import com.example.backend.repositories.ImportCheckpointRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.utils.IdRanges;
+import com.example.backend.utils.Money;
 import com.example.backend.utils.TransactionTypeResolver;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.CellValue;
@@ -20,120 +31,332 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Imports statements in chunks of {@code app.import.chunk-size} rows, each written with batched inserts and
+ * committed on its own, so neither the heap nor the database transaction grows with the file. A failed import
+ * leaves a checkpoint behind; uploading the same file again continues after the last committed chunk.
+ * CSV rows are parsed on a fork-join pool shared by all imports while the importing thread writes.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class CsvImportService {
 
-    private final TransactionRepository transactionRepository;
+    // Handed from the reader to the writer after the last batch; compared by identity
+    private static final CompletableFuture<List<ParsedRow>> END_OF_INPUT = CompletableFuture.completedFuture(List.of());
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryJdbcRepository categoryJdbcRepository;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceVersionTracker versionTracker;
+    private final TransactionDuplicateService duplicateService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+    private final int checkpointTtlDays;
+    private final ForkJoinPool parsePool;
+    private final int parseBatchSize;
+    // Parsed or in-flight batches a CSV import may have queued ahead of its writer
+    private final int pipelineDepth;
+
+    public CsvImportService(
+            TransactionJdbcRepository transactionJdbcRepository,
+            CategoryRepository categoryRepository,
+            CategoryJdbcRepository categoryJdbcRepository,
+            ImportCheckpointRepository checkpointRepository,
+            ApplicationEventPublisher eventPublisher,
+            ResourceVersionTracker versionTracker,
+            TransactionDuplicateService duplicateService,
+            TransactionTemplate transactionTemplate,
+            EntityManager entityManager,
+            @Value("${app.import.chunk-size:1000}") int chunkSize,
+            @Value("${app.import.checkpoint-ttl-days:7}") int checkpointTtlDays,
+            @Value("${app.import.parser-threads:0}") int parserThreads,
+            @Value("${app.import.parse-batch-size:500}") int parseBatchSize
+    ) {
+        this.transactionJdbcRepository = transactionJdbcRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryJdbcRepository = categoryJdbcRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.eventPublisher = eventPublisher;
+        this.versionTracker = versionTracker;
+        this.duplicateService = duplicateService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.checkpointTtlDays = checkpointTtlDays;
+        this.parsePool = new ForkJoinPool(parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors());
+        this.parseBatchSize = Math.max(1, parseBatchSize);
+        this.pipelineDepth = 2 * parsePool.getParallelism();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsePool.shutdownNow();
+    }
+
+    public static final String UNSUPPORTED_FORMAT = "Unsupported file format. Please upload a .csv, .xlsx, or .xls file.";
 
-    @Transactional
-    public String importTransactions(MultipartFile file) {
+    public static boolean isSupported(String filename) {
+        String normalizedFilename = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        return normalizedFilename.endsWith(".csv") || normalizedFilename.endsWith(".xlsx")
+                || normalizedFilename.endsWith(".xls");
+    }
+
+    public String importTransactions(MultipartFile file, TransactionDuplicateService.Policy duplicatePolicy) {
         if (file.isEmpty()) {
             return "File is empty";
         }
+        return importTransactions(file.getResource(), file.getOriginalFilename(), duplicatePolicy, new ImportProgress());
+    }
 
-        String originalFilename = file.getOriginalFilename();
-        String normalizedFilename = originalFilename == null ? "" : originalFilename.toLowerCase(Locale.ROOT);
+    /**
+     * Imports {@code source}, picking the format from {@code filename}, and keeps {@code progress} current
+     * while it runs.
+     */
+    public String importTransactions(Resource source,
+                                     String filename,
+                                     TransactionDuplicateService.Policy duplicatePolicy,
+                                     ImportProgress progress) {
+        String normalizedFilename = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
 
         if (normalizedFilename.endsWith(".csv")) {
-            return importFromCsv(file);
+            return importFromCsv(source, startImport(source, duplicatePolicy, progress));
+        }
+
+        if (normalizedFilename.endsWith(".xlsx")) {
+            return importFromXlsx(source, startImport(source, duplicatePolicy, progress));
         }
 
-        if (normalizedFilename.endsWith(".xlsx") || normalizedFilename.endsWith(".xls")) {
-            return importFromExcel(file);
+        if (normalizedFilename.endsWith(".xls")) {
+            return importFromExcel(source, startImport(source, duplicatePolicy, progress));
         }
 
-        throw new RuntimeException("Unsupported file format. Please upload a .csv, .xlsx, or .xls file.");
+        throw new RuntimeException(UNSUPPORTED_FORMAT);
     }
 
-    private String importFromCsv(MultipartFile file) {
-        ImportStats stats = new ImportStats();
+    @Scheduled(cron = "${app.import.checkpoint-purge-cron:0 20 4 * * *}")
+    public void purgeStaleCheckpoints() {
+        int deleted = transactionTemplate.execute(status ->
+                checkpointRepository.deleteUpdatedBefore(LocalDateTime.now().minusDays(checkpointTtlDays)));
+        if (deleted > 0) {
+            log.info("Purged {} stale import checkpoints.", deleted);
+        }
+    }
+
+    /**
+     * Keys the import by a hash of the duplicate policy and the uploaded bytes, and picks up the checkpoint
+     * an earlier failed attempt at the same upload left behind, if any.
+     */
+    private ImportStats startImport(Resource source,
+                                    TransactionDuplicateService.Policy duplicatePolicy,
+                                    ImportProgress progress) {
+        String key;
+        try (DigestInputStream in = new DigestInputStream(source.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            in.getMessageDigest().update(duplicatePolicy.name().getBytes(StandardCharsets.UTF_8));
+            in.transferTo(OutputStream.nullOutputStream());
+            key = HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read uploaded file: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        return new ImportStats(key, duplicatePolicy, checkpointRepository.findById(key).orElse(null), progress);
+    }
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+    /**
+     * Reads, parses and writes the CSV as a pipeline. A reader thread cuts the records into batches, the parse
+     * pool turns batches into rows in parallel, and this thread writes them. Batches reach the writer in file
+     * order through a bounded queue of futures, so chunk checkpoints keep their meaning, and a slow database
+     * holds the reader back instead of letting parsed rows pile up.
+     */
+    private String importFromCsv(Resource source, ImportStats stats) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                stats.progress.track(source.getInputStream()), StandardCharsets.UTF_8));
              CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build())) {
 
+            stats.progress.expectWork(source.contentLength());
+            BlockingQueue<CompletableFuture<List<ParsedRow>>> batches = new ArrayBlockingQueue<>(pipelineDepth);
+            Thread readerThread = new Thread(() -> readBatches(csvParser, stats.resumeAfter, batches), "csv-import-reader");
+            readerThread.setDaemon(true);
+            readerThread.start();
+            try {
+                writeBatches(batches, stats);
+            } finally {
+                // Stops a reader still blocked on the queue after the writer failed
+                readerThread.interrupt();
+                readerThread.join();
+            }
+
+            stats.finish();
+            return formatResult("CSV", stats);
+
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse CSV file: " + e.getMessage() + stats.resumeHint());
+        }
+    }
+
+    private void readBatches(CSVParser csvParser,
+                             long resumeAfter,
+                             BlockingQueue<CompletableFuture<List<ParsedRow>>> batches) {
+        try {
+            long position = 0;
+            List<CSVRecord> batch = new ArrayList<>(parseBatchSize);
             for (CSVRecord record : csvParser) {
-                try {
-                    Transaction tx = new Transaction();
-                    
-                    // Mandatory fields
-                    tx.setTxnDate(LocalDate.parse(record.get("txnDate")));
-                    tx.setAmount(new BigDecimal(record.get("amount")));
-                    
-                    // Optional fields handling
-                    if (record.isMapped("merchant")) {
-                        tx.setMerchant(record.get("merchant"));
-                    }
+                batch.add(record);
+                if (batch.size() == parseBatchSize) {
+                    batches.put(parseAsync(batch, position, resumeAfter));
+                    position += batch.size();
+                    batch = new ArrayList<>(parseBatchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.put(parseAsync(batch, position, resumeAfter));
+            }
+            batches.put(END_OF_INPUT);
+        } catch (InterruptedException e) {
+            // The writer has stopped taking batches
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Malformed or unreadable input reaches the writer after the batches read before it
+            try {
+                batches.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 
-                    String paymentType = getField(record, "paymentType");
-                    if (paymentType == null) {
-                        paymentType = getField(record, "transactionType");
-                    }
-                    tx.setPaymentType(paymentType);
-
-                    String directionRaw = getField(record, "transactionDirection");
-                    TransactionDirection direction = TransactionTypeResolver.parseDirection(directionRaw);
-                    tx.setTransactionType(TransactionTypeResolver.resolveDirection(direction, paymentType));
-                    
-                    // Category handling
-                    if (record.isMapped("categoryName")) {
-                        String catName = record.get("categoryName");
-                        if (catName != null && !catName.trim().isEmpty()) {
-                            Category category = categoryRepository.findByNameIgnoreCase(catName.trim())
-                                    .orElseGet(() -> {
-                                        Category newCat = new Category();
-                                        newCat.setName(catName.trim());
-                                        return categoryRepository.save(newCat);
-                                    });
-                            tx.setCategory(category);
-                        }
-                    }
+    private CompletableFuture<List<ParsedRow>> parseAsync(List<CSVRecord> batch, long firstPosition, long resumeAfter) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<ParsedRow> rows = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                // Rows an earlier attempt committed are only counted by the writer, not parsed again
+                rows.add(firstPosition + i < resumeAfter ? null : parseCsvRecord(batch.get(i)));
+            }
+            return rows;
+        }, parsePool);
+    }
 
-                    if (record.isMapped("notes")) {
-                        tx.setNotes(record.get("notes"));
-                    }
-                    
-                    tx.setIsDeleted(false);
-                    stats.transactions.add(tx);
-                    stats.successCount++;
-                } catch (Exception e) {
-                    stats.errorCount++;
-                    // Optionally log error for specific row
+    private void writeBatches(BlockingQueue<CompletableFuture<List<ParsedRow>>> batches, ImportStats stats)
+            throws InterruptedException {
+        for (CompletableFuture<List<ParsedRow>> next = batches.take(); next != END_OF_INPUT; next = batches.take()) {
+            List<ParsedRow> rows;
+            try {
+                rows = next.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+
+            for (ParsedRow row : rows) {
+                if (stats.skipCommitted()) {
+                    continue;
+                }
+                if (row.transaction() == null) {
+                    stats.reject();
+                    continue;
                 }
+                // Categories are resolved here, on the one thread that owns the resolver
+                if (row.categoryName() != null) {
+                    stats.categories.assign(row.transaction(), row.categoryName());
+                }
+                stats.add(row.transaction());
             }
+        }
+    }
 
-            if (!stats.transactions.isEmpty()) {
-                transactionRepository.saveAll(stats.transactions);
+    /** Maps one CSV record without touching shared state, so parse workers can run it concurrently. */
+    private ParsedRow parseCsvRecord(CSVRecord record) {
+        Transaction tx = new Transaction();
+        String categoryName = null;
+        try {
+            // Mandatory fields
+            tx.setTxnDate(LocalDate.parse(record.get("txnDate")));
+            tx.setAmount(Money.of(new BigDecimal(record.get("amount"))));
+
+            // Optional fields handling
+            if (record.isMapped("merchant")) {
+                tx.setMerchant(record.get("merchant"));
             }
 
-            return formatResult("CSV", stats);
+            String paymentType = getField(record, "paymentType");
+            if (paymentType == null) {
+                paymentType = getField(record, "transactionType");
+            }
+            tx.setPaymentType(paymentType);
+
+            String directionRaw = getField(record, "transactionDirection");
+            TransactionDirection direction = TransactionTypeResolver.parseDirection(directionRaw);
+            tx.setTransactionType(TransactionTypeResolver.resolveDirection(direction, paymentType));
+
+            // Category handling
+            if (record.isMapped("categoryName")) {
+                String catName = record.get("categoryName");
+                if (catName != null && !catName.trim().isEmpty()) {
+                    categoryName = catName.trim();
+                }
+            }
+
+            if (record.isMapped("notes")) {
+                tx.setNotes(record.get("notes"));
+            }
 
+            tx.setIsDeleted(false);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to parse CSV file: " + e.getMessage());
+            // Optionally log error for specific row
+            return ParsedRow.REJECTED;
         }
+        return new ParsedRow(tx, categoryName);
     }
 
-    private String importFromExcel(MultipartFile file) {
-        ImportStats stats = new ImportStats();
-
-        try (InputStream inputStream = file.getInputStream();
+    private String importFromExcel(Resource source, ImportStats stats) {
+        try (InputStream inputStream = source.getInputStream();
              Workbook workbook = WorkbookFactory.create(inputStream)) {
 
             if (workbook.getNumberOfSheets() == 0) {
@@ -155,28 +378,78 @@ public class CsvImportService {
             Map<String, Integer> headerIndexMap = buildHeaderIndexMap(headerRow, dataFormatter);
 
             int firstDataRowIndex = headerRow.getRowNum() + 1;
+            stats.progress.expectWork(sheet.getLastRowNum() - firstDataRowIndex + 1);
             for (int rowIndex = firstDataRowIndex; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
+                stats.progress.advanceWork(1);
                 Row row = sheet.getRow(rowIndex);
-                if (row == null || isRowBlank(row, dataFormatter, evaluator)) {
+                if (row == null || isRowBlank(row, dataFormatter, evaluator) || stats.skipCommitted()) {
                     continue;
                 }
 
+                Transaction tx;
                 try {
-                    Transaction tx = mapExcelRow(row, headerIndexMap, dataFormatter, evaluator);
-                    stats.transactions.add(tx);
-                    stats.successCount++;
+                    tx = mapExcelRow(row, headerIndexMap, dataFormatter, evaluator, stats.categories);
                 } catch (Exception e) {
-                    stats.errorCount++;
+                    stats.reject();
+                    continue;
                 }
+                stats.add(tx);
             }
 
-            if (!stats.transactions.isEmpty()) {
-                transactionRepository.saveAll(stats.transactions);
+            stats.finish();
+            return formatResult("Excel", stats);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse Excel file: " + e.getMessage() + stats.resumeHint());
+        }
+    }
+
+    /**
+     * Streams the first sheet of an .xlsx through POI's SAX event model instead of building the workbook DOM,
+     * so heap use stays flat whatever the number of rows; only the shared-strings table is held in memory.
+     * An upload that is not on disk yet is spooled to a temp file first, because opening the package from a
+     * stream would buffer the whole zip. Legacy .xls files (at most 65,536 rows) still go through
+     * {@link #importFromExcel}.
+     */
+    private String importFromXlsx(Resource source, ImportStats stats) {
+        Path spooled = null;
+        try {
+            Path workbookFile;
+            if (source.isFile()) {
+                workbookFile = source.getFile().toPath();
+            } else {
+                spooled = Files.createTempFile("import-", ".xlsx");
+                try (InputStream in = source.getInputStream()) {
+                    Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
+                }
+                workbookFile = spooled;
             }
 
+            try (OPCPackage pkg = OPCPackage.open(workbookFile.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(pkg);
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    return "File is empty";
+                }
+
+                XlsxRowHandler rowHandler = new XlsxRowHandler(stats);
+                try (InputStream sheet = stats.progress.track(sheets.next())) {
+                    stats.progress.expectWork(sheets.getSheetPart().getSize());
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(),
+                            new ReadOnlySharedStringsTable(pkg, false), rowHandler, new RawValueFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+                if (rowHandler.headerIndexMap == null) {
+                    throw new RuntimeException("Excel header row is missing");
+                }
+            }
+
+            stats.finish();
             return formatResult("Excel", stats);
         } catch (Exception e) {
-            throw new RuntimeException("Failed to parse Excel file: " + e.getMessage());
+            throw new RuntimeException("Failed to parse Excel file: " + e.getMessage() + stats.resumeHint());
+        } finally {
+            deleteQuietly(spooled);
         }
     }
 
@@ -202,11 +475,12 @@ public class CsvImportService {
     private Transaction mapExcelRow(Row row,
                                     Map<String, Integer> headerIndexMap,
                                     DataFormatter dataFormatter,
-                                    FormulaEvaluator evaluator) {
+                                    FormulaEvaluator evaluator,
+                                    CategoryResolver categories) {
         Transaction tx = new Transaction();
 
         tx.setTxnDate(parseTxnDate(row, headerIndexMap, dataFormatter, evaluator));
-        tx.setAmount(parseAmount(row, headerIndexMap, dataFormatter, evaluator));
+        tx.setAmount(Money.of(parseAmount(row, headerIndexMap, dataFormatter, evaluator)));
 
         if (headerIndexMap.containsKey("merchant")) {
             tx.setMerchant(getExcelField(row, headerIndexMap, "merchant", dataFormatter, evaluator));
@@ -225,13 +499,7 @@ public class CsvImportService {
         if (headerIndexMap.containsKey("categoryName")) {
             String catName = getExcelField(row, headerIndexMap, "categoryName", dataFormatter, evaluator);
             if (catName != null && !catName.trim().isEmpty()) {
-                Category category = categoryRepository.findByNameIgnoreCase(catName.trim())
-                        .orElseGet(() -> {
-                            Category newCat = new Category();
-                            newCat.setName(catName.trim());
-                            return categoryRepository.save(newCat);
-                        });
-                tx.setCategory(category);
+                categories.assign(tx, catName.trim());
             }
         }
 
@@ -243,6 +511,60 @@ public class CsvImportService {
         return tx;
     }
 
+    private Transaction mapXlsxRow(List<String> cells, Map<String, Integer> headerIndexMap, CategoryResolver categories) {
+        Transaction tx = new Transaction();
+
+        String txnDate = getXlsxField(cells, headerIndexMap, "txnDate");
+        if (txnDate == null) {
+            throw new IllegalArgumentException("txnDate is required");
+        }
+        tx.setTxnDate(LocalDate.parse(txnDate));
+
+        String amount = getXlsxField(cells, headerIndexMap, "amount");
+        if (amount == null) {
+            throw new IllegalArgumentException("amount is required");
+        }
+        tx.setAmount(Money.of(new BigDecimal(amount.replace(",", ""))));
+
+        if (headerIndexMap.containsKey("merchant")) {
+            tx.setMerchant(getXlsxField(cells, headerIndexMap, "merchant"));
+        }
+
+        String paymentType = getXlsxField(cells, headerIndexMap, "paymentType");
+        if (paymentType == null) {
+            paymentType = getXlsxField(cells, headerIndexMap, "transactionType");
+        }
+        tx.setPaymentType(paymentType);
+
+        String directionRaw = getXlsxField(cells, headerIndexMap, "transactionDirection");
+        TransactionDirection direction = TransactionTypeResolver.parseDirection(directionRaw);
+        tx.setTransactionType(TransactionTypeResolver.resolveDirection(direction, paymentType));
+
+        String catName = getXlsxField(cells, headerIndexMap, "categoryName");
+        if (catName != null) {
+            categories.assign(tx, catName);
+        }
+
+        if (headerIndexMap.containsKey("notes")) {
+            tx.setNotes(getXlsxField(cells, headerIndexMap, "notes"));
+        }
+
+        tx.setIsDeleted(false);
+        return tx;
+    }
+
+    private String getXlsxField(List<String> cells, Map<String, Integer> headerIndexMap, String header) {
+        Integer cellIndex = headerIndexMap.get(header);
+        if (cellIndex == null || cellIndex >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(cellIndex);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return value.trim();
+    }
+
     private LocalDate parseTxnDate(Row row,
                                    Map<String, Integer> headerIndexMap,
                                    DataFormatter dataFormatter,
@@ -344,10 +666,17 @@ public class CsvImportService {
     }
 
     private String formatResult(String fileType, ImportStats stats) {
-        return String.format("%s Import completed. Successfully processed: %d rows, Failed/Skipped: %d rows.",
+        String result = String.format("%s Import completed. Successfully processed: %d rows, Failed/Skipped: %d rows, " +
+                        "Duplicates (%s): %d rows.",
                 fileType,
                 stats.successCount,
-                stats.errorCount);
+                stats.errorCount,
+                stats.duplicatePolicy.name().toLowerCase(Locale.ROOT),
+                stats.duplicateCount);
+        if (stats.resumeAfter > 0) {
+            result += String.format(" Resumed after row %d, saved by an earlier attempt.", stats.resumeAfter);
+        }
+        return result;
     }
 
     private String getField(CSVRecord record, String header) {
@@ -361,9 +690,259 @@ public class CsvImportService {
         return value.trim();
     }
 
-    private static class ImportStats {
-        private final List<Transaction> transactions = new ArrayList<>();
-        private int successCount;
-        private int errorCount;
+    static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Left for the OS to clean up with the rest of the temp directory
+        }
+    }
+
+    /**
+     * A parsed CSV record, waiting for its category to be resolved by the writer. A null transaction
+     * marks a row that failed to parse.
+     */
+    private record ParsedRow(Transaction transaction, String categoryName) {
+
+        static final ParsedRow REJECTED = new ParsedRow(null, null);
+    }
+
+    /**
+     * Collects the cells of one sheet row at a time. The first row is the header; every later row is mapped
+     * as soon as it ends, so no more than one row of cells is held at once.
+     */
+    private final class XlsxRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ImportStats stats;
+        private final List<String> cells = new ArrayList<>();
+        private Map<String, Integer> headerIndexMap;
+
+        private XlsxRowHandler(ImportStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            while (cells.size() <= column) {
+                cells.add(null);
+            }
+            cells.set(column, formattedValue);
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (headerIndexMap == null) {
+                headerIndexMap = new HashMap<>();
+                for (int i = 0; i < cells.size(); i++) {
+                    String headerName = cells.get(i);
+                    if (headerName != null && !headerName.trim().isEmpty()) {
+                        headerIndexMap.put(headerName.trim(), i);
+                    }
+                }
+                return;
+            }
+            if (cells.stream().allMatch(value -> value == null || value.trim().isEmpty()) || stats.skipCommitted()) {
+                return;
+            }
+
+            Transaction tx;
+            try {
+                tx = mapXlsxRow(cells, headerIndexMap, stats.categories);
+            } catch (Exception e) {
+                stats.reject();
+                return;
+            }
+            stats.add(tx);
+        }
+    }
+
+    /**
+     * Renders date-formatted numbers as ISO dates and every other number unformatted, which is what the DOM
+     * path reads from date and numeric cells. The SAX handler applies it to cached formula results as well.
+     */
+    private static final class RawValueFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+    }
+
+    /**
+     * Resolves category names for one import without a query per row: existing categories are loaded once,
+     * on the first name, and names not seen before are created together in one statement just before each
+     * chunk is saved.
+     */
+    private final class CategoryResolver {
+
+        // Keyed by lower-cased name, matching findByNameIgnoreCase
+        private Map<String, Category> byName;
+        private final Map<String, String> pendingNames = new LinkedHashMap<>();
+        private final Map<String, List<Transaction>> pendingRows = new HashMap<>();
+
+        void assign(Transaction tx, String name) {
+            if (byName == null) {
+                byName = new HashMap<>();
+                categoryRepository.findAll().forEach(category ->
+                        byName.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category));
+            }
+
+            String key = name.toLowerCase(Locale.ROOT);
+            Category category = byName.get(key);
+            if (category != null) {
+                tx.setCategory(category);
+                return;
+            }
+            pendingNames.putIfAbsent(key, name);
+            pendingRows.computeIfAbsent(key, k -> new ArrayList<>()).add(tx);
+        }
+
+        void createPending() {
+            if (pendingNames.isEmpty()) {
+                return;
+            }
+            Map<String, Category> created = categoryJdbcRepository.createMissing(List.copyOf(pendingNames.values()));
+            pendingRows.forEach((key, rows) -> {
+                Category category = created.get(key);
+                rows.forEach(tx -> tx.setCategory(category));
+            });
+            byName.putAll(created);
+            pendingNames.clear();
+            pendingRows.clear();
+            versionTracker.bumpAfterCommit(ResourceVersionTracker.Resource.CATEGORIES);
+        }
+    }
+
+    /**
+     * One run of an import. Parsed rows are buffered until a chunk is full, then written in a transaction of
+     * their own together with the checkpoint, so a failure loses at most the chunk in flight.
+     */
+    private final class ImportStats {
+        private final String key;
+        private final TransactionDuplicateService.Policy duplicatePolicy;
+        private final ImportProgress progress;
+        private final CategoryResolver categories = new CategoryResolver();
+        private List<Transaction> chunk = new ArrayList<>();
+        // Rows up to here were committed by an earlier attempt at the same upload
+        private final long resumeAfter;
+        // Data rows read so far, failed ones included
+        private long position;
+        private long committedRows;
+        private boolean checkpointed;
+        // Ids this import inserted, so later chunks do not flag them while other writers' rows still count
+        private IdRanges ownIds = new IdRanges();
+        private long successCount;
+        private long errorCount;
+        private long duplicateCount;
+        private long insertedCount;
+
+        private ImportStats(String key, TransactionDuplicateService.Policy duplicatePolicy,
+                            @Nullable ImportCheckpoint checkpoint, ImportProgress progress) {
+            this.key = key;
+            this.duplicatePolicy = duplicatePolicy;
+            this.progress = progress;
+            this.resumeAfter = checkpoint == null ? 0 : checkpoint.getRowsDone();
+            if (checkpoint != null) {
+                committedRows = resumeAfter;
+                checkpointed = true;
+                ownIds = IdRanges.decode(checkpoint.getOwnIdRanges());
+                successCount = checkpoint.getSuccessCount();
+                errorCount = checkpoint.getErrorCount();
+                duplicateCount = checkpoint.getDuplicateCount();
+                // Everything counted by the checkpoint was committed, so only skipped duplicates are missing
+                insertedCount = duplicatePolicy.insertsDuplicates() ? successCount : successCount - duplicateCount;
+                progress.resumed(successCount + errorCount);
+                publish();
+            }
+        }
+
+        /** Counts the next data row and tells whether an earlier attempt already committed it. */
+        boolean skipCommitted() {
+            return ++position <= resumeAfter;
+        }
+
+        void add(Transaction tx) {
+            chunk.add(tx);
+            successCount++;
+            if (chunk.size() >= chunkSize) {
+                commit(false);
+            } else {
+                publish();
+            }
+        }
+
+        void reject() {
+            errorCount++;
+            publish();
+        }
+
+        void finish() {
+            if (!chunk.isEmpty() || checkpointed) {
+                commit(true);
+            }
+        }
+
+        String resumeHint() {
+            return committedRows == 0 ? "" : String.format(
+                    " The first %d rows were saved; upload the same file again to continue after them.", committedRows);
+        }
+
+        private void commit(boolean last) {
+            List<Transaction> rows = chunk;
+            chunk = new ArrayList<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!rows.isEmpty()) {
+                    write(rows);
+                }
+                if (!last) {
+                    checkpointRepository.save(new ImportCheckpoint(key, position, successCount, errorCount,
+                            duplicateCount, ownIds.encode(), LocalDateTime.now()));
+                } else if (checkpointed) {
+                    checkpointRepository.deleteById(key);
+                }
+                // Merge targets are the only entities loaded per chunk; none of them is needed afterwards
+                entityManager.flush();
+                entityManager.clear();
+            });
+            committedRows = position;
+            checkpointed = !last;
+            publish();
+        }
+
+        private void publish() {
+            progress.update(successCount + errorCount, insertedCount, errorCount, duplicateCount);
+        }
+
+        private void write(List<Transaction> rows) {
+            categories.createPending();
+            TransactionDuplicateService.Resolution resolution =
+                    duplicateService.resolve(rows, duplicatePolicy, ownIds);
+            duplicateCount += resolution.duplicates();
+
+            List<Transaction> inserted = resolution.toInsert();
+            if (inserted.isEmpty()) {
+                return;
+            }
+            transactionJdbcRepository.insertAll(inserted);
+            insertedCount += inserted.size();
+            // Under ALLOW nothing is matched, so there is nothing to exclude
+            if (duplicatePolicy != TransactionDuplicateService.Policy.ALLOW) {
+                inserted.forEach(tx -> ownIds.add(tx.getId()));
+            }
+            eventPublisher.publishEvent(TransactionsChangedEvent.inserted(
+                    inserted.stream().map(TransactionFact::of).toList()));
+        }
     }
 }
@@ -4,6 +4,8 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+
 @Service
 public class EmailService {
 
@@ -34,4 +36,23 @@ public class EmailService {
 
         mailSender.send(message);
     }
+
+    public void sendBudgetAlert(String email, String budgetName, BigDecimal limit, BigDecimal spent, boolean exceeded) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(email);
+        message.setSubject((exceeded ? "Budget Exceeded" : "Budget Warning") + ": " + budgetName + " \uD83D\uDEA8");
+
+        message.setText(
+            "Hi,\n\n" +
+            (exceeded
+                    ? "You have gone over your \"" + budgetName + "\" budget.\n"
+                    : "You are close to your \"" + budgetName + "\" budget.\n") +
+            "Budget Limit: ₹" + limit + "\n" +
+            "Spent So Far: ₹" + spent + "\n" +
+            "Remaining: ₹" + limit.subtract(spent) + "\n\n" +
+            "— Fin Tracker App"
+        );
+
+        mailSender.send(message);
+    }
 }
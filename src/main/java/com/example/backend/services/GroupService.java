@@ -9,12 +9,11 @@ import com.example.backend.exceptions.ResourceNotFoundException;
 import com.example.backend.repositories.GroupMemberRepository;
 import com.example.backend.repositories.GroupRepository;
 import com.example.backend.repositories.GroupTransactionRepository;
+import com.example.backend.utils.Money;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -122,17 +121,14 @@ public class GroupService {
         GroupTransaction transaction = new GroupTransaction();
         transaction.setGroup(group);
         transaction.setDescription(request.getDescription());
-        transaction.setAmount(request.getAmount());
+        Money amount = Money.of(request.getAmount());
+        transaction.setAmount(amount);
         transaction.setPaidBy(payer);
         
         transaction = groupTransactionRepository.save(transaction);
         
         // Calculate equal share per participant
-        BigDecimal sharePerPerson = request.getAmount().divide(
-            BigDecimal.valueOf(participants.size()), 
-            2, 
-            RoundingMode.HALF_UP
-        );
+        Money sharePerPerson = amount.divide(participants.size());
         
         // Create participant entries
         List<GroupTransactionParticipant> transactionParticipants = new ArrayList<>();
@@ -0,0 +1,197 @@
+package com.example.backend.services;
+
+import com.example.backend.entities.IdempotencyRecord;
+import com.example.backend.exceptions.AppException;
+import com.example.backend.repositories.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Makes create endpoints safe to retry. The first request with a given Idempotency-Key runs the insert
+ * and stores the response in the same transaction; repeats get that response back without touching the
+ * insert path. Completed responses are also kept in a bounded in-process cache, so a hot retry costs no
+ * database round trip and a cold one costs a single primary-key lookup.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int ttlHours;
+    private final Map<String, IdempotencyRecord> cache;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository recordRepository,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.idempotency.ttl-hours:24}") int ttlHours,
+            @Value("${app.idempotency.cache-size:10000}") int cacheSize
+    ) {
+        this.recordRepository = recordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttlHours = ttlHours;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Runs {@code action} once per (scope, key). Without a key the action simply runs.
+     * Reusing a key with a different request body is rejected with 422.
+     */
+    public <T> ResponseEntity<T> execute(String scope,
+                                         @Nullable String idempotencyKey,
+                                         Object request,
+                                         Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String key = scope + " " + idempotencyKey.trim();
+        String requestHash = hash(request);
+
+        IdempotencyRecord known = cached(key);
+        if (known == null) {
+            known = recordRepository.findById(key).filter(this::isAnswered).orElse(null);
+        }
+        if (known != null) {
+            return replay(known, requestHash, responseType);
+        }
+
+        return transactionTemplate.execute(status -> {
+            LocalDateTime claimedAt = LocalDateTime.now();
+            if (recordRepository.claim(key, requestHash, ttlHours) == 0) {
+                // Another request with this key committed while we waited on the claim
+                IdempotencyRecord winner = recordRepository.findById(key)
+                        .filter(this::isAnswered)
+                        .orElseThrow(() -> new AppException(
+                                "A request with this " + HEADER + " is still in progress", HttpStatus.CONFLICT));
+                return replay(winner, requestHash, responseType);
+            }
+
+            ResponseEntity<T> response = action.get();
+            String location = response.getHeaders().getLocation() == null
+                    ? null : response.getHeaders().getLocation().toString();
+            String body = toJson(response.getBody());
+            recordRepository.complete(key, response.getStatusCode().value(), location, body);
+            // The stored row expires no earlier than this, since the database stamped it after claimedAt
+            rememberAfterCommit(new IdempotencyRecord(key, requestHash, response.getStatusCode().value(), location,
+                    body, claimedAt, claimedAt.plusHours(ttlHours)));
+            return response;
+        });
+    }
+
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 0 * * * *}")
+    public void purgeExpired() {
+        int deleted = transactionTemplate.execute(status -> recordRepository.deleteExpired());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys.", deleted);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new AppException(HEADER + " was already used for a different request", HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        remember(record);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(record.getStatusCode())
+                .header(REPLAYED_HEADER, "true");
+        if (record.getLocation() != null) {
+            response.location(URI.create(record.getLocation()));
+        }
+        try {
+            return response.body(record.getResponseBody() == null
+                    ? null : objectMapper.readValue(record.getResponseBody(), responseType));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", e);
+        }
+    }
+
+    // A rolled-back insert must never be replayed, so the cache only learns of a response once it is committed
+    private void rememberAfterCommit(IdempotencyRecord record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(record);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(record);
+            }
+        });
+    }
+
+    private void remember(IdempotencyRecord record) {
+        synchronized (cache) {
+            cache.put(record.getKey(), record);
+        }
+    }
+
+    @Nullable
+    private IdempotencyRecord cached(String key) {
+        synchronized (cache) {
+            IdempotencyRecord record = cache.get(key);
+            if (record != null && !isAnswered(record)) {
+                cache.remove(key);
+                return null;
+            }
+            return record;
+        }
+    }
+
+    private boolean isAnswered(IdempotencyRecord record) {
+        return record.getStatusCode() != null && record.getExpiresAt().isAfter(LocalDateTime.now());
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private String toJson(@Nullable Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store idempotent response", e);
+        }
+    }
+}
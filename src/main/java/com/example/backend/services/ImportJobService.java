@@ -0,0 +1,217 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.ImportJobDto;
+import com.example.backend.exceptions.AppException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs imports in the background. An upload is spooled to a temp file and queued, and the request returns
+ * straight away with a job id to poll. At most {@code app.import.jobs.concurrency} imports run at once and
+ * {@code app.import.jobs.queue-capacity} wait; further uploads are refused with 503 instead of piling up
+ * parse buffers on the heap. Job state lives in memory and finished jobs are dropped after
+ * {@code app.import.jobs.retention-hours}; an import cut short by a restart resumes from its checkpoint
+ * when the file is uploaded again.
+ */
+@Service
+@Slf4j
+public class ImportJobService {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final CsvImportService csvImportService;
+    private final ThreadPoolExecutor executor;
+    private final int retentionHours;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(
+            CsvImportService csvImportService,
+            @Value("${app.import.jobs.concurrency:2}") int concurrency,
+            @Value("${app.import.jobs.queue-capacity:10}") int queueCapacity,
+            @Value("${app.import.jobs.retention-hours:24}") int retentionHours
+    ) {
+        this.csvImportService = csvImportService;
+        this.retentionHours = retentionHours;
+        AtomicInteger threads = new AtomicInteger();
+        int workers = Math.max(1, concurrency);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "import-job-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public ImportJobDto submit(MultipartFile file, TransactionDuplicateService.Policy duplicatePolicy) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        String filename = file.getOriginalFilename();
+        if (!CsvImportService.isSupported(filename)) {
+            throw new IllegalArgumentException(CsvImportService.UNSUPPORTED_FORMAT);
+        }
+        // Cheap early refusal; the executor's own rejection below is what actually enforces the cap
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw busy();
+        }
+
+        Path spooled = null;
+        try {
+            spooled = Files.createTempFile("import-job-", null);
+            file.transferTo(spooled);
+        } catch (IOException e) {
+            CsvImportService.deleteQuietly(spooled);
+            throw new AppException("Failed to store uploaded file: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), filename, duplicatePolicy, spooled);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            CsvImportService.deleteQuietly(spooled);
+            throw busy();
+        }
+        return job.toDto();
+    }
+
+    public ImportJobDto getJob(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new AppException("Import job not found", HttpStatus.NOT_FOUND);
+        }
+        return job.toDto();
+    }
+
+    @Scheduled(cron = "${app.import.jobs.purge-cron:0 */15 * * * *}")
+    public void purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.values().stream()
+                .filter(job -> job.status == Status.QUEUED)
+                .forEach(job -> CsvImportService.deleteQuietly(job.spooled));
+    }
+
+    private void run(ImportJob job) {
+        job.start();
+        try {
+            String result = csvImportService.importTransactions(
+                    new FileSystemResource(job.spooled), job.filename, job.duplicatePolicy, job.progress);
+            job.finish(Status.COMPLETED, result, null);
+            log.info("Import job {} ({}) completed: {}", job.id, job.filename, result);
+        } catch (Exception e) {
+            job.finish(Status.FAILED, null, e.getMessage());
+            log.warn("Import job {} ({}) failed: {}", job.id, job.filename, e.getMessage());
+        } finally {
+            CsvImportService.deleteQuietly(job.spooled);
+        }
+    }
+
+    private static AppException busy() {
+        return new AppException("Too many imports are in progress; try again later", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private static final class ImportJob {
+
+        final String id;
+        final String filename;
+        final TransactionDuplicateService.Policy duplicatePolicy;
+        final Path spooled;
+        final ImportProgress progress = new ImportProgress();
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        volatile Status status = Status.QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile long startedNanos;
+        volatile long finishedNanos;
+        volatile String message;
+        volatile String error;
+
+        ImportJob(String id, String filename, TransactionDuplicateService.Policy duplicatePolicy, Path spooled) {
+            this.id = id;
+            this.filename = filename;
+            this.duplicatePolicy = duplicatePolicy;
+            this.spooled = spooled;
+        }
+
+        void start() {
+            startedNanos = System.nanoTime();
+            startedAt = LocalDateTime.now();
+            status = Status.RUNNING;
+        }
+
+        void finish(Status outcome, String message, String error) {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            this.message = message;
+            this.error = error;
+            status = outcome;
+        }
+
+        ImportJobDto toDto() {
+            Status current = status;
+            Double rowsPerSecond = null;
+            Double fraction = current == Status.COMPLETED ? Double.valueOf(1.0) : progress.getFractionDone();
+            Long etaSeconds = current == Status.COMPLETED ? Long.valueOf(0) : null;
+            if (current != Status.QUEUED) {
+                long elapsedNanos = Math.max(1, (current == Status.RUNNING ? System.nanoTime() : finishedNanos) - startedNanos);
+                double elapsedSeconds = elapsedNanos / 1e9;
+                long rowsThisRun = progress.getRowsParsed() - progress.getRowsResumed();
+                rowsPerSecond = Math.round(rowsThisRun / elapsedSeconds * 10) / 10.0;
+                // Extrapolates the time taken so far over the share of the input still to read
+                if (current == Status.RUNNING && fraction != null && fraction > 0) {
+                    etaSeconds = Math.round(elapsedSeconds * (1 - fraction) / fraction);
+                }
+            }
+
+            return new ImportJobDto(
+                    id,
+                    filename,
+                    duplicatePolicy.name().toLowerCase(Locale.ROOT),
+                    current.name(),
+                    submittedAt,
+                    startedAt,
+                    finishedAt,
+                    progress.getRowsParsed(),
+                    progress.getRowsInserted(),
+                    progress.getRowsRejected(),
+                    progress.getDuplicates(),
+                    rowsPerSecond,
+                    fraction == null ? null : Math.round(fraction * 1000) / 10.0,
+                    etaSeconds,
+                    message,
+                    error);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.backend.services;
+
+import org.springframework.lang.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Live counters of one import, written by the importing thread and read by whoever polls it. Work is
+ * measured in bytes of the CSV or sheet XML read, or in rows when the sheet's row count is known up front,
+ * and is what the completion estimate is based on.
+ */
+public class ImportProgress {
+
+    // Only the importing thread writes; volatile is enough for pollers to see current values
+    private volatile long rowsParsed;
+    private volatile long rowsInserted;
+    private volatile long rowsRejected;
+    private volatile long duplicates;
+    // Rows counted by an earlier attempt whose checkpoint this run resumed from
+    private volatile long rowsResumed;
+    private volatile long workDone;
+    private volatile long workTotal = -1;
+
+    public long getRowsParsed() {
+        return rowsParsed;
+    }
+
+    public long getRowsInserted() {
+        return rowsInserted;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getRowsResumed() {
+        return rowsResumed;
+    }
+
+    /** Fraction of the input read so far, or null while its size is unknown. */
+    @Nullable
+    public Double getFractionDone() {
+        long total = workTotal;
+        return total <= 0 ? null : Math.min(1.0, (double) workDone / total);
+    }
+
+    void resumed(long rows) {
+        rowsResumed = rows;
+    }
+
+    void update(long parsed, long inserted, long rejected, long duplicateRows) {
+        rowsParsed = parsed;
+        rowsInserted = inserted;
+        rowsRejected = rejected;
+        duplicates = duplicateRows;
+    }
+
+    void expectWork(long total) {
+        workTotal = total;
+    }
+
+    void advanceWork(long units) {
+        workDone += units;
+    }
+
+    /** Counts the bytes read through the returned stream as work done. */
+    InputStream track(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    advanceWork(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    advanceWork(n);
+                }
+                return n;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                advanceWork(skipped);
+                return skipped;
+            }
+        };
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.RecurringPaymentDto;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.utils.MoneyUtils;
+import com.example.backend.utils.TransactionFingerprint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Detects subscriptions and other recurring debits. Debits are grouped into series by normalized merchant
+ * and amount band, and each series keeps only its most recent occurrences, so every insert, update or delete
+ * costs O(1) whatever the length of the history. A series is recurring when its latest intervals repeat a
+ * weekly, monthly or yearly cadence within tolerance.
+ * Loaded at startup, patched after every committed write and rebuilt nightly, like the analytics snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecurringPaymentService {
+
+    // Occurrences remembered per series: a year of monthly charges plus one
+    static final int WINDOW = 13;
+    // Bands are 10% wide on a log scale, so a modest price change usually stays in the same series
+    private static final double BAND_WIDTH = Math.log(1.10);
+
+    public enum Period {
+        WEEKLY(7, 1, 4, 52),
+        MONTHLY(30, 3, 3, 12),
+        YEARLY(365, 7, 2, 1);
+
+        private final int days;
+        private final int toleranceDays;
+        private final int minOccurrences;
+        private final int perYear;
+
+        Period(int days, int toleranceDays, int minOccurrences, int perYear) {
+            this.days = days;
+            this.toleranceDays = toleranceDays;
+            this.minOccurrences = minOccurrences;
+            this.perYear = perYear;
+        }
+
+        boolean matches(int intervalDays) {
+            return Math.abs(intervalDays - days) <= toleranceDays;
+        }
+
+        LocalDate next(LocalDate date) {
+            return switch (this) {
+                case WEEKLY -> date.plusWeeks(1);
+                case MONTHLY -> date.plusMonths(1);
+                case YEARLY -> date.plusYears(1);
+            };
+        }
+
+        long monthlyCents(long cents) {
+            return MoneyUtils.divideCents(Math.multiplyExact(cents, perYear), 12);
+        }
+    }
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<SeriesKey, Series> series = new HashMap<>();
+    // Non-null while a rebuild is reading the table; events are replayed onto the fresh state afterwards
+    private List<TransactionsChangedEvent> pendingDuringReload;
+
+    @EventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(event);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.recurring.reload-cron:0 50 3 * * *}")
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<SeriesKey, Series> fresh = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    transactionJdbcRepository.forEachLiveFact(fact -> add(fresh, fact)));
+        } catch (Exception ex) {
+            log.error("Recurring payment detector load failed", ex);
+            lock.writeLock().lock();
+            try {
+                pendingDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringReload.forEach(event -> apply(fresh, event));
+            pendingDuringReload = null;
+            series = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded recurring payment detector: {} merchant/amount series.", fresh.size());
+    }
+
+    /**
+     * Recurring debits, largest monthly cost first. Inactive ones are those whose next charge is
+     * overdue by more than twice the period's tolerance, i.e. most likely cancelled.
+     */
+    public List<RecurringPaymentDto> getRecurringPayments(LocalDate today, boolean includeInactive) {
+        List<RecurringPaymentDto> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Series s : series.values()) {
+                RecurringPaymentDto detected = s.detect(today);
+                if (detected != null && (includeInactive || detected.isActive())) {
+                    result.add(detected);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparing(RecurringPaymentDto::getMonthlyCost).reversed());
+        return result;
+    }
+
+    private void apply(TransactionsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(series, event);
+            if (pendingDuringReload != null) {
+                pendingDuringReload.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Map<SeriesKey, Series> state, TransactionsChangedEvent event) {
+        for (TransactionFact fact : event.removed()) {
+            SeriesKey key = SeriesKey.of(fact);
+            Series s = key == null ? null : state.get(key);
+            if (s != null && s.remove(fact.id()) && s.size == 0) {
+                state.remove(key);
+            }
+        }
+        event.added().forEach(fact -> add(state, fact));
+    }
+
+    private static void add(Map<SeriesKey, Series> state, TransactionFact fact) {
+        SeriesKey key = SeriesKey.of(fact);
+        if (key != null) {
+            state.computeIfAbsent(key, k -> new Series()).add(fact);
+        }
+    }
+
+    private record SeriesKey(String merchant, int amountBand) {
+
+        static SeriesKey of(TransactionFact fact) {
+            if (fact.direction() != TransactionDirection.DEBIT || fact.amountCents() <= 0) {
+                return null;
+            }
+            String merchant = TransactionFingerprint.normalizeMerchant(fact.merchant());
+            if (merchant.isEmpty()) {
+                return null;
+            }
+            return new SeriesKey(merchant, (int) Math.floor(Math.log(fact.amountCents()) / BAND_WIDTH));
+        }
+    }
+
+    /**
+     * The latest {@link #WINDOW} occurrences of one merchant/amount band, ordered by date. Older
+     * occurrences arriving late are dropped once the window is full; the nightly rebuild restores them
+     * if a delete later frees a slot.
+     */
+    private static final class Series {
+
+        final long[] ids = new long[WINDOW];
+        final int[] epochDay = new int[WINDOW];
+        final long[] amountCents = new long[WINDOW];
+        final Long[] categoryIds = new Long[WINDOW];
+        int size;
+        String merchant;
+
+        void add(TransactionFact fact) {
+            int day = (int) fact.txnDate().toEpochDay();
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == fact.id()) {
+                    return;
+                }
+            }
+            if (size == WINDOW) {
+                if (day < epochDay[0]) {
+                    return;
+                }
+                shiftLeft(0);
+            }
+
+            int slot = size;
+            while (slot > 0 && epochDay[slot - 1] > day) {
+                copy(slot - 1, slot);
+                slot--;
+            }
+            ids[slot] = fact.id();
+            epochDay[slot] = day;
+            amountCents[slot] = fact.amountCents();
+            categoryIds[slot] = fact.categoryId();
+            size++;
+            if (slot == size - 1) {
+                merchant = fact.merchant().trim();
+            }
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    shiftLeft(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        RecurringPaymentDto detect(LocalDate today) {
+            // Same-day repeats (a flagged duplicate, a split charge) are one occurrence. They are collapsed
+            // here rather than in add() so that removing one of them leaves the day in the series.
+            int[] days = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (count == 0 || days[count - 1] != epochDay[i]) {
+                    days[count++] = epochDay[i];
+                }
+            }
+            if (count < 2) {
+                return null;
+            }
+            int lastInterval = days[count - 1] - days[count - 2];
+            for (Period period : Period.values()) {
+                if (!period.matches(lastInterval)) {
+                    continue;
+                }
+                int occurrences = 2;
+                while (occurrences < count
+                        && period.matches(days[count - occurrences] - days[count - occurrences - 1])) {
+                    occurrences++;
+                }
+                if (occurrences < period.minOccurrences) {
+                    return null;
+                }
+
+                LocalDate lastDate = LocalDate.ofEpochDay(epochDay[size - 1]);
+                LocalDate nextDate = period.next(lastDate);
+                long cents = amountCents[size - 1];
+                return new RecurringPaymentDto(
+                        merchant,
+                        period.name(),
+                        MoneyUtils.fromCents(cents),
+                        MoneyUtils.fromCents(period.monthlyCents(cents)),
+                        categoryIds[size - 1],
+                        occurrences,
+                        lastDate,
+                        nextDate,
+                        !today.isAfter(nextDate.plusDays(2L * period.toleranceDays)));
+            }
+            return null;
+        }
+
+        private void shiftLeft(int from) {
+            for (int i = from; i < size - 1; i++) {
+                copy(i + 1, i);
+            }
+            size--;
+            categoryIds[size] = null;
+        }
+
+        private void copy(int from, int to) {
+            ids[to] = ids[from];
+            epochDay[to] = epochDay[from];
+            amountCents[to] = amountCents[from];
+            categoryIds[to] = categoryIds[from];
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend.services;
+
+import com.example.backend.events.TransactionsChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process version counters for list resources, used to build strong ETags without querying.
+ * Counters are bumped after the writing transaction commits, so a reader can never pair a new
+ * version with old data. The boot epoch keeps ETags from colliding across restarts.
+ * Assumes a single application instance, which is how the service is deployed.
+ */
+@Component
+public class ResourceVersionTracker {
+
+    public enum Resource {
+        TRANSACTIONS,
+        CATEGORIES
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Resource, AtomicLong> versions = new EnumMap<>(Resource.class);
+
+    public ResourceVersionTracker() {
+        for (Resource resource : Resource.values()) {
+            versions.put(resource, new AtomicLong());
+        }
+    }
+
+    @EventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        bumpAfterCommit(Resource.TRANSACTIONS);
+    }
+
+    public void bumpAfterCommit(Resource... resources) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(resources);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(resources);
+            }
+        });
+    }
+
+    /**
+     * Strong ETag covering the given resources; read it before running the query it guards.
+     */
+    public String etag(Resource... resources) {
+        StringBuilder tag = new StringBuilder("\"").append(epoch);
+        for (Resource resource : resources) {
+            tag.append('-').append(versions.get(resource).get());
+        }
+        return tag.append('"').toString();
+    }
+
+    private void bump(Resource... resources) {
+        for (Resource resource : resources) {
+            versions.get(resource).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.CategoryTotalDto;
+import com.example.backend.dtos.RollingStatsDto;
+import com.example.backend.dtos.RollingWindowDto;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.utils.MoneyUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trailing 7, 30 and 90-day totals for the home screen. Keeps one bucket of cents and counts per day in a
+ * 90-slot ring; writes adjust the bucket of their date, and advancing a day just recycles the oldest slot,
+ * so answering never touches the transactions table. Transactions dated in the future wait in their own
+ * buckets until their day enters the ring. The facts inside the window are kept by id, which makes
+ * replaying a write idempotent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RollingStatsService {
+
+    static final int DAYS = 90;
+    static final int[] WINDOWS = {7, 30, DAYS};
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Ring ring = new Ring(LocalDate.now().toEpochDay());
+    // Non-null while a reload is reading the table; events are replayed onto the fresh ring afterwards
+    private List<TransactionsChangedEvent> pendingDuringReload;
+
+    @EventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(event);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LocalDate today = LocalDate.now();
+        Ring fresh = new Ring(today.toEpochDay());
+        try {
+            transactionTemplate.executeWithoutResult(status -> transactionJdbcRepository.forEachLiveFactSince(
+                    today.minusDays(DAYS - 1), fresh::upsert));
+        } catch (Exception ex) {
+            log.error("Rolling stats load failed", ex);
+            lock.writeLock().lock();
+            try {
+                pendingDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Upserts and removes are idempotent per id, so replaying writes the load already saw is harmless
+            pendingDuringReload.forEach(fresh::apply);
+            pendingDuringReload = null;
+            fresh.advance(Math.max(fresh.anchorDay, ring.anchorDay));
+            ring = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded rolling stats for the last {} days.", DAYS);
+    }
+
+    @Scheduled(cron = "${app.rolling-stats.rollover-cron:0 0 0 * * *}")
+    public void rollOver() {
+        advance(LocalDate.now());
+    }
+
+    public RollingStatsDto getRollingStats(LocalDate today) {
+        long day = today.toEpochDay();
+        boolean stale;
+        lock.readLock().lock();
+        try {
+            stale = ring.anchorDay < day;
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Covers a rollover that has not fired yet, e.g. right after midnight
+        if (stale) {
+            advance(today);
+        }
+
+        lock.readLock().lock();
+        try {
+            return ring.summarize();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void advance(LocalDate today) {
+        lock.writeLock().lock();
+        try {
+            ring.advance(today.toEpochDay());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(TransactionsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            ring.apply(event);
+            if (pendingDuringReload != null) {
+                pendingDuringReload.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class Ring {
+
+        // Epoch day held by the newest slot
+        long anchorDay;
+        final Day[] days = new Day[DAYS];
+        final TreeMap<Long, Day> future = new TreeMap<>();
+        final Map<Long, TransactionFact> live = new HashMap<>();
+
+        Ring(long anchorDay) {
+            this.anchorDay = anchorDay;
+            for (int i = 0; i < DAYS; i++) {
+                days[i] = new Day();
+            }
+        }
+
+        void apply(TransactionsChangedEvent event) {
+            event.removed().forEach(fact -> remove(fact.id()));
+            event.added().forEach(this::upsert);
+        }
+
+        void upsert(TransactionFact fact) {
+            remove(fact.id());
+            long epochDay = fact.txnDate().toEpochDay();
+            Day day;
+            if (epochDay > anchorDay) {
+                day = future.computeIfAbsent(epochDay, d -> new Day());
+            } else if (epochDay > anchorDay - DAYS) {
+                day = days[slot(epochDay)];
+            } else {
+                return;
+            }
+            day.add(fact, 1);
+            live.put(fact.id(), fact);
+        }
+
+        void remove(Long id) {
+            TransactionFact old = live.remove(id);
+            if (old == null) {
+                return;
+            }
+            long epochDay = old.txnDate().toEpochDay();
+            Day day = epochDay > anchorDay ? future.get(epochDay) : days[slot(epochDay)];
+            day.add(old, -1);
+        }
+
+        void advance(long newAnchorDay) {
+            if (newAnchorDay <= anchorDay) {
+                return;
+            }
+            long first = Math.max(anchorDay + 1, newAnchorDay - DAYS + 1);
+            future.headMap(first).values().forEach(skipped -> live.keySet().removeAll(skipped.ids));
+            future.headMap(first).clear();
+            for (long epochDay = first; epochDay <= newAnchorDay; epochDay++) {
+                live.keySet().removeAll(days[slot(epochDay)].ids);
+                Day arrived = future.remove(epochDay);
+                days[slot(epochDay)] = arrived == null ? new Day() : arrived;
+            }
+            anchorDay = newAnchorDay;
+        }
+
+        // Single pass from today backwards; the windows are nested, so each one is a snapshot along the way
+        RollingStatsDto summarize() {
+            Day total = new Day();
+            List<RollingWindowDto> windows = new ArrayList<>(WINDOWS.length);
+            int next = 0;
+            for (int i = 0; i < DAYS && next < WINDOWS.length; i++) {
+                total.merge(days[slot(anchorDay - i)]);
+                if (i + 1 == WINDOWS[next]) {
+                    windows.add(total.toWindow(WINDOWS[next], LocalDate.ofEpochDay(anchorDay)));
+                    next++;
+                }
+            }
+            return new RollingStatsDto(LocalDate.ofEpochDay(anchorDay), windows);
+        }
+
+        private static int slot(long epochDay) {
+            return (int) Math.floorMod(epochDay, (long) DAYS);
+        }
+    }
+
+    private static final class Day {
+
+        long debitCents;
+        long debitCount;
+        long creditCents;
+        long creditCount;
+        // categoryId (null for uncategorized) -> {cents, count}
+        final Map<Long, long[]> debitByCategory = new HashMap<>();
+        final Map<Long, long[]> creditByCategory = new HashMap<>();
+        final Set<Long> ids = new HashSet<>();
+
+        void add(TransactionFact fact, int sign) {
+            if (sign > 0) {
+                ids.add(fact.id());
+            } else {
+                ids.remove(fact.id());
+            }
+            long cents = sign * fact.amountCents();
+            if (fact.direction() == TransactionDirection.CREDIT) {
+                creditCents += cents;
+                creditCount += sign;
+                addToCategory(creditByCategory, fact.categoryId(), cents, sign);
+            } else {
+                debitCents += cents;
+                debitCount += sign;
+                addToCategory(debitByCategory, fact.categoryId(), cents, sign);
+            }
+        }
+
+        void merge(Day other) {
+            debitCents += other.debitCents;
+            debitCount += other.debitCount;
+            creditCents += other.creditCents;
+            creditCount += other.creditCount;
+            other.debitByCategory.forEach((id, t) -> addToCategory(debitByCategory, id, t[0], t[1]));
+            other.creditByCategory.forEach((id, t) -> addToCategory(creditByCategory, id, t[0], t[1]));
+        }
+
+        RollingWindowDto toWindow(int length, LocalDate to) {
+            return new RollingWindowDto(
+                    length,
+                    to.minusDays(length - 1),
+                    to,
+                    MoneyUtils.fromCents(debitCents),
+                    debitCount,
+                    MoneyUtils.fromCents(creditCents),
+                    creditCount,
+                    toCategoryTotals(debitByCategory),
+                    toCategoryTotals(creditByCategory));
+        }
+
+        private static void addToCategory(Map<Long, long[]> totals, Long categoryId, long cents, long count) {
+            long[] total = totals.computeIfAbsent(categoryId, id -> new long[2]);
+            total[0] += cents;
+            total[1] += count;
+            if (total[1] == 0) {
+                totals.remove(categoryId);
+            }
+        }
+
+        private static List<CategoryTotalDto> toCategoryTotals(Map<Long, long[]> totals) {
+            List<CategoryTotalDto> result = new ArrayList<>(totals.size());
+            totals.forEach((id, t) -> result.add(new CategoryTotalDto(id, MoneyUtils.fromCents(t[0]), t[1])));
+            result.sort(Comparator.comparing(CategoryTotalDto::getTotalAmount).reversed());
+            return result;
+        }
+    }
+}
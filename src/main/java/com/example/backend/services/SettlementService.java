@@ -5,6 +5,7 @@ import com.example.backend.dtos.SettlementDto;
 import com.example.backend.entities.GroupMember;
 import com.example.backend.entities.GroupTransaction;
 import com.example.backend.entities.GroupTransactionParticipant;
+import com.example.backend.utils.MoneyUtils;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -24,59 +25,58 @@ public class SettlementService {
     public List<MemberBalanceDto> calculateMemberBalances(List<GroupMember> members, 
                                                           List<GroupTransaction> transactions) {
         
-        Map<Long, MemberBalanceDto> balanceMap = new HashMap<>();
-        
-        // Initialize all members with zero balances
+        // Accumulate in cents: one long add per row instead of a new BigDecimal per add
+        Map<Long, MemberTotals> totalsByMember = new HashMap<>();
         for (GroupMember member : members) {
-            balanceMap.put(member.getId(), new MemberBalanceDto(
-                member.getId(),
-                member.getMemberName(),
-                BigDecimal.ZERO,
-                BigDecimal.ZERO,
-                BigDecimal.ZERO
-            ));
+            totalsByMember.put(member.getId(), new MemberTotals(member.getMemberName()));
         }
         
         // Calculate paid amounts and shares
         for (GroupTransaction transaction : transactions) {
-            Long payerId = transaction.getPaidBy().getId();
-            BigDecimal amount = transaction.getAmount();
+            long amountCents = transaction.getAmount().cents();
             
             // Add to total paid for payer
-            MemberBalanceDto payerBalance = balanceMap.get(payerId);
-            if (payerBalance != null) {
-                payerBalance.setTotalPaid(payerBalance.getTotalPaid().add(amount));
+            MemberTotals payerTotals = totalsByMember.get(transaction.getPaidBy().getId());
+            if (payerTotals != null) {
+                payerTotals.paidCents = Math.addExact(payerTotals.paidCents, amountCents);
             }
             
             // Calculate equal share among participants
             List<GroupTransactionParticipant> participants = transaction.getParticipants();
             if (!participants.isEmpty()) {
-                BigDecimal sharePerPerson = amount.divide(
-                    BigDecimal.valueOf(participants.size()), 
-                    2, 
-                    RoundingMode.HALF_UP
-                );
+                long shareCents = MoneyUtils.divideCents(amountCents, participants.size());
                 
                 // Add share to each participant
                 for (GroupTransactionParticipant participant : participants) {
-                    Long memberId = participant.getMember().getId();
-                    MemberBalanceDto memberBalance = balanceMap.get(memberId);
-                    if (memberBalance != null) {
-                        memberBalance.setTotalShare(
-                            memberBalance.getTotalShare().add(sharePerPerson)
-                        );
+                    MemberTotals memberTotals = totalsByMember.get(participant.getMember().getId());
+                    if (memberTotals != null) {
+                        memberTotals.shareCents = Math.addExact(memberTotals.shareCents, shareCents);
                     }
                 }
             }
         }
         
         // Calculate final balance for each member
-        for (MemberBalanceDto balance : balanceMap.values()) {
-            BigDecimal finalBalance = balance.getTotalPaid().subtract(balance.getTotalShare());
-            balance.setBalance(finalBalance.setScale(2, RoundingMode.HALF_UP));
-        }
+        List<MemberBalanceDto> balances = new ArrayList<>(totalsByMember.size());
+        totalsByMember.forEach((memberId, totals) -> balances.add(new MemberBalanceDto(
+            memberId,
+            totals.memberName,
+            MoneyUtils.fromCents(totals.paidCents),
+            MoneyUtils.fromCents(totals.shareCents),
+            MoneyUtils.fromCents(Math.subtractExact(totals.paidCents, totals.shareCents))
+        )));
+        
+        return balances;
+    }
+    
+    private static final class MemberTotals {
+        private final String memberName;
+        private long paidCents;
+        private long shareCents;
         
-        return new ArrayList<>(balanceMap.values());
+        private MemberTotals(String memberName) {
+            this.memberName = memberName;
+        }
     }
     
     /**
@@ -0,0 +1,322 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.AnalyticsTotalsDto;
+import com.example.backend.dtos.CategoryTotalDto;
+import com.example.backend.dtos.MerchantTotalDto;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.utils.MoneyUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented, in-memory copy of the live transactions for analytics. Each row is a slot across
+ * primitive arrays (cents, epoch day, category code, direction bit, merchant code), so aggregations
+ * are plain loops with no entity or BigDecimal work per row.
+ * Loaded at startup, patched after every committed write and reloaded nightly to correct any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionAnalyticsService {
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns();
+    // Non-null while a reload is reading the table; events are replayed onto the fresh copy afterwards
+    private List<TransactionsChangedEvent> pendingDuringReload;
+
+    @EventListener
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(event);
+            return;
+        }
+        // Patch only once the write is durable, so a rollback never leaves phantom rows here
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(event);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.analytics.reload-cron:0 45 3 * * *}")
+    public void reload() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringReload = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Columns fresh = new Columns();
+        try {
+            transactionTemplate.executeWithoutResult(status -> transactionJdbcRepository.forEachLiveFact(fresh::upsert));
+        } catch (Exception ex) {
+            log.error("Transaction analytics snapshot load failed", ex);
+            lock.writeLock().lock();
+            try {
+                pendingDuringReload = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Upserts and removes are idempotent per id, so replaying writes the load already saw is harmless
+            pendingDuringReload.forEach(fresh::apply);
+            pendingDuringReload = null;
+            columns = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Loaded transaction analytics snapshot: {} rows, {} merchants.", fresh.size, fresh.merchants.size());
+    }
+
+    public AnalyticsTotalsDto getTotals(@Nullable LocalDate from,
+                                        @Nullable LocalDate to,
+                                        @Nullable Long categoryId,
+                                        @Nullable TransactionDirection direction) {
+        Filter filter = new Filter(from, to, direction);
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            int categoryCode = categoryId == null ? -1 : c.categoryCodes.getOrDefault(categoryId, Integer.MIN_VALUE);
+            if (categoryCode == Integer.MIN_VALUE) {
+                return new AnalyticsTotalsDto(MoneyUtils.fromCents(0), 0);
+            }
+
+            long total = 0;
+            long count = 0;
+            for (int i = 0; i < c.size; i++) {
+                if (filter.matches(c, i) && (categoryCode < 0 || c.categoryCode[i] == categoryCode)) {
+                    total += c.amountCents[i];
+                    count++;
+                }
+            }
+            return new AnalyticsTotalsDto(MoneyUtils.fromCents(total), count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<CategoryTotalDto> getTotalsByCategory(@Nullable LocalDate from,
+                                                      @Nullable LocalDate to,
+                                                      @Nullable TransactionDirection direction) {
+        Filter filter = new Filter(from, to, direction);
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            long[] totals = new long[c.categories.size()];
+            long[] counts = new long[c.categories.size()];
+            for (int i = 0; i < c.size; i++) {
+                if (filter.matches(c, i)) {
+                    totals[c.categoryCode[i]] += c.amountCents[i];
+                    counts[c.categoryCode[i]]++;
+                }
+            }
+
+            List<CategoryTotalDto> result = new ArrayList<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    Long categoryId = c.categories.get(code);
+                    result.add(new CategoryTotalDto(
+                            categoryId == Columns.UNCATEGORIZED ? null : categoryId,
+                            MoneyUtils.fromCents(totals[code]),
+                            counts[code]));
+                }
+            }
+            result.sort(Comparator.comparing(CategoryTotalDto::getTotalAmount).reversed());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<MerchantTotalDto> getTopMerchants(@Nullable LocalDate from,
+                                                  @Nullable LocalDate to,
+                                                  @Nullable TransactionDirection direction,
+                                                  int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+
+        Filter filter = new Filter(from, to, direction);
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            long[] totals = new long[c.merchants.size()];
+            long[] counts = new long[c.merchants.size()];
+            for (int i = 0; i < c.size; i++) {
+                int merchantCode = c.merchantCode[i];
+                if (merchantCode >= 0 && filter.matches(c, i)) {
+                    totals[merchantCode] += c.amountCents[i];
+                    counts[merchantCode]++;
+                }
+            }
+
+            return IntStream.range(0, totals.length)
+                    .filter(code -> counts[code] > 0)
+                    .boxed()
+                    .sorted((a, b) -> Long.compare(totals[b], totals[a]))
+                    .limit(limit)
+                    .map(code -> new MerchantTotalDto(
+                            c.merchants.get(code), MoneyUtils.fromCents(totals[code]), counts[code]))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(TransactionsChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            columns.apply(event);
+            if (pendingDuringReload != null) {
+                pendingDuringReload.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Filter(int fromDay, int toDay, int direction) {
+
+        Filter(@Nullable LocalDate from, @Nullable LocalDate to, @Nullable TransactionDirection direction) {
+            this(from == null ? Integer.MIN_VALUE : (int) from.toEpochDay(),
+                    to == null ? Integer.MAX_VALUE : (int) to.toEpochDay(),
+                    direction == null ? -1 : direction == TransactionDirection.CREDIT ? 1 : 0);
+        }
+
+        boolean matches(Columns c, int slot) {
+            int day = c.epochDay[slot];
+            return day >= fromDay && day <= toDay
+                    && (direction < 0 || c.credit.get(slot) == (direction == 1));
+        }
+    }
+
+    /**
+     * One generation of the snapshot. Deletes swap the last slot into the hole so the arrays stay dense;
+     * categories and merchants are dictionary-encoded and the dictionaries only grow until the next reload.
+     */
+    private static final class Columns {
+
+        static final long UNCATEGORIZED = 0L;
+        private static final int INITIAL_CAPACITY = 1024;
+
+        int size;
+        long[] ids = new long[INITIAL_CAPACITY];
+        long[] amountCents = new long[INITIAL_CAPACITY];
+        int[] epochDay = new int[INITIAL_CAPACITY];
+        int[] categoryCode = new int[INITIAL_CAPACITY];
+        int[] merchantCode = new int[INITIAL_CAPACITY];
+        final BitSet credit = new BitSet(INITIAL_CAPACITY);
+
+        final Map<Long, Integer> slotById = new HashMap<>();
+        final Map<Long, Integer> categoryCodes = new HashMap<>();
+        final List<Long> categories = new ArrayList<>();
+        final Map<String, Integer> merchantCodes = new HashMap<>();
+        final List<String> merchants = new ArrayList<>();
+
+        void apply(TransactionsChangedEvent event) {
+            event.removed().forEach(fact -> remove(fact.id()));
+            event.added().forEach(this::upsert);
+        }
+
+        void upsert(TransactionFact fact) {
+            Integer existing = slotById.get(fact.id());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+            } else {
+                ensureCapacity(size + 1);
+                slot = size++;
+                slotById.put(fact.id(), slot);
+            }
+
+            ids[slot] = fact.id();
+            amountCents[slot] = fact.amountCents();
+            epochDay[slot] = (int) fact.txnDate().toEpochDay();
+            categoryCode[slot] = categoryCode(fact.categoryId() == null ? UNCATEGORIZED : fact.categoryId());
+            merchantCode[slot] = merchantCode(fact.merchant());
+            credit.set(slot, fact.direction() == TransactionDirection.CREDIT);
+        }
+
+        void remove(Long id) {
+            Integer removed = slotById.remove(id);
+            if (removed == null) {
+                return;
+            }
+
+            int last = --size;
+            if (removed != last) {
+                ids[removed] = ids[last];
+                amountCents[removed] = amountCents[last];
+                epochDay[removed] = epochDay[last];
+                categoryCode[removed] = categoryCode[last];
+                merchantCode[removed] = merchantCode[last];
+                credit.set(removed, credit.get(last));
+                slotById.put(ids[removed], removed);
+            }
+            credit.clear(last);
+        }
+
+        private int categoryCode(long categoryId) {
+            return categoryCodes.computeIfAbsent(categoryId, id -> {
+                categories.add(id);
+                return categories.size() - 1;
+            });
+        }
+
+        // Case-insensitive so "Swiggy" and "SWIGGY" aggregate together; the first spelling seen is reported
+        private int merchantCode(@Nullable String merchant) {
+            if (merchant == null || merchant.isBlank()) {
+                return -1;
+            }
+            return merchantCodes.computeIfAbsent(merchant.trim().toLowerCase(Locale.ROOT), key -> {
+                merchants.add(merchant.trim());
+                return merchants.size() - 1;
+            });
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(required, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            amountCents = Arrays.copyOf(amountCents, capacity);
+            epochDay = Arrays.copyOf(epochDay, capacity);
+            categoryCode = Arrays.copyOf(categoryCode, capacity);
+            merchantCode = Arrays.copyOf(merchantCode, capacity);
+        }
+    }
+}
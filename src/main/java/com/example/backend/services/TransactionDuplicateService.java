@@ -0,0 +1,157 @@
+package com.example.backend.services;
+
+import com.example.backend.entities.Transaction;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.repositories.TransactionRepository;
+import com.example.backend.utils.IdRanges;
+import com.example.backend.utils.TransactionFingerprint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Decides what happens to incoming transactions whose fingerprint matches a stored one. Matches are looked
+ * up for a whole batch at once (one ANY(array) query per chunk), so the cost per imported row stays flat
+ * however large the history is. Rows are only compared with stored transactions, not with each other:
+ * two identical coffees in one statement are two charges.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionDuplicateService {
+
+    private final TransactionJdbcRepository transactionJdbcRepository;
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public enum Policy {
+        /** Insert everything without looking for duplicates. */
+        ALLOW,
+        /** Insert duplicates but record the transaction they match in duplicateOfId. */
+        FLAG,
+        /** Drop duplicates. */
+        SKIP,
+        /**
+         * Drop duplicates after copying their smsId, category, paymentType and notes onto the matching
+         * transaction wherever it has none. Archived matches are read-only and are only skipped.
+         */
+        MERGE;
+
+        public boolean insertsDuplicates() {
+            return this == ALLOW || this == FLAG;
+        }
+
+        public static Policy fromParam(String value) {
+            try {
+                return Policy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Unsupported duplicates option: " + value +
+                        ". Use allow, flag, skip or merge.");
+            }
+        }
+    }
+
+    /**
+     * @param toInsert    the candidates that should still be inserted
+     * @param duplicateOf per candidate, in input order, the id of the stored transaction it matches, or null
+     */
+    public record Resolution(List<Transaction> toInsert, List<Long> duplicateOf) {
+
+        public long duplicates() {
+            return duplicateOf.stream().filter(Objects::nonNull).count();
+        }
+    }
+
+    /**
+     * Applies the policy to unsaved transactions. Must run in the caller's transaction so merges
+     * commit or roll back together with the inserts.
+     */
+    public Resolution resolve(List<Transaction> candidates, Policy policy) {
+        return resolve(candidates, policy, null);
+    }
+
+    /**
+     * Like {@link #resolve(List, Policy)} for an import that commits in chunks: rows in {@code ownIds} were
+     * inserted by earlier chunks of the same import and are never matched, while rows other writers inserted
+     * in the meantime still are.
+     */
+    public Resolution resolve(List<Transaction> candidates, Policy policy, @Nullable IdRanges ownIds) {
+        List<Long> duplicateOf = new ArrayList<>(candidates.size());
+        if (policy == Policy.ALLOW) {
+            candidates.forEach(candidate -> duplicateOf.add(null));
+            return new Resolution(candidates, duplicateOf);
+        }
+
+        candidates.forEach(candidate -> candidate.setFingerprint(TransactionFingerprint.of(candidate)));
+        Map<String, Long> existing = transactionJdbcRepository.findIdsByFingerprint(
+                candidates.stream().map(Transaction::getFingerprint).toList(), ownIds);
+
+        List<Transaction> toInsert = new ArrayList<>(candidates.size());
+        Map<Transaction, Long> merges = new LinkedHashMap<>();
+        for (Transaction candidate : candidates) {
+            Long match = existing.get(candidate.getFingerprint());
+            duplicateOf.add(match);
+            if (match == null) {
+                toInsert.add(candidate);
+            } else if (policy == Policy.FLAG) {
+                candidate.setDuplicateOfId(match);
+                toInsert.add(candidate);
+            } else if (policy == Policy.MERGE) {
+                merges.put(candidate, match);
+            }
+        }
+
+        if (!merges.isEmpty()) {
+            merge(merges);
+        }
+        return new Resolution(toInsert, duplicateOf);
+    }
+
+    private void merge(Map<Transaction, Long> merges) {
+        Set<Long> targetIds = new HashSet<>(merges.values());
+        Map<Long, Transaction> targets = transactionRepository.findAllById(targetIds).stream()
+                .filter(target -> !Boolean.TRUE.equals(target.getIsDeleted()))
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+
+        // A target matched by several candidates is reported as one update from its original state
+        Map<Long, TransactionFact> before = new LinkedHashMap<>();
+        merges.forEach((candidate, targetId) -> {
+            Transaction target = targets.get(targetId);
+            if (target == null) {
+                return;
+            }
+            before.putIfAbsent(targetId, TransactionFact.of(target));
+            if (target.getSmsMessage() == null) {
+                target.setSmsMessage(candidate.getSmsMessage());
+            }
+            if (target.getCategory() == null) {
+                target.setCategory(candidate.getCategory());
+            }
+            if (target.getPaymentType() == null) {
+                target.setPaymentType(candidate.getPaymentType());
+            }
+            if (target.getNotes() == null || target.getNotes().isBlank()) {
+                target.setNotes(candidate.getNotes());
+            }
+        });
+
+        if (!before.isEmpty()) {
+            eventPublisher.publishEvent(new TransactionsChangedEvent(
+                    List.copyOf(before.values()),
+                    before.keySet().stream().map(id -> TransactionFact.of(targets.get(id))).toList()));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.backend.services;
+
+import com.example.backend.entities.Transaction;
+import com.example.backend.mappers.TransactionMapper;
+import com.example.backend.repositories.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    // Same columns CsvImportService reads, so an export can be re-imported as-is
+    public static final String[] CSV_HEADERS = {
+            "txnDate", "amount", "merchant", "paymentType", "transactionDirection", "categoryName", "notes"
+    };
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Getter
+    public enum Format {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public static Format fromParam(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + ". Use csv or ndjson.");
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Format format,
+                       @Nullable LocalDate from,
+                       @Nullable LocalDate to,
+                       @Nullable Long categoryId,
+                       OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        try (Stream<Transaction> transactions = transactionRepository.streamTransactions(from, to, categoryId)) {
+            if (format == Format.CSV) {
+                writeCsv(transactions.iterator(), writer);
+            } else {
+                writeNdjson(transactions.iterator(), writer);
+            }
+        }
+
+        writer.flush();
+    }
+
+    private void writeCsv(Iterator<Transaction> transactions, Writer writer) throws IOException {
+        CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(CSV_HEADERS).build());
+        int written = 0;
+        while (transactions.hasNext()) {
+            Transaction tx = transactions.next();
+            printer.printRecord(
+                    tx.getTxnDate(),
+                    tx.getAmount() == null ? null : tx.getAmount().toString(),
+                    tx.getMerchant(),
+                    tx.getPaymentType(),
+                    tx.getTransactionType(),
+                    tx.getCategory() == null ? null : tx.getCategory().getName(),
+                    tx.getNotes()
+            );
+            release(tx);
+            if (++written % FLUSH_INTERVAL == 0) {
+                printer.flush();
+            }
+        }
+        printer.flush();
+    }
+
+    private void writeNdjson(Iterator<Transaction> transactions, Writer writer) throws IOException {
+        int written = 0;
+        while (transactions.hasNext()) {
+            Transaction tx = transactions.next();
+            writer.write(objectMapper.writeValueAsString(transactionMapper.toTransactionDto(tx)));
+            writer.write('\n');
+            release(tx);
+            if (++written % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+    }
+
+    // Drop each row from the persistence context once written so memory stays flat for any export size
+    private void release(Transaction tx) {
+        entityManager.detach(tx);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.MonthlySummaryDto;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.entities.TransactionMonthlyRollup;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.TransactionMonthlyRollupRepository;
+import com.example.backend.utils.MoneyUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains transaction_monthly_rollup (month x category x direction) so spending summaries
+ * cost O(months x categories) instead of a scan over every transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionRollupService {
+
+    private final TransactionMonthlyRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private record RollupKey(LocalDate month, long categoryId, TransactionDirection direction) {
+    }
+
+    // Same order as the unique key, so concurrent writers lock shared rollup rows in the same sequence
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::month)
+            .thenComparingLong(RollupKey::categoryId)
+            .thenComparing(key -> key.direction().name());
+
+    /**
+     * Applies the net delta of a write in the writer's own transaction, one upsert per touched key.
+     */
+    @EventListener
+    @Transactional
+    public void onTransactionsChanged(TransactionsChangedEvent event) {
+        Map<RollupKey, long[]> deltas = new TreeMap<>(KEY_ORDER);
+        accumulate(deltas, event.removed(), -1);
+        accumulate(deltas, event.added(), 1);
+
+        deltas.forEach((key, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                rollupRepository.applyDelta(key.month(), key.categoryId(), key.direction().name(), delta[0], delta[1]);
+            }
+        });
+    }
+
+    @Transactional
+    @Scheduled(cron = "${app.rollup.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        rollupRepository.lockForRebuild();
+        rollupRepository.deleteAllRows();
+        int rows = rollupRepository.rebuildFromTransactions();
+        log.info("Rebuilt transaction monthly rollup: {} rows.", rows);
+    }
+
+    // Backfill once for databases that had transactions before the rollup existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        try {
+            if (rollupRepository.count() == 0) {
+                transactionTemplate.executeWithoutResult(status -> rebuild());
+            }
+        } catch (Exception ex) {
+            log.error("Transaction monthly rollup backfill failed", ex);
+        }
+    }
+
+    public List<MonthlySummaryDto> getSummary(YearMonth from, YearMonth to, @Nullable Long categoryId) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        return rollupRepository.findSummary(from.atDay(1), to.atDay(1), categoryId).stream()
+                .map(rollup -> new MonthlySummaryDto(
+                        YearMonth.from(rollup.getMonth()),
+                        rollup.getCategoryId() == TransactionMonthlyRollup.UNCATEGORIZED ? null : rollup.getCategoryId(),
+                        rollup.getDirection(),
+                        MoneyUtils.fromCents(rollup.getAmountCents()),
+                        rollup.getTxnCount()
+                ))
+                .toList();
+    }
+
+    private void accumulate(Map<RollupKey, long[]> deltas, List<TransactionFact> facts, int sign) {
+        for (TransactionFact fact : facts) {
+            RollupKey key = new RollupKey(
+                    fact.txnDate().withDayOfMonth(1),
+                    fact.categoryId() == null ? TransactionMonthlyRollup.UNCATEGORIZED : fact.categoryId(),
+                    fact.direction()
+            );
+            long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+            delta[0] += sign * fact.amountCents();
+            delta[1] += sign;
+        }
+    }
+}
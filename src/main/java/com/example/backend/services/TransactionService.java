@@ -1,54 +1,160 @@
 package com.example.backend.services;
 
+import com.example.backend.dtos.BulkCreateResultDto;
+import com.example.backend.dtos.BulkItemResultDto;
+import com.example.backend.dtos.BulkRecategorizeDto;
+import com.example.backend.dtos.BulkUpdateResultDto;
 import com.example.backend.dtos.CreateTransactionDto;
+import com.example.backend.dtos.TransactionChangesDto;
+import com.example.backend.dtos.TransactionBulkFilterDto;
 import com.example.backend.dtos.TransactionDto;
+import com.example.backend.dtos.TransactionPageDto;
 import com.example.backend.dtos.UpdateTransactionDto;
 import com.example.backend.entities.Category;
 import com.example.backend.entities.SmsMessage;
 import com.example.backend.entities.Transaction;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
 import com.example.backend.exceptions.AppException;
 import com.example.backend.mappers.TransactionMapper;
 import com.example.backend.repositories.CategoryRepository;
 import com.example.backend.repositories.SmsMessageRepository;
+import com.example.backend.repositories.TransactionArchiveRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
 import com.example.backend.repositories.TransactionRepository;
+import com.example.backend.utils.SyncWatermark;
+import com.example.backend.utils.TransactionCursor;
 import com.example.backend.utils.TransactionTypeResolver;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TransactionService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BULK_SIZE = 10_000;
+    public static final int MIN_SEARCH_LENGTH = 2;
+
     private final TransactionRepository transactionRepository;
+    private final TransactionJdbcRepository transactionJdbcRepository;
     private final SmsMessageRepository smsMessageRepository;
     private final CategoryRepository categoryRepository;
+    private final TransactionArchiveRepository transactionArchiveRepository;
+    private final TransactionDuplicateService transactionDuplicateService;
     private final TransactionMapper transactionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Outcome of a single create: the new transaction, or with the skip and merge duplicate policies
+     * the stored transaction it duplicated.
+     */
+    public record CreateResult(TransactionDto transaction, boolean created) {
+    }
 
     public List<TransactionDto> getTransactions(
             @Nullable LocalDate from,
             @Nullable LocalDate to,
             @Nullable Long categoryId
     ) {
-        List<Transaction> transactions = transactionRepository.findTransactions(from, to, categoryId);
-        return transactionMapper.toTransactionDtos(transactions);
+        return transactionRepository.findTransactionDtos(from, to, categoryId);
     }
 
-    public TransactionDto createTransaction(CreateTransactionDto createTransactionDto) {
-        Transaction transaction = transactionMapper.toTransaction(createTransactionDto);
-        String paymentType = TransactionTypeResolver.resolvePaymentType(
-            createTransactionDto.getPaymentType(),
-            createTransactionDto.getTransactionType()
-        );
-        transaction.setPaymentType(paymentType);
-        transaction.setTransactionType(TransactionTypeResolver.resolveDirection(
-            createTransactionDto.getTransactionDirection(),
-            paymentType
-        ));
+    public TransactionPageDto getTransactionPage(
+            @Nullable LocalDate from,
+            @Nullable LocalDate to,
+            @Nullable Long categoryId,
+            @Nullable Integer limit,
+            @Nullable String cursor
+    ) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        List<TransactionDto> transactions = transactionRepository.findTransactionDtoPage(
+                from, to, categoryId, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (transactions.size() > pageSize) {
+            transactions = transactions.subList(0, pageSize);
+            TransactionDto last = transactions.get(pageSize - 1);
+            nextCursor = new TransactionCursor(last.getTxnDate(), last.getId()).encode();
+        }
+
+        return new TransactionPageDto(transactions, nextCursor);
+    }
+
+    public TransactionChangesDto getChanges(@Nullable String since, @Nullable Integer limit) {
+        int pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        SyncWatermark watermark = since == null || since.isBlank() ? null : SyncWatermark.decode(since);
+        List<TransactionJdbcRepository.TransactionChange> changes = transactionJdbcRepository.findChanges(
+                watermark, pageSize + 1);
+
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        List<TransactionDto> upserts = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        for (TransactionJdbcRepository.TransactionChange change : changes) {
+            if (change.deleted()) {
+                deletedIds.add(change.transaction().getId());
+            } else {
+                upserts.add(change.transaction());
+            }
+        }
+
+        // With nothing new the caller keeps its watermark
+        String nextWatermark = changes.isEmpty() ? since : changes.get(changes.size() - 1).watermark().encode();
+        return new TransactionChangesDto(upserts, deletedIds, nextWatermark, hasMore);
+    }
+
+    public List<TransactionDto> searchTransactions(
+            String query,
+            @Nullable LocalDate from,
+            @Nullable LocalDate to,
+            @Nullable Long categoryId,
+            @Nullable Integer limit
+    ) {
+        String normalizedQuery = query == null ? "" : query.trim();
+        if (normalizedQuery.length() < MIN_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("q must be at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return transactionJdbcRepository.search(normalizedQuery, from, to, categoryId, pageSize);
+    }
+
+    @Transactional
+    public CreateResult createTransaction(CreateTransactionDto createTransactionDto,
+                                          TransactionDuplicateService.Policy duplicatePolicy) {
+        Transaction transaction = toNewTransaction(createTransactionDto);
 
         // Set SMS message if provided
         if (createTransactionDto.getSmsId() != null && createTransactionDto.getSmsId() > 0) {
@@ -64,13 +170,109 @@ public class TransactionService {
             transaction.setCategory(category);
         }
 
+        TransactionDuplicateService.Resolution resolution =
+                transactionDuplicateService.resolve(List.of(transaction), duplicatePolicy);
+        if (resolution.toInsert().isEmpty()) {
+            Long existingId = resolution.duplicateOf().get(0);
+            TransactionDto existing = transactionRepository.findById(existingId)
+                    .map(transactionMapper::toTransactionDto)
+                    .or(() -> transactionArchiveRepository.findTransactionDto(existingId))
+                    .orElseThrow(() -> new AppException("Transaction not found", HttpStatus.NOT_FOUND));
+            return new CreateResult(existing, false);
+        }
+
         Transaction savedTransaction = transactionRepository.save(transaction);
-        return transactionMapper.toTransactionDto(savedTransaction);
+        eventPublisher.publishEvent(TransactionsChangedEvent.inserted(List.of(TransactionFact.of(savedTransaction))));
+        return new CreateResult(transactionMapper.toTransactionDto(savedTransaction), true);
+    }
+
+    /**
+     * Creates many transactions in one call. Referenced categories and SMS messages are resolved with
+     * one IN query each, duplicates are found with one fingerprint query per chunk, valid rows are written
+     * with JDBC batch inserts, and invalid rows are reported per item instead of failing the whole request.
+     */
+    @Transactional
+    public BulkCreateResultDto createTransactions(List<CreateTransactionDto> createTransactionDtos,
+                                                  TransactionDuplicateService.Policy duplicatePolicy) {
+        if (createTransactionDtos == null || createTransactionDtos.isEmpty()) {
+            throw new IllegalArgumentException("At least one transaction is required");
+        }
+        if (createTransactionDtos.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " transactions can be created per request");
+        }
+
+        long startedAt = System.nanoTime();
+
+        Map<Long, Category> categories = categoryRepository.findAllById(referencedIds(createTransactionDtos, CreateTransactionDto::getCategoryId))
+                .stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        Map<Long, SmsMessage> smsMessages = smsMessageRepository.findAllById(referencedIds(createTransactionDtos, CreateTransactionDto::getSmsId))
+                .stream()
+                .collect(Collectors.toMap(SmsMessage::getId, Function.identity()));
+
+        List<BulkItemResultDto> results = new ArrayList<>(createTransactionDtos.size());
+        List<Transaction> accepted = new ArrayList<>();
+        List<BulkItemResultDto> acceptedResults = new ArrayList<>();
+
+        for (int index = 0; index < createTransactionDtos.size(); index++) {
+            CreateTransactionDto dto = createTransactionDtos.get(index);
+            String error = validateBulkItem(dto, categories, smsMessages);
+            if (error != null) {
+                results.add(new BulkItemResultDto(index, BulkItemResultDto.REJECTED, null, null, error));
+                continue;
+            }
+
+            Transaction transaction = toNewTransaction(dto);
+            if (isReference(dto.getSmsId())) {
+                transaction.setSmsMessage(smsMessages.get(dto.getSmsId()));
+            }
+            if (isReference(dto.getCategoryId())) {
+                transaction.setCategory(categories.get(dto.getCategoryId()));
+            }
+
+            BulkItemResultDto result = new BulkItemResultDto(index, BulkItemResultDto.CREATED, null, null, null);
+            results.add(result);
+            accepted.add(transaction);
+            acceptedResults.add(result);
+        }
+
+        TransactionDuplicateService.Resolution resolution = transactionDuplicateService.resolve(accepted, duplicatePolicy);
+        List<Transaction> inserted = resolution.toInsert();
+        for (int i = 0; i < accepted.size(); i++) {
+            Long duplicateOf = resolution.duplicateOf().get(i);
+            if (duplicateOf == null) {
+                continue;
+            }
+            BulkItemResultDto result = acceptedResults.get(i);
+            result.setDuplicateOfId(duplicateOf);
+            if (!duplicatePolicy.insertsDuplicates()) {
+                result.setStatus(duplicatePolicy == TransactionDuplicateService.Policy.MERGE
+                        ? BulkItemResultDto.MERGED : BulkItemResultDto.SKIPPED);
+            }
+        }
+
+        if (!inserted.isEmpty()) {
+            transactionJdbcRepository.insertAll(inserted);
+            for (int i = 0; i < accepted.size(); i++) {
+                acceptedResults.get(i).setId(accepted.get(i).getId());
+            }
+            eventPublisher.publishEvent(TransactionsChangedEvent.inserted(
+                    inserted.stream().map(TransactionFact::of).toList()));
+        }
+
+        int rejected = results.size() - accepted.size();
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("Bulk created {} transactions ({} rejected, {} duplicates) in {} ms ({} rows/sec).",
+                inserted.size(), rejected, resolution.duplicates(), elapsedMillis,
+                inserted.size() * 1000L / elapsedMillis);
+
+        return new BulkCreateResultDto(inserted.size(), rejected, (int) resolution.duplicates(), results);
     }
 
+    @Transactional
     public TransactionDto updateTransaction(Long id, UpdateTransactionDto updateTransactionDto) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new AppException("Transaction not found", HttpStatus.NOT_FOUND));
+        Transaction transaction = findWritable(id);
+        TransactionFact before = TransactionFact.of(transaction);
 
         // Set category if provided
         if (updateTransactionDto.getCategoryId() != null) {
@@ -85,19 +287,121 @@ public class TransactionService {
         }
 
         Transaction savedTransaction = transactionRepository.save(transaction);
+        if (!Boolean.TRUE.equals(savedTransaction.getIsDeleted())) {
+            eventPublisher.publishEvent(TransactionsChangedEvent.updated(before, TransactionFact.of(savedTransaction)));
+        }
         return transactionMapper.toTransactionDto(savedTransaction);
     }
 
+    @Transactional
     public TransactionDto deleteTransaction(Long id) {
-        Transaction transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new AppException("Transaction not found", HttpStatus.NOT_FOUND));
+        Transaction transaction = findWritable(id);
 
         TransactionDto transactionDto = transactionMapper.toTransactionDto(transaction);
 
         // Soft delete
+        boolean wasLive = !Boolean.TRUE.equals(transaction.getIsDeleted());
         transaction.setIsDeleted(true);
         transactionRepository.save(transaction);
+        if (wasLive) {
+            eventPublisher.publishEvent(TransactionsChangedEvent.deleted(List.of(TransactionFact.of(transaction))));
+        }
 
         return transactionDto;
     }
+
+    /**
+     * Moves every live transaction matching the filter to a category with one UPDATE statement;
+     * the monthly rollup is adjusted in the same database transaction. Archived matches are left
+     * alone and counted in skippedArchived.
+     */
+    @Transactional
+    public BulkUpdateResultDto recategorizeTransactions(BulkRecategorizeDto bulkRecategorizeDto) {
+        Long categoryId = bulkRecategorizeDto.getCategoryId();
+        if (categoryId == null) {
+            throw new IllegalArgumentException("categoryId is required");
+        }
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new AppException("Category not found", HttpStatus.NOT_FOUND);
+        }
+
+        List<TransactionFact> before = transactionJdbcRepository.recategorize(bulkRecategorizeDto.getFilter(), categoryId);
+        if (!before.isEmpty()) {
+            List<TransactionFact> after = before.stream().map(fact -> fact.withCategoryId(categoryId)).toList();
+            eventPublisher.publishEvent(new TransactionsChangedEvent(before, after));
+        }
+        int skippedArchived = transactionJdbcRepository.countArchivedMatches(bulkRecategorizeDto.getFilter(), categoryId);
+        return new BulkUpdateResultDto(before.size(), skippedArchived);
+    }
+
+    /**
+     * Soft-deletes every live transaction matching the filter with one UPDATE statement;
+     * the monthly rollup is adjusted in the same database transaction. Archived matches are left
+     * alone and counted in skippedArchived.
+     */
+    @Transactional
+    public BulkUpdateResultDto deleteTransactions(TransactionBulkFilterDto filter) {
+        List<TransactionFact> deleted = transactionJdbcRepository.softDelete(filter);
+        if (!deleted.isEmpty()) {
+            eventPublisher.publishEvent(TransactionsChangedEvent.deleted(deleted));
+        }
+        return new BulkUpdateResultDto(deleted.size(), transactionJdbcRepository.countArchivedMatches(filter, null));
+    }
+
+    // Archived rows are read-only history; say so instead of pretending they do not exist
+    private Transaction findWritable(Long id) {
+        return transactionRepository.findById(id).orElseThrow(() -> transactionArchiveRepository.contains(id)
+                ? new AppException("Archived transactions are read-only", HttpStatus.CONFLICT)
+                : new AppException("Transaction not found", HttpStatus.NOT_FOUND));
+    }
+
+    private Transaction toNewTransaction(CreateTransactionDto createTransactionDto) {
+        Transaction transaction = transactionMapper.toTransaction(createTransactionDto);
+        String paymentType = TransactionTypeResolver.resolvePaymentType(
+            createTransactionDto.getPaymentType(),
+            createTransactionDto.getTransactionType()
+        );
+        transaction.setPaymentType(paymentType);
+        transaction.setTransactionType(TransactionTypeResolver.resolveDirection(
+            createTransactionDto.getTransactionDirection(),
+            paymentType
+        ));
+        return transaction;
+    }
+
+    private String validateBulkItem(CreateTransactionDto dto,
+                                    Map<Long, Category> categories,
+                                    Map<Long, SmsMessage> smsMessages) {
+        if (dto == null) {
+            return "Transaction is required";
+        }
+        if (dto.getTxnDate() == null) {
+            return "txnDate is required";
+        }
+        if (dto.getAmount() == null) {
+            return "amount is required";
+        }
+        if (isReference(dto.getSmsId()) && !smsMessages.containsKey(dto.getSmsId())) {
+            return "SMS message not found";
+        }
+        if (isReference(dto.getCategoryId()) && !categories.containsKey(dto.getCategoryId())) {
+            return "Category not found";
+        }
+        return null;
+    }
+
+    // Same convention as createTransaction: ids that are null or <= 0 mean "not linked"
+    private static boolean isReference(Long id) {
+        return id != null && id > 0;
+    }
+
+    private static Set<Long> referencedIds(List<CreateTransactionDto> dtos, Function<CreateTransactionDto, Long> idGetter) {
+        Set<Long> ids = new HashSet<>();
+        for (CreateTransactionDto dto : dtos) {
+            if (dto != null && isReference(idGetter.apply(dto))) {
+                ids.add(idGetter.apply(dto));
+            }
+        }
+        return ids;
+    }
 }
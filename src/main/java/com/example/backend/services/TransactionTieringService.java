@@ -0,0 +1,61 @@
+package com.example.backend.services;
+
+import com.example.backend.repositories.TransactionArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps the transactions table hot by moving rows older than the horizon into transactions_archive
+ * (app.tiering.enabled=true). Each batch is its own short statement, so writers are never blocked for long
+ * and an interrupted run simply continues next time. Moving rows changes no totals, so no change events fire.
+ */
+@Service
+@Slf4j
+public class TransactionTieringService {
+
+    private final TransactionArchiveRepository archiveRepository;
+    private final boolean enabled;
+    private final int horizonDays;
+    private final int batchSize;
+
+    public TransactionTieringService(
+            TransactionArchiveRepository archiveRepository,
+            @Value("${app.tiering.enabled:false}") boolean enabled,
+            @Value("${app.tiering.horizon-days:365}") int horizonDays,
+            @Value("${app.tiering.batch-size:5000}") int batchSize
+    ) {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("app.tiering.horizon-days must be at least 1");
+        }
+        this.archiveRepository = archiveRepository;
+        this.enabled = enabled;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.tiering.cron:0 15 4 * * *}")
+    public void archiveOldTransactions() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDate cutoff = LocalDate.now().minusDays(horizonDays);
+        long moved = 0;
+        try {
+            int batch;
+            do {
+                batch = archiveRepository.archiveBatch(cutoff, batchSize);
+                moved += batch;
+            } while (batch > 0);
+            log.info("Archived {} transactions dated before {}.", moved, cutoff);
+        } catch (Exception ex) {
+            log.error("Transaction tiering stopped after archiving {} rows", moved, ex);
+        } finally {
+            archiveRepository.refreshBoundary();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.backend.utils;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * A set of transaction ids held as disjoint closed ranges. Ids generated for one writer's batch inserts are
+ * mostly consecutive, so even a large import usually needs only a few ranges; ids taken by concurrent writers
+ * in between simply split a range. Stored as text, e.g. "1-500,503-900".
+ */
+public final class IdRanges {
+
+    private static final String RANGE_SEPARATOR = ",";
+    private static final String BOUND_SEPARATOR = "-";
+
+    // Range start to range end, both inclusive
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    public void add(long id) {
+        Map.Entry<Long, Long> below = ranges.floorEntry(id);
+        if (below != null && below.getValue() >= id) {
+            return;
+        }
+        long start = below != null && below.getValue() == id - 1 ? below.getKey() : id;
+        long end = id;
+        Long nextEnd = ranges.remove(id + 1);
+        if (nextEnd != null) {
+            end = nextEnd;
+        }
+        ranges.put(start, end);
+    }
+
+    public boolean contains(long id) {
+        Map.Entry<Long, Long> below = ranges.floorEntry(id);
+        return below != null && below.getValue() >= id;
+    }
+
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    public Long[] starts() {
+        return ranges.keySet().toArray(new Long[0]);
+    }
+
+    public Long[] ends() {
+        return ranges.values().toArray(new Long[0]);
+    }
+
+    public String encode() {
+        StringJoiner joiner = new StringJoiner(RANGE_SEPARATOR);
+        ranges.forEach((start, end) -> joiner.add(start.equals(end) ? start.toString() : start + BOUND_SEPARATOR + end));
+        return joiner.toString();
+    }
+
+    public static IdRanges decode(@Nullable String encoded) {
+        IdRanges idRanges = new IdRanges();
+        if (encoded == null || encoded.isBlank()) {
+            return idRanges;
+        }
+        try {
+            long previousEnd = Long.MIN_VALUE;
+            for (String range : encoded.split(RANGE_SEPARATOR)) {
+                int separatorIndex = range.indexOf(BOUND_SEPARATOR, 1);
+                long start = Long.parseLong(separatorIndex < 0 ? range : range.substring(0, separatorIndex));
+                long end = separatorIndex < 0 ? start : Long.parseLong(range.substring(separatorIndex + 1));
+                // encode() writes disjoint ranges in ascending order
+                if (end < start || start <= previousEnd) {
+                    throw new IllegalArgumentException("Invalid id ranges");
+                }
+                idRanges.ranges.put(start, end);
+                previousEnd = end;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid id ranges");
+        }
+        return idRanges;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.backend.utils;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Hibernate is configured with hibernate.jdbc.time_zone=UTC; plain JDBC writes go through here so their
+ * timestamps are stored the same way and read back identically through JPA, whatever the JVM zone is.
+ */
+public final class JdbcTimestamps {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone(ZoneOffset.UTC);
+
+    private JdbcTimestamps() {
+    }
+
+    public static void set(PreparedStatement ps, int index, LocalDateTime value) throws SQLException {
+        ps.setTimestamp(index, Timestamp.valueOf(value), Calendar.getInstance(UTC));
+    }
+
+    // Same UTC wall-clock value as set(), for statements bound through JdbcTemplate varargs
+    public static LocalDateTime utc(LocalDateTime value) {
+        return value.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+}
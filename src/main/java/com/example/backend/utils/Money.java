@@ -0,0 +1,85 @@
+package com.example.backend.utils;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Exact amount in minor units (cents). Arithmetic is overflow-checked; rounding happens only when a
+ * BigDecimal with more than two decimals comes in and in {@link #divide(int)}, both half-up.
+ * Serializes to the same JSON number as a scale-2 BigDecimal, and maps to numeric(12,2) via {@link MoneyConverter}.
+ * Hot loops can skip the object entirely and accumulate {@link #cents()} as a {@code long}.
+ */
+@Schema(type = "number", example = "145.50")
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0L);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    // Delegating, so the parameter-names module never reads the argument as a property
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        return ofCents(MoneyUtils.toCents(Objects.requireNonNull(amount, "amount")));
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return MoneyUtils.fromCents(cents);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public Money divide(int parts) {
+        return ofCents(MoneyUtils.divideCents(cents, parts));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && other.cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class MoneyUtils {
+
+    private MoneyUtils() {
+    }
+
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Splits cents into {@code parts}, rounding half away from zero like
+     * {@code BigDecimal.divide(parts, 2, RoundingMode.HALF_UP)} on the same amount.
+     */
+    public static long divideCents(long cents, int parts) {
+        if (parts <= 0) {
+            throw new IllegalArgumentException("parts must be positive");
+        }
+        long quotient = cents / parts;
+        long remainder = cents % parts;
+        if (Math.abs(remainder) * 2 >= parts) {
+            quotient += Long.signum(cents);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in the (txnDate DESC, id DESC) transaction ordering.
+ * Encoded as URL-safe base64 so clients treat it as a token rather than a value to build.
+ */
+public record TransactionCursor(LocalDate txnDate, Long id) {
+
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        String raw = txnDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDate txnDate = LocalDate.parse(raw.substring(0, separatorIndex));
+            Long id = Long.parseLong(raw.substring(separatorIndex + 1));
+            return new TransactionCursor(txnDate, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend.utils;
+
+import com.example.backend.entities.Transaction;
+import com.example.backend.entities.TransactionDirection;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized identity of a bank charge: date, amount in cents, merchant and direction. The same charge
+ * arriving as a manual entry, an SMS-linked entry and a statement row yields the same fingerprint.
+ */
+public final class TransactionFingerprint {
+
+    public static final int LENGTH = 32;
+
+    // "AMAZON PAY*IN", "Amazon Pay (IN)" and "amazonpay in" all normalize to "amazonpayin"
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TransactionFingerprint() {
+    }
+
+    public static String of(Transaction transaction) {
+        return of(transaction.getTxnDate(), transaction.getAmount().toBigDecimal(), transaction.getMerchant(),
+                transaction.getTransactionType());
+    }
+
+    /**
+     * Hex of the first 128 bits of SHA-256 over the normalized fields; short enough for a compact
+     * btree, wide enough that unrelated charges never collide in practice.
+     */
+    public static String of(LocalDate txnDate, BigDecimal amount, String merchant, TransactionDirection direction) {
+        String key = txnDate + "|" + MoneyUtils.toCents(amount) + "|" + normalizeMerchant(merchant) + "|" +
+                (direction == null ? TransactionDirection.DEBIT : direction).name();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, LENGTH / 2);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static String normalizeMerchant(String merchant) {
+        if (merchant == null) {
+            return "";
+        }
+        return NON_ALPHANUMERIC.matcher(merchant).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.backend.benchmarks;
+
+import com.example.backend.dtos.MemberBalanceDto;
+import com.example.backend.entities.GroupMember;
+import com.example.backend.entities.GroupTransaction;
+import com.example.backend.entities.GroupTransactionParticipant;
+import com.example.backend.services.SettlementService;
+import com.example.backend.utils.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group balances summed in long cents by SettlementService against the BigDecimal accumulation it replaced.
+ * Run with {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.backend.benchmarks.SettlementBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementBenchmark {
+
+    @Param({"1000", "100000"})
+    public int transactions;
+
+    @Param({"8"})
+    public int members;
+
+    private final SettlementService settlementService = new SettlementService();
+    private List<GroupMember> groupMembers;
+    private List<GroupTransaction> groupTransactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        groupMembers = new ArrayList<>(members);
+        for (long id = 1; id <= members; id++) {
+            GroupMember member = new GroupMember();
+            member.setId(id);
+            member.setMemberName("Member " + id);
+            groupMembers.add(member);
+        }
+
+        groupTransactions = new ArrayList<>(transactions);
+        for (int i = 0; i < transactions; i++) {
+            GroupTransaction transaction = new GroupTransaction();
+            transaction.setAmount(Money.ofCents(100 + random.nextInt(500_000)));
+            transaction.setPaidBy(groupMembers.get(random.nextInt(members)));
+            int participantCount = 2 + random.nextInt(members - 1);
+            for (int p = 0; p < participantCount; p++) {
+                GroupTransactionParticipant participant = new GroupTransactionParticipant();
+                participant.setMember(groupMembers.get((i + p) % members));
+                transaction.getParticipants().add(participant);
+            }
+            groupTransactions.add(transaction);
+        }
+    }
+
+    @Benchmark
+    public List<MemberBalanceDto> longCents() {
+        return settlementService.calculateMemberBalances(groupMembers, groupTransactions);
+    }
+
+    @Benchmark
+    public List<MemberBalanceDto> bigDecimal() {
+        Map<Long, MemberBalanceDto> balances = new HashMap<>();
+        for (GroupMember member : groupMembers) {
+            balances.put(member.getId(), new MemberBalanceDto(member.getId(), member.getMemberName(),
+                    BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+        }
+        for (GroupTransaction transaction : groupTransactions) {
+            BigDecimal amount = transaction.getAmount().toBigDecimal();
+            MemberBalanceDto payer = balances.get(transaction.getPaidBy().getId());
+            payer.setTotalPaid(payer.getTotalPaid().add(amount));
+            List<GroupTransactionParticipant> participants = transaction.getParticipants();
+            BigDecimal share = amount.divide(BigDecimal.valueOf(participants.size()), 2, RoundingMode.HALF_UP);
+            for (GroupTransactionParticipant participant : participants) {
+                MemberBalanceDto balance = balances.get(participant.getMember().getId());
+                balance.setTotalShare(balance.getTotalShare().add(share));
+            }
+        }
+        for (MemberBalanceDto balance : balances.values()) {
+            balance.setBalance(balance.getTotalPaid().subtract(balance.getTotalShare()).setScale(2, RoundingMode.HALF_UP));
+        }
+        return new ArrayList<>(balances.values());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SettlementBenchmark.class.getSimpleName()).build()).run();
+    }
+}
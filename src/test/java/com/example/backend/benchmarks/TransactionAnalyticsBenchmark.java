@@ -0,0 +1,156 @@
+package com.example.backend.benchmarks;
+
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.repositories.TransactionArchiveRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.services.TransactionAnalyticsService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory columnar snapshot of TransactionAnalyticsService against the same aggregates computed by
+ * PostgreSQL over an indexed transactions table. Needs Docker for the database; run with
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.example.backend.benchmarks.TransactionAnalyticsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionAnalyticsBenchmark {
+
+    private static final String SCHEMA = """
+            CREATE TABLE transactions (
+                id bigserial PRIMARY KEY, sms_id bigint, txn_date date NOT NULL, amount numeric(12,2) NOT NULL,
+                merchant varchar(255), payment_type varchar(255), transaction_type varchar(10) NOT NULL,
+                category_id bigint, notes varchar(255), is_deleted boolean, fingerprint varchar(64),
+                duplicate_of_id bigint, created_at timestamp, updated_at timestamp, anomaly_score double precision,
+                change_xid bigint NOT NULL DEFAULT 0);
+            CREATE TABLE transactions_archive (LIKE transactions, archived_at timestamp);
+            CREATE INDEX idx_transactions_live_date ON transactions (txn_date DESC, id DESC) WHERE is_deleted = false;
+            CREATE INDEX idx_transactions_live_category_date ON transactions (category_id, txn_date DESC, id DESC)
+                WHERE is_deleted = false;
+            """;
+
+    // Five years of history over 40 categories and 2,000 merchants, roughly four debits per credit
+    private static final String SEED = """
+            INSERT INTO transactions (txn_date, amount, merchant, payment_type, transaction_type, category_id, is_deleted)
+            SELECT current_date - (i % 1825), ((i * 7919) % 500000) / 100.0, 'Merchant ' || (i % 2000), 'UPI',
+                   CASE WHEN i % 5 = 0 THEN 'CREDIT' ELSE 'DEBIT' END, 1 + i % 40, i % 50 = 0
+            FROM generate_series(1, ?) AS i
+            """;
+
+    private static final String SQL_TOTALS = "SELECT COALESCE(SUM(amount), 0), COUNT(*) FROM transactions " +
+            "WHERE is_deleted = false AND txn_date BETWEEN ? AND ? AND transaction_type = 'DEBIT'";
+    private static final String SQL_BY_CATEGORY = "SELECT category_id, SUM(amount) AS total, COUNT(*) FROM transactions " +
+            "WHERE is_deleted = false AND txn_date BETWEEN ? AND ? AND transaction_type = 'DEBIT' " +
+            "GROUP BY category_id ORDER BY total DESC";
+    private static final String SQL_TOP_MERCHANTS = "SELECT MIN(TRIM(merchant)), SUM(amount) AS total, COUNT(*) " +
+            "FROM transactions WHERE is_deleted = false AND txn_date BETWEEN ? AND ? AND transaction_type = 'DEBIT' " +
+            "AND merchant IS NOT NULL AND TRIM(merchant) <> '' " +
+            "GROUP BY LOWER(TRIM(merchant)) ORDER BY total DESC LIMIT 10";
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    // Window of the query: the last 90 days or the whole history
+    @Param({"90", "1825"})
+    public int days;
+
+    private PostgreSQLContainer<?> postgres;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionAnalyticsService analyticsService;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(SCHEMA);
+        jdbcTemplate.update(SEED, rows);
+        jdbcTemplate.execute("VACUUM ANALYZE transactions");
+
+        TransactionJdbcRepository transactionJdbcRepository =
+                new TransactionJdbcRepository(jdbcTemplate, new TransactionArchiveRepository(jdbcTemplate));
+        analyticsService = new TransactionAnalyticsService(transactionJdbcRepository,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        analyticsService.reload();
+
+        to = LocalDate.now();
+        from = to.minusDays(days - 1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public Object snapshotTotals() {
+        return analyticsService.getTotals(from, to, null, TransactionDirection.DEBIT);
+    }
+
+    @Benchmark
+    public Object sqlTotals() {
+        return jdbcTemplate.queryForMap(SQL_TOTALS, from, to);
+    }
+
+    @Benchmark
+    public Object snapshotByCategory() {
+        return analyticsService.getTotalsByCategory(from, to, TransactionDirection.DEBIT);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sqlByCategory() {
+        return jdbcTemplate.queryForList(SQL_BY_CATEGORY, from, to);
+    }
+
+    @Benchmark
+    public Object snapshotTopMerchants() {
+        return analyticsService.getTopMerchants(from, to, TransactionDirection.DEBIT, 10);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> sqlTopMerchants() {
+        return jdbcTemplate.queryForList(SQL_TOP_MERCHANTS, from, to);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransactionAnalyticsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
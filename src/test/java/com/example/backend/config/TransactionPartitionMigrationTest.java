@@ -0,0 +1,221 @@
+package com.example.backend.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the online partitioning against a real table. The migration commits as it goes and renames tables,
+ * so each test runs outside the rolled-back test transaction and gets a freshly created schema.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionIndexMigration.class, TransactionChangeXidMigration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionPartitionMigrationTest {
+
+    private static final LocalDate THIS_MONTH = LocalDate.now().withDayOfMonth(1);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionIndexMigration transactionIndexMigration;
+
+    @Autowired
+    private TransactionChangeXidMigration transactionChangeXidMigration;
+
+    private TransactionPartitionMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        // Leftovers of an earlier test that Hibernate does not know about: the retired heap and detached partitions
+        jdbcTemplate.queryForList("SELECT tablename FROM pg_tables WHERE schemaname = current_schema() " +
+                        "AND (tablename LIKE 'transactions\\_y%' OR tablename IN ('transactions_unpartitioned', " +
+                        "'transactions_default'))", String.class)
+                .forEach(table -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + table));
+        transactionIndexMigration.createTransactionIndexes();
+        transactionChangeXidMigration.migrate();
+        // Batches of two so the backfill walks several id ranges
+        migration = new TransactionPartitionMigration(jdbcTemplate, new TransactionTemplate(transactionManager),
+                transactionIndexMigration, transactionChangeXidMigration, true, "monthly", 2, 2);
+    }
+
+    @Test
+    void writesDuringTheCopyAreMirroredAndSurviveTheSwap() {
+        long kept = insert(THIS_MONTH.minusMonths(3), "Kept");
+        long moved = insert(THIS_MONTH.minusMonths(2), "Moved to another month");
+        long softDeleted = insert(THIS_MONTH.minusMonths(1), "Soft deleted");
+        long removed = insert(THIS_MONTH, "Hard deleted");
+        insert(THIS_MONTH, "Untouched");
+
+        migration.prepareStaging();
+
+        long added = insert(THIS_MONTH.plusDays(3), "Added while copying");
+        jdbcTemplate.update("UPDATE transactions SET txn_date = ? WHERE id = ?", Date.valueOf(THIS_MONTH), moved);
+        jdbcTemplate.update("UPDATE transactions SET is_deleted = true WHERE id = ?", softDeleted);
+        jdbcTemplate.update("DELETE FROM transactions WHERE id = ?", removed);
+
+        migration.backfill();
+        migration.reconcile();
+        migration.swap();
+
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('transactions')", String.class));
+        // Same rows, column for column, as the heap that was swapped out
+        assertEquals(0, count("SELECT * FROM transactions EXCEPT SELECT * FROM transactions_unpartitioned"));
+        assertEquals(0, count("SELECT * FROM transactions_unpartitioned EXCEPT SELECT * FROM transactions"));
+        assertEquals(5, count("SELECT * FROM transactions"));
+        assertEquals(1, count("SELECT * FROM transactions WHERE id = " + added));
+        assertEquals(0, count("SELECT * FROM transactions WHERE id = " + removed));
+        assertEquals(THIS_MONTH, jdbcTemplate.queryForObject(
+                "SELECT txn_date FROM transactions WHERE id = ?", LocalDate.class, moved));
+        assertEquals(1, count("SELECT * FROM " + partitionOf(THIS_MONTH) + " WHERE id = " + moved));
+        assertEquals(1, count("SELECT * FROM transactions WHERE is_deleted AND id = " + softDeleted));
+        assertEquals(1, count("SELECT * FROM " + partitionOf(THIS_MONTH.minusMonths(3)) + " WHERE id = " + kept));
+    }
+
+    @Test
+    void staleCopiesFromTheBackfillSnapshotAreReconciledBeforeTheSwap() {
+        long removed = insert(THIS_MONTH.minusMonths(1), "Archived during the copy");
+        long moved = insert(THIS_MONTH.minusMonths(1), "Redated during the copy");
+        insert(THIS_MONTH, "Untouched");
+        migration.prepareStaging();
+        migration.backfill();
+
+        jdbcTemplate.update("DELETE FROM transactions WHERE id = ?", removed);
+        jdbcTemplate.update("UPDATE transactions SET txn_date = ? WHERE id = ?", Date.valueOf(THIS_MONTH), moved);
+        // What a batch leaves behind when its snapshot predates the delete or the date change
+        staleCopy(removed, THIS_MONTH.minusMonths(1));
+        staleCopy(moved, THIS_MONTH.minusMonths(1));
+        assertEquals(5, count("SELECT * FROM transactions_partitioned"));
+
+        migration.reconcile();
+        migration.swap();
+
+        assertEquals(0, count("SELECT * FROM transactions EXCEPT SELECT * FROM transactions_unpartitioned"));
+        assertEquals(0, count("SELECT * FROM transactions_unpartitioned EXCEPT SELECT * FROM transactions"));
+        assertEquals(List.of(THIS_MONTH), jdbcTemplate.queryForList(
+                "SELECT txn_date FROM transactions WHERE id = ?", LocalDate.class, moved));
+        assertEquals(0, count("SELECT * FROM transactions WHERE id = " + removed));
+    }
+
+    @Test
+    void swapRefusesACopyThatHasNotCaughtUp() {
+        insert(THIS_MONTH.minusMonths(1), "Copied");
+        migration.prepareStaging();
+        migration.backfill();
+        long latest = insert(THIS_MONTH, "Lost by the copy");
+        jdbcTemplate.update("DELETE FROM transactions_partitioned WHERE id = ?", latest);
+
+        assertThrows(IllegalStateException.class, () -> migration.swap());
+
+        // Rolled back: still the plain heap, still mirrored
+        assertEquals("r", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('transactions')", String.class));
+        assertEquals(1, count("SELECT 1 FROM pg_trigger WHERE tgname = 'transactions_partition_sync'"));
+    }
+
+    @Test
+    void swappedTableKeepsIdsIndexesAndTriggers() {
+        insert(THIS_MONTH.minusMonths(1), "Before");
+        long maxBefore = jdbcTemplate.queryForObject("SELECT MAX(id) FROM transactions", Long.class);
+
+        migration.migrate();
+
+        long next = insert(THIS_MONTH, "After");
+        assertTrue(next > maxBefore);
+        assertTrue(jdbcTemplate.queryForObject("SELECT change_xid FROM transactions WHERE id = ?", Long.class, next) > 0);
+
+        List<String> triggers = jdbcTemplate.queryForList(
+                "SELECT tgname FROM pg_trigger WHERE tgrelid = to_regclass('transactions') AND NOT tgisinternal",
+                String.class);
+        assertEquals(List.of(TransactionChangeXidMigration.TRIGGER), triggers);
+        assertFalse(jdbcTemplate.queryForObject(
+                "SELECT to_regproc('transactions_partition_sync') IS NOT NULL", Boolean.class));
+        for (String index : TransactionIndexMigration.indexNames()) {
+            assertEquals("transactions", jdbcTemplate.queryForObject(
+                    "SELECT tablename FROM pg_indexes WHERE indexname = ?", String.class, index), index);
+        }
+        // Premade partitions exist ahead of today
+        assertEquals(1, count("SELECT 1 FROM pg_class WHERE oid = to_regclass('" +
+                partitionOf(THIS_MONTH.plusMonths(2)) + "')"));
+    }
+
+    @Test
+    void oldPartitionsDetachWithoutTouchingRecentRows() {
+        insert(THIS_MONTH.minusMonths(6), "Old");
+        long recent = insert(THIS_MONTH, "Recent");
+        migration.migrate();
+
+        List<String> detached = migration.detachPartitionsBefore(THIS_MONTH.minusMonths(1));
+
+        assertTrue(detached.contains(partitionOf(THIS_MONTH.minusMonths(6))));
+        assertFalse(detached.contains(partitionOf(THIS_MONTH)));
+        assertEquals(List.of(recent), jdbcTemplate.queryForList("SELECT id FROM transactions", Long.class));
+    }
+
+    private long insert(LocalDate date, String merchant) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO transactions (txn_date, amount, merchant, payment_type, transaction_type, is_deleted, " +
+                        "created_at, updated_at) VALUES (?, ?, ?, 'UPI', 'DEBIT', false, now(), now()) RETURNING id",
+                Long.class, Date.valueOf(date), BigDecimal.TEN, merchant);
+    }
+
+    private void staleCopy(long id, LocalDate date) {
+        jdbcTemplate.update("INSERT INTO transactions_partitioned (id, txn_date, amount, merchant, payment_type, " +
+                        "transaction_type, is_deleted, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, 'Stale', 'UPI', 'DEBIT', false, now(), now())",
+                id, Date.valueOf(date), BigDecimal.TEN);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + sql + ") rows", Integer.class);
+    }
+
+    private static String partitionOf(LocalDate date) {
+        return String.format("transactions_y%04dm%02d", date.getYear(), date.getMonthValue());
+    }
+}
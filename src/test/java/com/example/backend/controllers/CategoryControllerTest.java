@@ -0,0 +1,71 @@
+package com.example.backend.controllers;
+
+import com.example.backend.dtos.CategoryDto;
+import com.example.backend.services.CategoryService;
+import com.example.backend.services.ResourceVersionTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryControllerTest {
+
+    @Mock
+    private CategoryService categoryService;
+
+    private final ResourceVersionTracker versionTracker = new ResourceVersionTracker();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new CategoryController(categoryService, versionTracker)).build();
+    }
+
+    @Test
+    void matchingIfNoneMatchReturns304WithoutLoadingCategories() throws Exception {
+        when(categoryService.allCategories()).thenReturn(List.of());
+
+        String etag = mockMvc.perform(get("/api/v1/categories"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        verify(categoryService, times(1)).allCategories();
+    }
+
+    @Test
+    void changedCategoriesInvalidateTheTag() throws Exception {
+        CategoryDto food = new CategoryDto();
+        food.setName("Food");
+        when(categoryService.allCategories()).thenReturn(List.of(food));
+        String etag = versionTracker.etag(ResourceVersionTracker.Resource.CATEGORIES);
+
+        versionTracker.bumpAfterCommit(ResourceVersionTracker.Resource.CATEGORIES);
+
+        String fresh = mockMvc.perform(get("/api/v1/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, fresh);
+        verify(categoryService).allCategories();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.backend.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Remembers the last SQL Hibernate prepared so tests can EXPLAIN exactly what the repository emits.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static volatile String lastSql;
+
+    @Override
+    public String inspect(String sql) {
+        lastSql = sql;
+        return sql;
+    }
+
+    public static String lastSql() {
+        return lastSql;
+    }
+}
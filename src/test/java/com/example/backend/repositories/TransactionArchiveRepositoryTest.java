@@ -0,0 +1,192 @@
+package com.example.backend.repositories;
+
+import com.example.backend.dtos.TransactionBulkFilterDto;
+import com.example.backend.dtos.TransactionDto;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.utils.TransactionCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionArchiveRepository.class, TransactionJdbcRepository.class})
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionArchiveRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate CUTOFF = TODAY.minusDays(365);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long food;
+    private Long travel;
+    private long recent;
+    private long oldest;
+    private long older;
+    private long old;
+    private long oldDeleted;
+
+    @BeforeEach
+    void seed() {
+        food = category("Food");
+        travel = category("Travel");
+        recent = insert(TODAY.minusDays(10), "Recent shop", food, false);
+        old = insert(CUTOFF.minusDays(10), "Old shop", food, false);
+        older = insert(CUTOFF.minusDays(20), "Old shop", food, false);
+        oldest = insert(CUTOFF.minusDays(30), "Old shop", food, false);
+        oldDeleted = insert(CUTOFF.minusDays(40), "Old shop", travel, true);
+    }
+
+    @Test
+    void archiveMovesOnlyRowsBeforeTheCutoffInResumableBatches() {
+        assertEquals(2, transactionArchiveRepository.archiveBatch(CUTOFF, 2));
+        assertEquals(2, transactionArchiveRepository.archiveBatch(CUTOFF, 2));
+        assertEquals(0, transactionArchiveRepository.archiveBatch(CUTOFF, 2));
+
+        assertEquals(List.of(recent), jdbcTemplate.queryForList("SELECT id FROM transactions", Long.class));
+        assertEquals(List.of(old, older, oldest, oldDeleted), jdbcTemplate.queryForList(
+                "SELECT id FROM transactions_archive WHERE archived_at IS NOT NULL ORDER BY txn_date DESC",
+                Long.class));
+        assertEquals(CUTOFF.minusDays(10), transactionArchiveRepository.refreshBoundary().orElseThrow());
+    }
+
+    @Test
+    void listingsAndKeysetPagesMergeBothTiersInOrder() {
+        archiveAll();
+
+        assertEquals(sorted(recent, old, older, oldest), sorted(transactionRepository.findTransactionDtos(null, null, null)));
+        assertEquals(List.of(recent), ids(transactionRepository.findTransactionDtos(TODAY.minusDays(30), null, null)));
+        assertEquals(sorted(old, older, oldest), sorted(transactionRepository.findTransactionDtos(null, CUTOFF, food)));
+        // Pages that straddle the boundary take rows from both tiers
+        assertEquals(List.of(recent, old, older, oldest), walkPages(2));
+        assertEquals(List.of(recent, old, older, oldest), walkPages(1));
+    }
+
+    @Test
+    void searchAndCategoryUsageSeeArchivedRows() {
+        archiveAll();
+
+        assertEquals(sorted(old, older, oldest),
+                sorted(transactionJdbcRepository.search("old shop", null, null, null, 10)));
+        assertTrue(transactionArchiveRepository.existsLiveWithCategory(food));
+        // Only a soft-deleted archived row uses it
+        assertFalse(transactionArchiveRepository.existsLiveWithCategory(travel));
+    }
+
+    @Test
+    void archivedRowsAreReadOnlyHistory() {
+        archiveAll();
+
+        // PUT and DELETE load through the entity, which only maps the hot table, and answer 409 for these
+        assertTrue(transactionRepository.findById(old).isEmpty());
+        assertTrue(transactionArchiveRepository.contains(old));
+        assertTrue(transactionArchiveRepository.contains(oldDeleted));
+        assertFalse(transactionArchiveRepository.contains(recent));
+        assertEquals("Old shop", transactionArchiveRepository.findTransactionDto(old).orElseThrow().getMerchant());
+        assertTrue(transactionArchiveRepository.findTransactionDto(oldDeleted).isEmpty());
+    }
+
+    @Test
+    void bulkWritesChangeOnlyTheHotTableAndCountArchivedMatches() {
+        archiveAll();
+        TransactionBulkFilterDto shops = new TransactionBulkFilterDto(null, null, null, food, null);
+
+        assertEquals(3, transactionJdbcRepository.countArchivedMatches(shops, travel));
+        // Rows already in the target category would not change anyway
+        assertEquals(0, transactionJdbcRepository.countArchivedMatches(shops, food));
+        assertEquals(List.of(recent), transactionJdbcRepository.softDelete(shops).stream()
+                .map(TransactionFact::id)
+                .toList());
+        assertEquals(3, transactionJdbcRepository.countArchivedMatches(shops, null));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions_archive WHERE is_deleted = true AND category_id = ?",
+                Integer.class, food));
+    }
+
+    private void archiveAll() {
+        while (transactionArchiveRepository.archiveBatch(CUTOFF, 10) > 0) {
+            // keep moving
+        }
+    }
+
+    private List<Long> walkPages(int limit) {
+        List<Long> ids = new ArrayList<>();
+        TransactionCursor after = null;
+        List<TransactionDto> page;
+        while (!(page = transactionRepository.findTransactionDtoPage(null, null, null, after, limit)).isEmpty()) {
+            ids.addAll(ids(page));
+            TransactionDto last = page.get(page.size() - 1);
+            after = new TransactionCursor(last.getTxnDate(), last.getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> ids(List<TransactionDto> transactions) {
+        return transactions.stream().map(TransactionDto::getId).toList();
+    }
+
+    private static List<Long> sorted(List<TransactionDto> transactions) {
+        return ids(transactions).stream().sorted().toList();
+    }
+
+    private static List<Long> sorted(Long... ids) {
+        return Stream.of(ids).sorted().toList();
+    }
+
+    private Long category(String name) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO categories (name, created_at) VALUES (?, now()) RETURNING id", Long.class, name);
+    }
+
+    private long insert(LocalDate date, String merchant, Long categoryId, boolean deleted) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO transactions (txn_date, amount, merchant, payment_type, transaction_type, category_id, " +
+                        "is_deleted, created_at, updated_at) VALUES (?, ?, ?, 'UPI', 'DEBIT', ?, ?, now(), now()) " +
+                        "RETURNING id",
+                Long.class, Date.valueOf(date), BigDecimal.TEN, merchant, categoryId, deleted);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.backend.repositories;
+
+import com.example.backend.config.TransactionChangeXidMigration;
+import com.example.backend.config.TransactionIndexMigration;
+import com.example.backend.dtos.TransactionBulkFilterDto;
+import com.example.backend.utils.SyncWatermark;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delta sync against real commits: every write here commits on its own, so the tests run outside
+ * the usual rolled-back test transaction and clean up after themselves.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionIndexMigration.class, TransactionChangeXidMigration.class,
+        TransactionArchiveRepository.class, TransactionJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionChangeFeedTest {
+
+    private static final LocalDate DATE = LocalDate.now().minusDays(3);
+    private static final String INSERT_SQL = "INSERT INTO transactions (txn_date, amount, merchant, payment_type, " +
+            "transaction_type, is_deleted, created_at, updated_at) VALUES (?, ?, ?, 'UPI', 'DEBIT', false, now(), now()) " +
+            "RETURNING id";
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionIndexMigration transactionIndexMigration;
+
+    @Autowired
+    private TransactionChangeXidMigration transactionChangeXidMigration;
+
+    @BeforeEach
+    void migrate() {
+        transactionIndexMigration.createTransactionIndexes();
+        transactionChangeXidMigration.migrate();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE transactions, transactions_archive, categories CASCADE");
+    }
+
+    @Test
+    void pagesVisitEveryChangeOnceAndDeletesComeBackAsTombstones() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(insert("Merchant " + i));
+        }
+        jdbcTemplate.update("UPDATE transactions SET is_deleted = true WHERE id = ?", ids.get(1));
+
+        List<TransactionJdbcRepository.TransactionChange> feed = drain(null, 2);
+
+        assertEquals(List.of(ids.get(0), ids.get(2), ids.get(3), ids.get(4), ids.get(1)),
+                feed.stream().map(change -> change.transaction().getId()).toList());
+        assertTrue(feed.get(4).deleted());
+        assertEquals(1, feed.stream().filter(TransactionJdbcRepository.TransactionChange::deleted).count());
+        SyncWatermark last = feed.get(4).watermark();
+        assertTrue(transactionJdbcRepository.findChanges(last, 10).isEmpty());
+    }
+
+    @Test
+    void longRunningWriterHoldsBackLaterCommitsInsteadOfLosingItsRow() throws Exception {
+        long before = insert("Before");
+        try (Connection slowWriter = dataSource.getConnection()) {
+            slowWriter.setAutoCommit(false);
+            long slow = insert(slowWriter, "Slow import chunk");
+            long fast = insert("Fast single create");
+
+            // The slow writer started first, so nothing it could still commit under may be passed
+            List<TransactionJdbcRepository.TransactionChange> whileRunning = transactionJdbcRepository.findChanges(null, 10);
+            assertEquals(List.of(before), whileRunning.stream().map(change -> change.transaction().getId()).toList());
+
+            slowWriter.commit();
+
+            List<TransactionJdbcRepository.TransactionChange> afterCommit =
+                    transactionJdbcRepository.findChanges(whileRunning.get(0).watermark(), 10);
+            assertEquals(List.of(slow, fast), afterCommit.stream().map(change -> change.transaction().getId()).toList());
+        }
+    }
+
+    @Test
+    void rolledBackWriterDoesNotBlockTheFeed() throws Exception {
+        try (Connection abandoned = dataSource.getConnection()) {
+            abandoned.setAutoCommit(false);
+            insert(abandoned, "Never committed");
+            abandoned.rollback();
+        }
+        long committed = insert("Committed");
+
+        assertEquals(List.of(committed), transactionJdbcRepository.findChanges(null, 10).stream()
+                .map(change -> change.transaction().getId())
+                .toList());
+    }
+
+    @Test
+    void onlyClientVisibleChangesMoveARowForward() {
+        long id = insert("Swiggy");
+        long stamp = changeXid(id);
+
+        transactionJdbcRepository.setAnomalyScores(Map.of(id, 4.2));
+        jdbcTemplate.update("UPDATE transactions SET fingerprint = 'recomputed' WHERE id = ?", id);
+        assertEquals(stamp, changeXid(id));
+
+        TransactionBulkFilterDto filter = new TransactionBulkFilterDto();
+        filter.setIds(List.of(id));
+        Long categoryId = jdbcTemplate.queryForObject(
+                "INSERT INTO categories (name, created_at) VALUES ('Food', now()) RETURNING id", Long.class);
+        transactionJdbcRepository.recategorize(filter, categoryId);
+        assertTrue(changeXid(id) > stamp);
+    }
+
+    @Test
+    void archivedRowsKeepTheirPositionInTheFeed() {
+        long old = insert("Archived later");
+        long stamp = changeXid(old);
+
+        assertEquals(1, transactionArchiveRepository.archiveBatch(LocalDate.now(), 10));
+
+        List<TransactionJdbcRepository.TransactionChange> feed = transactionJdbcRepository.findChanges(null, 10);
+        assertEquals(1, feed.size());
+        assertEquals(stamp, feed.get(0).changeXid());
+        assertFalse(feed.get(0).deleted());
+    }
+
+    private List<TransactionJdbcRepository.TransactionChange> drain(SyncWatermark since, int pageSize) {
+        List<TransactionJdbcRepository.TransactionChange> all = new ArrayList<>();
+        SyncWatermark watermark = since;
+        List<TransactionJdbcRepository.TransactionChange> page;
+        while (!(page = transactionJdbcRepository.findChanges(watermark, pageSize)).isEmpty()) {
+            all.addAll(page);
+            watermark = page.get(page.size() - 1).watermark();
+        }
+        return all;
+    }
+
+    private long changeXid(long id) {
+        return jdbcTemplate.queryForObject("SELECT change_xid FROM transactions WHERE id = ?", Long.class, id);
+    }
+
+    private long insert(String merchant) {
+        return jdbcTemplate.queryForObject(INSERT_SQL, Long.class, Date.valueOf(DATE), BigDecimal.TEN, merchant);
+    }
+
+    private static long insert(Connection connection, String merchant) throws Exception {
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+            ps.setDate(1, Date.valueOf(DATE));
+            ps.setBigDecimal(2, BigDecimal.TEN);
+            ps.setString(3, merchant);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
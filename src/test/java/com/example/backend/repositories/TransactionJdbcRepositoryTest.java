@@ -0,0 +1,227 @@
+package com.example.backend.repositories;
+
+import com.example.backend.config.TransactionIndexMigration;
+import com.example.backend.dtos.TransactionBulkFilterDto;
+import com.example.backend.dtos.TransactionDto;
+import com.example.backend.entities.Category;
+import com.example.backend.entities.Transaction;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.utils.IdRanges;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionIndexMigration.class, TransactionArchiveRepository.class, TransactionJdbcRepository.class})
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionJdbcRepositoryTest {
+
+    private static final LocalDate DATE = LocalDate.now().minusDays(10);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionIndexMigration transactionIndexMigration;
+
+    private Long food;
+    private Long travel;
+
+    @BeforeEach
+    void seed() {
+        transactionIndexMigration.createTransactionIndexes();
+        food = category("Food");
+        travel = category("Travel");
+    }
+
+    @Test
+    void recategorizeMovesOnlyLiveMatchesAndReturnsTheirOldCategory() {
+        long lunch = insert("Swiggy", "250.00", food, false);
+        long dinner = insert("SWIGGY", "400.00", null, false);
+        long alreadyMoved = insert("Swiggy", "90.00", travel, false);
+        long deleted = insert("Swiggy", "120.00", food, true);
+        long other = insert("Uber", "300.00", food, false);
+
+        List<TransactionFact> before = transactionJdbcRepository.recategorize(merchant("swiggy"), travel);
+
+        assertEquals(List.of(lunch, dinner), before.stream().map(TransactionFact::id).sorted().toList());
+        TransactionFact lunchBefore = before.stream().filter(fact -> fact.id() == lunch).findFirst().orElseThrow();
+        assertEquals(food, lunchBefore.categoryId());
+        assertEquals(25_000, lunchBefore.amountCents());
+        assertEquals(travel, categoryOf(lunch));
+        assertEquals(travel, categoryOf(dinner));
+        assertEquals(travel, categoryOf(alreadyMoved));
+        assertEquals(food, categoryOf(deleted));
+        assertEquals(food, categoryOf(other));
+    }
+
+    @Test
+    void softDeleteMarksEveryLiveMatchOnce() {
+        long first = insert("Uber", "300.00", travel, false);
+        long second = insert("Uber", "150.00", travel, false);
+        insert("Uber", "150.00", food, false);
+
+        TransactionBulkFilterDto filter = new TransactionBulkFilterDto("Uber", DATE, DATE, travel, null);
+        List<TransactionFact> deleted = transactionJdbcRepository.softDelete(filter);
+
+        assertEquals(List.of(first, second), deleted.stream().map(TransactionFact::id).sorted().toList());
+        assertEquals(2, (int) jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM transactions WHERE is_deleted = true", Integer.class));
+        assertTrue(transactionJdbcRepository.softDelete(filter).isEmpty());
+    }
+
+    @Test
+    void bulkUpdatesRequireAFilter() {
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionJdbcRepository.softDelete(new TransactionBulkFilterDto()));
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionJdbcRepository.recategorize(new TransactionBulkFilterDto(" ", null, null, null, List.of()), food));
+    }
+
+    @Test
+    void searchRanksFragmentMatchesAboveIncidentalOnes() {
+        long incidental = insert("Zomato", "80.00", food, false);
+        jdbcTemplate.update("UPDATE transactions SET notes = 'refund from bigswigshop' WHERE id = ?", incidental);
+        long swiggy = insert("Swiggy", "250.00", food, false);
+        long swiggyTravel = insert("Swiggy Instamart", "90.00", travel, false);
+        insert("Swiggy", "120.00", food, true);
+        insert("Uber", "300.00", travel, false);
+
+        List<Long> ranked = transactionJdbcRepository.search("swig", null, null, null, 10).stream()
+                .map(TransactionDto::getId)
+                .toList();
+
+        assertEquals(3, ranked.size());
+        assertEquals(incidental, ranked.get(2));
+        assertTrue(ranked.containsAll(List.of(swiggy, swiggyTravel)));
+        assertEquals(List.of(swiggyTravel), transactionJdbcRepository.search("swig", DATE, DATE, travel, 10).stream()
+                .map(TransactionDto::getId)
+                .toList());
+    }
+
+    @Test
+    void searchTreatsLikeWildcardsLiterally() {
+        long discount = insert("50% off store", "10.00", null, false);
+        insert("500 store", "10.00", null, false);
+
+        List<TransactionDto> matches = transactionJdbcRepository.search("50%", null, null, null, 10);
+
+        assertEquals(List.of(discount), matches.stream().map(TransactionDto::getId).toList());
+    }
+
+    @Test
+    void searchIsServedByTheTrigramIndexes() {
+        for (int i = 0; i < 2_000; i++) {
+            insert("Merchant " + i, "10.00", food, false);
+        }
+        jdbcTemplate.execute("ANALYZE transactions");
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id FROM transactions t WHERE t.is_deleted = false " +
+                        "AND (t.merchant ILIKE '%swig%' OR t.notes ILIKE '%swig%')", String.class));
+        jdbcTemplate.execute("RESET enable_seqscan");
+
+        assertTrue(plan.contains("idx_transactions_merchant_trgm"), () -> "Expected the merchant index:\n" + plan);
+        assertTrue(plan.contains("idx_transactions_notes_trgm"), () -> "Expected the notes index:\n" + plan);
+    }
+
+    @Test
+    void anomalyScoreWrittenWithJdbcSurvivesAnEntityUpdate() {
+        long id = insert("Swiggy", "9000.00", food, false);
+        // As in PUT /transactions/{id}: the entity is loaded, then the change event scores the row with JDBC
+        Transaction transaction = transactionRepository.findById(id).orElseThrow();
+        transaction.setCategory(entityManager.getReference(Category.class, travel));
+        transactionJdbcRepository.setAnomalyScores(Map.of(id, 4.5));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(travel, categoryOf(id));
+        assertEquals(4.5, jdbcTemplate.queryForObject(
+                "SELECT anomaly_score FROM transactions WHERE id = ?", Double.class, id));
+        assertEquals(4.5, transactionRepository.findById(id).orElseThrow().getAnomalyScore());
+    }
+
+    @Test
+    void fingerprintLookupSkipsExcludedIdsButNotRowsInBetween() {
+        long ownFirst = insert("Swiggy", "250.00", food, false);
+        long ownSecond = insert("Swiggy", "250.00", food, false);
+        long concurrent = insert("Swiggy", "250.00", food, false);
+        long ownThird = insert("Swiggy", "250.00", food, false);
+        jdbcTemplate.update("UPDATE transactions SET fingerprint = 'fp' WHERE merchant = 'Swiggy'");
+        IdRanges own = new IdRanges();
+        List.of(ownFirst, ownSecond, ownThird).forEach(own::add);
+
+        assertEquals(Map.of("fp", ownFirst), transactionJdbcRepository.findIdsByFingerprint(List.of("fp"), null));
+        assertEquals(Map.of("fp", concurrent), transactionJdbcRepository.findIdsByFingerprint(List.of("fp"), own));
+        own.add(concurrent);
+        assertTrue(transactionJdbcRepository.findIdsByFingerprint(List.of("fp"), own).isEmpty());
+    }
+
+    private static TransactionBulkFilterDto merchant(String merchant) {
+        TransactionBulkFilterDto filter = new TransactionBulkFilterDto();
+        filter.setMerchant(merchant);
+        return filter;
+    }
+
+    private Long category(String name) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO categories (name, created_at) VALUES (?, now()) RETURNING id", Long.class, name);
+    }
+
+    private Long categoryOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT category_id FROM transactions WHERE id = ?", Long.class, id);
+    }
+
+    private long insert(String merchant, String amount, Long categoryId, boolean deleted) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO transactions (txn_date, amount, merchant, payment_type, transaction_type, category_id, " +
+                        "is_deleted, created_at, updated_at) VALUES (?, ?, ?, 'UPI', 'DEBIT', ?, ?, now(), now()) " +
+                        "RETURNING id",
+                Long.class, Date.valueOf(DATE), new BigDecimal(amount), merchant, categoryId, deleted);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.backend.repositories;
+
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.services.TransactionRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionMonthlyRollupRepositoryTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+    private static final LocalDate APRIL = LocalDate.of(2024, 4, 1);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TransactionMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionRollupService rollupService;
+    private Long food;
+    private Long travel;
+
+    @BeforeEach
+    void setUp() {
+        // The backfill path (and so the template) is not exercised here
+        rollupService = new TransactionRollupService(rollupRepository, null);
+        food = jdbcTemplate.queryForObject(
+                "INSERT INTO categories (name, created_at) VALUES ('Food', now()) RETURNING id", Long.class);
+        travel = jdbcTemplate.queryForObject(
+                "INSERT INTO categories (name, created_at) VALUES ('Travel', now()) RETURNING id", Long.class);
+    }
+
+    @Test
+    void rebuildShouldMatchTheRowsTheDeltasMaintained() {
+        TransactionFact lunch = insert(MARCH.plusDays(3), "12.50", food, TransactionDirection.DEBIT);
+        TransactionFact flight = insert(MARCH.plusDays(30), "420.00", travel, TransactionDirection.DEBIT);
+        TransactionFact refund = insert(APRIL.plusDays(2), "99.99", null, TransactionDirection.CREDIT);
+        TransactionFact dinner = insert(APRIL.plusDays(7), "30.00", food, TransactionDirection.DEBIT);
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(lunch, flight, refund, dinner)));
+
+        // Recategorize, move to another month, then soft-delete
+        jdbcTemplate.update("UPDATE transactions SET category_id = ? WHERE id = ?", travel, lunch.id());
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.updated(lunch, lunch.withCategoryId(travel)));
+        TransactionFact movedFlight = new TransactionFact(flight.id(), APRIL, flight.amountCents(),
+                flight.categoryId(), flight.direction(), flight.merchant());
+        jdbcTemplate.update("UPDATE transactions SET txn_date = ? WHERE id = ?", Date.valueOf(APRIL), flight.id());
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.updated(flight, movedFlight));
+        jdbcTemplate.update("UPDATE transactions SET is_deleted = true WHERE id = ?", dinner.id());
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.deleted(List.of(dinner)));
+
+        List<Map<String, Object>> maintained = rows();
+        rollupService.rebuild();
+
+        assertFalse(maintained.isEmpty());
+        assertEquals(maintained, rows());
+    }
+
+    // Rows that a delta emptied stay at zero, which the rebuild never writes
+    private List<Map<String, Object>> rows() {
+        return jdbcTemplate.queryForList("SELECT month_start, category_id, direction, amount_cents, txn_count " +
+                "FROM transaction_monthly_rollup WHERE txn_count <> 0 ORDER BY month_start, category_id, direction");
+    }
+
+    private TransactionFact insert(LocalDate date, String amount, Long categoryId, TransactionDirection direction) {
+        BigDecimal value = new BigDecimal(amount);
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO transactions (txn_date, amount, merchant, payment_type, transaction_type, category_id, " +
+                        "is_deleted, created_at, updated_at) VALUES (?, ?, 'Shop', 'UPI', ?, ?, false, now(), now()) " +
+                        "RETURNING id",
+                Long.class, Date.valueOf(date), value, direction.name(), categoryId);
+        return new TransactionFact(id, date, value.movePointRight(2).longValueExact(), categoryId, direction, "Shop");
+    }
+}
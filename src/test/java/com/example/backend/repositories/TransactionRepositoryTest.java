@@ -0,0 +1,147 @@
+package com.example.backend.repositories;
+
+import com.example.backend.config.TransactionIndexMigration;
+import com.example.backend.dtos.TransactionDto;
+import com.example.backend.utils.TransactionCursor;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Inline filter values so captured SQL can be EXPLAINed as-is
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.example.backend.repositories.CapturingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionIndexMigration.class, TransactionArchiveRepository.class})
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionRepositoryTest {
+
+    private static final int ROW_COUNT = 10_000;
+    private static final int CATEGORY_COUNT = 25;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionIndexMigration transactionIndexMigration;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORY_COUNT; i++) {
+            categories.add(new Object[]{"Category " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (name, created_at) VALUES (?, now())", categories);
+        List<Long> categoryIds = jdbcTemplate.queryForList("SELECT id FROM categories ORDER BY id", Long.class);
+
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        List<Object[]> rows = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            rows.add(new Object[]{
+                    Date.valueOf(start.plusDays(i % 1800)),
+                    BigDecimal.valueOf(100 + i % 900, 2),
+                    "Merchant " + (i % 300),
+                    "EXPENSE",
+                    categoryIds.get(i % CATEGORY_COUNT)
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transactions (txn_date, amount, merchant, payment_type, transaction_type, category_id, " +
+                        "is_deleted, created_at, updated_at) VALUES (?, ?, ?, ?, 'DEBIT', ?, false, now(), now())",
+                rows);
+        transactionIndexMigration.createTransactionIndexes();
+        jdbcTemplate.execute("ANALYZE transactions");
+
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingBuildsDtosInSingleStatementWithoutManagedEntities() {
+        List<TransactionDto> transactions = transactionRepository.findTransactionDtos(null, null, null);
+
+        assertEquals(ROW_COUNT, transactions.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        transactions.forEach(dto -> assertNotNull(dto.getCategoryName()));
+    }
+
+    @Test
+    void everyFilterCombinationIsServedByAPartialIndex() {
+        LocalDate from = LocalDate.of(2021, 1, 1);
+        LocalDate to = LocalDate.of(2021, 6, 30);
+        Long categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM categories", Long.class);
+        TransactionCursor cursor = new TransactionCursor(LocalDate.of(2022, 3, 1), Long.MAX_VALUE);
+
+        assertUsesIndex(() -> transactionRepository.findTransactionDtos(from, null, null));
+        assertUsesIndex(() -> transactionRepository.findTransactionDtos(null, to, null));
+        assertUsesIndex(() -> transactionRepository.findTransactionDtos(from, to, null));
+        assertUsesIndex(() -> transactionRepository.findTransactionDtos(null, null, categoryId));
+        assertUsesIndex(() -> transactionRepository.findTransactionDtos(from, to, categoryId));
+        assertUsesIndex(() -> transactionRepository.findTransactionDtoPage(null, null, null, null, 51));
+        assertUsesIndex(() -> transactionRepository.findTransactionDtoPage(null, null, null, cursor, 51));
+        assertUsesIndex(() -> transactionRepository.findTransactionDtoPage(from, to, categoryId, cursor, 51));
+    }
+
+    private void assertUsesIndex(Supplier<List<TransactionDto>> listing) {
+        listing.get();
+        // Only the page size is still bound; every filter value is inlined
+        String sql = CapturingStatementInspector.lastSql().replace("?", "51");
+
+        // With sequential scans priced out, a plan on transactions exists only if an index can serve the predicates
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        jdbcTemplate.execute("RESET enable_seqscan");
+
+        assertTrue(plan.contains("idx_transactions_live_"), () -> "Expected a partial index in plan:\n" + plan);
+        assertFalse(plan.contains("Seq Scan on transactions"), () -> "Unexpected sequential scan:\n" + plan);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.backend.services;
+
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.SpendBaselineRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AnomalyDetectionServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 11, 1);
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private SpendBaselineRepository baselineRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private AnomalyDetectionService anomalyDetectionService;
+
+    @BeforeEach
+    void setUp() {
+        anomalyDetectionService = new AnomalyDetectionService(
+                transactionJdbcRepository, baselineRepository, transactionTemplate, 3.0, 5);
+        List<TransactionFact> usual = new ArrayList<>();
+        long[] amounts = {30_000, 35_000, 40_000, 45_000, 50_000, 32_000, 38_000, 42_000, 48_000};
+        for (int i = 0; i < amounts.length; i++) {
+            usual.add(debit((long) i + 1, amounts[i], "Swiggy", 5L));
+        }
+        anomalyDetectionService.onTransactionsChanged(TransactionsChangedEvent.inserted(usual));
+    }
+
+    @Test
+    void usualAmountsShouldNotBeFlagged() {
+        verify(transactionJdbcRepository, never()).setAnomalyScores(any());
+
+        anomalyDetectionService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                debit(20L, 44_000, "SWIGGY", 5L))));
+
+        verify(transactionJdbcRepository, never()).setAnomalyScores(any());
+    }
+
+    @Test
+    void outlierShouldBeScoredAgainstItsMerchant() {
+        anomalyDetectionService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                debit(20L, 500_000, "Swiggy", 5L))));
+
+        Map<Long, Double> scores = capturedScores();
+        assertTrue(scores.get(20L) > 10);
+    }
+
+    @Test
+    void newMerchantShouldFallBackToItsCategory() {
+        anomalyDetectionService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                debit(20L, 600_000, "Zomato", 5L))));
+
+        assertTrue(capturedScores().containsKey(20L));
+    }
+
+    @Test
+    void correctingAnOutlierShouldClearItsScore() {
+        TransactionFact typo = debit(20L, 4_000_000, "Swiggy", 5L);
+        anomalyDetectionService.onTransactionsChanged(new TransactionsChangedEvent(
+                List.of(typo), List.of(debit(20L, 40_000, "Swiggy", 5L))));
+
+        Map<Long, Double> scores = capturedScores();
+        assertEquals(1, scores.size());
+        assertNull(scores.get(20L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Double> capturedScores() {
+        ArgumentCaptor<Map<Long, Double>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(transactionJdbcRepository).setAnomalyScores(captor.capture());
+        return captor.getValue();
+    }
+
+    private static TransactionFact debit(Long id, long cents, String merchant, Long categoryId) {
+        return new TransactionFact(id, DATE, cents, categoryId, TransactionDirection.DEBIT, merchant);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.BudgetDto;
+import com.example.backend.entities.Budget;
+import com.example.backend.entities.BudgetPeriod;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.BudgetRepository;
+import com.example.backend.repositories.CategoryRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate PERIOD_START = BudgetPeriod.MONTHLY.startOf(TODAY);
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BudgetService budgetService;
+
+    @BeforeEach
+    void setUp() {
+        budgetService = new BudgetService(budgetRepository, categoryRepository, transactionJdbcRepository,
+                emailService, transactionManager);
+        Budget food = new Budget(1L, "Food", 5L, BudgetPeriod.MONTHLY, new BigDecimal("1000.00"), 80,
+                "me@example.com", PERIOD_START, 50_000L, Budget.ALERT_NONE, null, null);
+        when(budgetRepository.findAll()).thenReturn(List.of(food));
+        budgetService.load();
+    }
+
+    @Test
+    void spendShouldAccumulateWithoutRescanningTransactions() {
+        when(budgetRepository.addSpend(eq(1L), eq(PERIOD_START), anyLong())).thenReturn(1);
+
+        budgetService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                debit(1L, 10_000, 5L), debit(2L, 5_000, 6L))));
+
+        BudgetDto food = budgetService.getBudget(1L);
+        assertEquals(new BigDecimal("600.00"), food.getSpentAmount());
+        assertEquals(new BigDecimal("400.00"), food.getRemainingAmount());
+        assertFalse(food.isThresholdReached());
+        verify(budgetRepository).addSpend(1L, PERIOD_START, 10_000L);
+        verify(transactionJdbcRepository, never()).sumDebitCents(any(), any(), any());
+    }
+
+    @Test
+    void eachAlertLevelShouldBeSentOncePerPeriod() {
+        when(budgetRepository.addSpend(eq(1L), eq(PERIOD_START), anyLong())).thenReturn(1);
+
+        budgetService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(debit(1L, 35_000, 5L))));
+        budgetService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(debit(2L, 1_000, 5L))));
+        budgetService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(debit(3L, 20_000, 5L))));
+
+        verify(emailService, times(1)).sendBudgetAlert("me@example.com", "Food",
+                new BigDecimal("1000.00"), new BigDecimal("850.00"), false);
+        verify(emailService, times(1)).sendBudgetAlert("me@example.com", "Food",
+                new BigDecimal("1000.00"), new BigDecimal("1060.00"), true);
+        verify(budgetRepository).raiseAlertLevel(1L, PERIOD_START, Budget.ALERT_THRESHOLD);
+        verify(budgetRepository).raiseAlertLevel(1L, PERIOD_START, Budget.ALERT_EXCEEDED);
+        assertTrue(budgetService.getBudget(1L).isExceeded());
+    }
+
+    @Test
+    void creditsAndOtherPeriodsShouldNotCount() {
+        budgetService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                new TransactionFact(1L, TODAY, 10_000, 5L, TransactionDirection.CREDIT, "Refund"),
+                new TransactionFact(2L, PERIOD_START.minusDays(1), 10_000, 5L, TransactionDirection.DEBIT, "Grocer"))));
+
+        assertEquals(new BigDecimal("500.00"), budgetService.getBudget(1L).getSpentAmount());
+        verify(budgetRepository, never()).addSpend(any(), any(), anyLong());
+    }
+
+    @Test
+    void budgetRowsShouldBeUpdatedInIdOrder() {
+        Budget overall = new Budget(9L, "Everything", null, BudgetPeriod.MONTHLY, new BigDecimal("5000.00"), 80,
+                null, PERIOD_START, 0L, Budget.ALERT_NONE, null, null);
+        Budget travel = new Budget(4L, "Travel", 6L, BudgetPeriod.MONTHLY, new BigDecimal("2000.00"), 80,
+                null, PERIOD_START, 0L, Budget.ALERT_NONE, null, null);
+        Budget food = new Budget(1L, "Food", 5L, BudgetPeriod.MONTHLY, new BigDecimal("1000.00"), 80,
+                "me@example.com", PERIOD_START, 50_000L, Budget.ALERT_NONE, null, null);
+        when(budgetRepository.findAll()).thenReturn(List.of(overall, travel, food));
+        budgetService.load();
+        when(budgetRepository.addSpend(anyLong(), eq(PERIOD_START), anyLong())).thenReturn(1);
+
+        budgetService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                debit(1L, 2_000, 6L), debit(2L, 1_000, 5L))));
+
+        // Encounter order would be travel, overall, food; concurrent writers must all lock in one order
+        InOrder inOrder = inOrder(budgetRepository);
+        inOrder.verify(budgetRepository).addSpend(1L, PERIOD_START, 1_000L);
+        inOrder.verify(budgetRepository).addSpend(4L, PERIOD_START, 2_000L);
+        inOrder.verify(budgetRepository).addSpend(9L, PERIOD_START, 3_000L);
+    }
+
+    private static TransactionFact debit(Long id, long cents, Long categoryId) {
+        return new TransactionFact(id, TODAY, cents, categoryId, TransactionDirection.DEBIT, "Grocer");
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.backend.services;
+
+import com.example.backend.entities.Category;
+import com.example.backend.exceptions.AppException;
+import com.example.backend.mappers.CategoryMapper;
+import com.example.backend.repositories.CategoryRepository;
+import com.example.backend.repositories.TransactionArchiveRepository;
+import com.example.backend.repositories.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryServiceTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private CategoryMapper categoryMapper;
+
+    @Mock
+    private ResourceVersionTracker versionTracker;
+
+    @InjectMocks
+    private CategoryService categoryService;
+
+    @BeforeEach
+    void setUp() {
+        Category food = new Category();
+        food.setId(5L);
+        food.setName("Food");
+        when(categoryRepository.findById(5L)).thenReturn(Optional.of(food));
+    }
+
+    @Test
+    void categoryUsedOnlyByArchivedTransactionsIsNotDeleted() {
+        when(transactionRepository.existsByCategoryIdAndIsDeletedFalse(5L)).thenReturn(false);
+        when(transactionArchiveRepository.existsLiveWithCategory(5L)).thenReturn(true);
+
+        AppException ex = assertThrows(AppException.class, () -> categoryService.deleteCategory(5L));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+        verify(categoryRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void unusedCategoryIsDeleted() {
+        when(transactionRepository.existsByCategoryIdAndIsDeletedFalse(5L)).thenReturn(false);
+        when(transactionArchiveRepository.existsLiveWithCategory(5L)).thenReturn(false);
+
+        categoryService.deleteCategory(5L);
+
+        verify(categoryRepository).deleteById(5L);
+        verify(versionTracker).bumpAfterCommit(ResourceVersionTracker.Resource.CATEGORIES);
+    }
+}
@@ -1,8 +1,18 @@
 package com.example.backend.services;
 
 import com.example.backend.entities.Category;
+import com.example.backend.entities.ImportCheckpoint;
+import com.example.backend.entities.Transaction;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.repositories.CategoryJdbcRepository;
 import com.example.backend.repositories.CategoryRepository;
+import com.example.backend.repositories.ImportCheckpointRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
 import com.example.backend.repositories.TransactionRepository;
+import com.example.backend.utils.IdRanges;
+import com.example.backend.utils.Money;
+import com.example.backend.utils.TransactionFingerprint;
+import jakarta.persistence.EntityManager;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.Row;
@@ -11,18 +21,37 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,18 +64,48 @@ class CsvImportServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryJdbcRepository categoryJdbcRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private ImportCheckpointRepository checkpointRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
     private CsvImportService csvImportService;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
-        csvImportService = new CsvImportService(transactionRepository, categoryRepository);
+        csvImportService = importService(1000);
+        // Like the real batch insert, write generated ids back onto the rows
+        AtomicLong ids = new AtomicLong();
+        lenient().doAnswer(invocation -> {
+            invocation.getArgument(0, List.class).forEach(tx -> ((Transaction) tx).setId(ids.incrementAndGet()));
+            return null;
+        }).when(transactionJdbcRepository).insertAll(anyList());
+    }
+
+    private CsvImportService importService(int chunkSize) {
+        return new CsvImportService(
+                transactionJdbcRepository, categoryRepository, categoryJdbcRepository, checkpointRepository,
+                eventPublisher, new ResourceVersionTracker(),
+                new TransactionDuplicateService(transactionJdbcRepository, transactionRepository, eventPublisher),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), entityManager, chunkSize, 7, 4, 2);
     }
 
     @Test
     void shouldImportCsvFileWithoutBreakingExistingBehavior() {
         Category category = new Category();
         category.setName("Groceries");
-        when(categoryRepository.findByNameIgnoreCase(anyString())).thenReturn(Optional.of(category));
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
 
         String csv = "txnDate,amount,merchant,paymentType,transactionDirection,categoryName,notes\n"
                 + "2025-10-15,145.50,Surya,EXPENSE,DEBIT,Groceries,Weekly grocery run\n";
@@ -58,17 +117,17 @@ class CsvImportServiceTest {
                 csv.getBytes()
         );
 
-        String result = csvImportService.importTransactions(file);
+        String result = csvImportService.importTransactions(file, TransactionDuplicateService.Policy.FLAG);
 
         assertTrue(result.startsWith("CSV Import completed."));
-        verify(transactionRepository).saveAll(anyList());
+        verify(transactionJdbcRepository).insertAll(anyList());
     }
 
     @Test
     void shouldImportXlsxFileFromFirstSheet() throws Exception {
         Category category = new Category();
         category.setName("Groceries");
-        when(categoryRepository.findByNameIgnoreCase(anyString())).thenReturn(Optional.of(category));
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
 
         byte[] excelBytes;
         try (XSSFWorkbook workbook = new XSSFWorkbook();
@@ -110,10 +169,214 @@ class CsvImportServiceTest {
                 excelBytes
         );
 
-        String result = csvImportService.importTransactions(file);
+        String result = csvImportService.importTransactions(file, TransactionDuplicateService.Policy.FLAG);
 
         assertTrue(result.startsWith("Excel Import completed."));
-        verify(transactionRepository).saveAll(anyList());
+        verify(transactionJdbcRepository).insertAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamXlsxWithLocaleDatesFormattedAmountsAndFormulas() throws Exception {
+        byte[] excelBytes;
+        try (XSSFWorkbook workbook = new XSSFWorkbook();
+             ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+
+            CreationHelper creationHelper = workbook.getCreationHelper();
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(creationHelper.createDataFormat().getFormat("d-mmm-yy"));
+            CellStyle amountStyle = workbook.createCellStyle();
+            amountStyle.setDataFormat(creationHelper.createDataFormat().getFormat("#,##0"));
+
+            Sheet sheet = workbook.createSheet("Statement");
+            Row headerRow = sheet.createRow(0);
+            headerRow.createCell(0).setCellValue("txnDate");
+            headerRow.createCell(1).setCellValue("amount");
+            headerRow.createCell(2).setCellValue("merchant");
+
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue(LocalDate.of(2025, 10, 15));
+            first.getCell(0).setCellStyle(dateStyle);
+            first.createCell(1).setCellValue(1234.56);
+            first.getCell(1).setCellStyle(amountStyle);
+            first.createCell(2).setCellValue("Surya");
+
+            // A blank row in between is skipped, not counted as a failure
+            sheet.createRow(2);
+
+            Row second = sheet.createRow(3);
+            second.createCell(0).setCellFormula("DATE(2025,10,16)");
+            second.getCell(0).setCellStyle(dateStyle);
+            second.createCell(1).setCellFormula("100+45.5");
+            second.createCell(2).setCellValue("Uber");
+
+            creationHelper.createFormulaEvaluator().evaluateAll();
+            workbook.write(outputStream);
+            excelBytes = outputStream.toByteArray();
+        }
+
+        MockMultipartFile file = new MockMultipartFile("file", "statement.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", excelBytes);
+        String result = csvImportService.importTransactions(file, TransactionDuplicateService.Policy.ALLOW);
+
+        assertTrue(result.contains("Successfully processed: 2 rows, Failed/Skipped: 0 rows"));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionJdbcRepository).insertAll(captor.capture());
+        Transaction surya = captor.getValue().get(0);
+        assertEquals(LocalDate.of(2025, 10, 15), surya.getTxnDate());
+        assertEquals(Money.of(new BigDecimal("1234.56")), surya.getAmount());
+        Transaction uber = captor.getValue().get(1);
+        assertEquals(LocalDate.of(2025, 10, 16), uber.getTxnDate());
+        assertEquals(Money.of(new BigDecimal("145.5")), uber.getAmount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSkipRowsMatchingAStoredFingerprint() {
+        String csv = "txnDate,amount,merchant,paymentType,transactionDirection\n"
+                + "2025-10-15,145.50,SURYA STORES,EXPENSE,DEBIT\n"
+                + "2025-10-16,80.00,Uber,EXPENSE,DEBIT\n";
+        String storedFingerprint = TransactionFingerprint.of(LocalDate.of(2025, 10, 15), new BigDecimal("145.5"),
+                "Surya Stores", TransactionDirection.DEBIT);
+        when(transactionJdbcRepository.findIdsByFingerprint(anyCollection(), any())).thenReturn(Map.of(storedFingerprint, 42L));
+
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv", csv.getBytes());
+        String result = csvImportService.importTransactions(file, TransactionDuplicateService.Policy.SKIP);
+
+        assertTrue(result.contains("Duplicates (skip): 1 rows"));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionJdbcRepository).insertAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("Uber", captor.getValue().get(0).getMerchant());
+    }
+
+    @Test
+    void laterChunksShouldExcludeOnlyRowsThisImportInserted() {
+        String csv = "txnDate,amount,merchant\n"
+                + "2025-10-11,10.00,A\n"
+                + "2025-10-12,20.00,B\n"
+                + "2025-10-13,30.00,C\n"
+                + "2025-10-14,40.00,D\n";
+        List<String> excluded = new ArrayList<>();
+        when(transactionJdbcRepository.findIdsByFingerprint(anyCollection(), any())).thenAnswer(invocation -> {
+            excluded.add(invocation.getArgument(1, IdRanges.class).encode());
+            return Map.of();
+        });
+
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv", csv.getBytes());
+        importService(2).importTransactions(file, TransactionDuplicateService.Policy.FLAG);
+
+        // Not "ids from 1 on": rows another writer inserts after id 2 must still be matched
+        assertEquals(List.of("", "1-2"), excluded);
+        ArgumentCaptor<ImportCheckpoint> checkpoints = ArgumentCaptor.forClass(ImportCheckpoint.class);
+        verify(checkpointRepository, times(2)).save(checkpoints.capture());
+        assertEquals(List.of("1-2", "1-4"),
+                checkpoints.getAllValues().stream().map(ImportCheckpoint::getOwnIdRanges).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldResolveCategoriesFromMemoryAndCreateUnseenNamesInOneStatement() {
+        Category groceries = new Category(7L, "Groceries", null);
+        Category travel = new Category(8L, "Travel", null);
+        when(categoryRepository.findAll()).thenReturn(List.of(groceries));
+        when(categoryJdbcRepository.createMissing(anyCollection())).thenReturn(Map.of("travel", travel));
+
+        String csv = "txnDate,amount,merchant,paymentType,transactionDirection,categoryName\n"
+                + "2025-10-15,145.50,Surya,EXPENSE,DEBIT,GROCERIES\n"
+                + "2025-10-16,80.00,Uber,EXPENSE,DEBIT,Travel\n"
+                + "2025-10-17,95.00,Ola,EXPENSE,DEBIT,travel\n";
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv", csv.getBytes());
+        csvImportService.importTransactions(file, TransactionDuplicateService.Policy.ALLOW);
+
+        ArgumentCaptor<Collection<String>> names = ArgumentCaptor.forClass(Collection.class);
+        verify(categoryJdbcRepository).createMissing(names.capture());
+        assertEquals(List.of("Travel"), List.copyOf(names.getValue()));
+        verify(categoryRepository, never()).findByNameIgnoreCase(any());
+
+        ArgumentCaptor<List<Transaction>> saved = ArgumentCaptor.forClass(List.class);
+        verify(transactionJdbcRepository).insertAll(saved.capture());
+        assertEquals(List.of(7L, 8L, 8L), saved.getValue().stream().map(tx -> tx.getCategory().getId()).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCommitInChunksAndResumeAfterTheLastCommittedChunk() {
+        String csv = "txnDate,amount,merchant\n"
+                + "2025-10-11,10.00,A\n"
+                + "2025-10-12,20.00,B\n"
+                + "not-a-date,30.00,C\n"
+                + "2025-10-14,40.00,D\n"
+                + "2025-10-15,50.00,E\n";
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv", csv.getBytes());
+        CsvImportService chunked = importService(2);
+
+        // The second chunk fails: rows 1-2 are committed, row 3 failed to parse, rows 4-5 are lost
+        doNothing().doThrow(new IllegalStateException("connection reset"))
+                .when(transactionJdbcRepository).insertAll(anyList());
+        RuntimeException failure = assertThrows(RuntimeException.class,
+                () -> chunked.importTransactions(file, TransactionDuplicateService.Policy.ALLOW));
+        assertTrue(failure.getMessage().contains("The first 2 rows were saved"));
+
+        ArgumentCaptor<ImportCheckpoint> checkpoint = ArgumentCaptor.forClass(ImportCheckpoint.class);
+        verify(checkpointRepository).save(checkpoint.capture());
+        assertEquals(2, checkpoint.getValue().getRowsDone());
+        assertEquals(2, checkpoint.getValue().getSuccessCount());
+        verify(entityManager).clear();
+
+        // Same upload again: rows 1-2 are skipped and the counts carry over
+        doNothing().when(transactionJdbcRepository).insertAll(anyList());
+        when(checkpointRepository.findById(checkpoint.getValue().getKey())).thenReturn(Optional.of(checkpoint.getValue()));
+        String result = chunked.importTransactions(file, TransactionDuplicateService.Policy.ALLOW);
+
+        assertTrue(result.contains("Successfully processed: 4 rows, Failed/Skipped: 1 rows"));
+        assertTrue(result.contains("Resumed after row 2"));
+        ArgumentCaptor<List<Transaction>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(transactionJdbcRepository, times(3)).insertAll(chunks.capture());
+        assertEquals(List.of("A", "B"), chunks.getAllValues().get(0).stream().map(Transaction::getMerchant).toList());
+        assertEquals(List.of("D", "E"), chunks.getAllValues().get(2).stream().map(Transaction::getMerchant).toList());
+        verify(checkpointRepository).deleteById(checkpoint.getValue().getKey());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldParseBatchesInParallelAndWriteThemInFileOrder() {
+        StringBuilder csv = new StringBuilder("txnDate,amount,merchant,categoryName\n");
+        for (int i = 1; i <= 500; i++) {
+            String date = i % 50 == 0 ? "not-a-date" : LocalDate.of(2025, 1, 1).plusDays(i % 365).toString();
+            csv.append(date).append(',').append(i).append(".00,M").append(i).append(",Groceries\n");
+        }
+        Category groceries = new Category(7L, "Groceries", null);
+        when(categoryRepository.findAll()).thenReturn(List.of(groceries));
+
+        MockMultipartFile file = new MockMultipartFile("file", "statement.csv", "text/csv", csv.toString().getBytes());
+        String result = importService(64).importTransactions(file, TransactionDuplicateService.Policy.ALLOW);
+
+        assertTrue(result.contains("Successfully processed: 490 rows, Failed/Skipped: 10 rows"));
+        ArgumentCaptor<List<Transaction>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(transactionJdbcRepository, times(8)).insertAll(chunks.capture());
+        List<Transaction> written = chunks.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(490, written.size());
+        List<String> expected = IntStream.rangeClosed(1, 500)
+                .filter(i -> i % 50 != 0).mapToObj(i -> "M" + i).toList();
+        assertEquals(expected, written.stream().map(Transaction::getMerchant).toList());
+        assertTrue(written.stream().allMatch(tx -> tx.getCategory() == groceries));
+    }
+
+    @Test
+    void shouldReportProgressWhileImporting() {
+        String csv = "txnDate,amount,merchant\n"
+                + "2025-10-11,10.00,A\n"
+                + "oops,20.00,B\n"
+                + "2025-10-13,30.00,C\n";
+        ImportProgress progress = new ImportProgress();
+        importService(1).importTransactions(new ByteArrayResource(csv.getBytes()), "statement.csv",
+                TransactionDuplicateService.Policy.ALLOW, progress);
+
+        assertEquals(3, progress.getRowsParsed());
+        assertEquals(2, progress.getRowsInserted());
+        assertEquals(1, progress.getRowsRejected());
+        assertEquals(1.0, progress.getFractionDone());
     }
 
     @Test
@@ -125,7 +388,8 @@ class CsvImportServiceTest {
                 "abc".getBytes()
         );
 
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> csvImportService.importTransactions(file));
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> csvImportService.importTransactions(file, TransactionDuplicateService.Policy.FLAG));
 
         assertTrue(exception.getMessage().contains("Unsupported file format"));
     }
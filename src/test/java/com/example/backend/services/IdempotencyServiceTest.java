@@ -0,0 +1,205 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.CategoryDto;
+import com.example.backend.entities.IdempotencyRecord;
+import com.example.backend.exceptions.AppException;
+import com.example.backend.repositories.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/v1/categories";
+    private static final String KEY = SCOPE + " retry-1";
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger inserts = new AtomicInteger();
+    private final AtomicBoolean failNextCommit = new AtomicBoolean();
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        // Commit and rollback end the synchronization the way a real transaction manager would
+        TransactionSynchronizationManager.initSynchronization();
+        doAnswer(invocation -> {
+            if (failNextCommit.getAndSet(false)) {
+                restartSynchronization();
+                throw new IllegalStateException("Commit failed");
+            }
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            restartSynchronization();
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            restartSynchronization();
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        idempotencyService = new IdempotencyService(recordRepository, new TransactionTemplate(transactionManager),
+                objectMapper, 24, 100);
+        when(recordRepository.findById(anyString())).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void requestWithoutKeyJustRuns() {
+        ResponseEntity<CategoryDto> response = create(null, "Food");
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, inserts.get());
+        verify(recordRepository, never()).claim(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void firstRequestStoresItsResponseAndRetriesReplayItFromTheCache() {
+        when(recordRepository.claim(eq(KEY), anyString(), eq(24))).thenReturn(1);
+
+        ResponseEntity<CategoryDto> first = create("retry-1", "Food");
+        ResponseEntity<CategoryDto> retry = create("retry-1", "Food");
+
+        assertEquals(1, inserts.get());
+        verify(recordRepository).complete(eq(KEY), eq(201), eq("/api/v1/categories/1"), anyString());
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(URI.create("/api/v1/categories/1"), retry.getHeaders().getLocation());
+        assertEquals(1L, retry.getBody().getId());
+        assertEquals("Food", retry.getBody().getName());
+        // Filled on completion, so only the original request looked the key up
+        verify(recordRepository, times(1)).findById(anyString());
+    }
+
+    @Test
+    void coldRetryReplaysTheStoredResponse() throws Exception {
+        String hash = requestHash("Food");
+        when(recordRepository.findById(KEY)).thenReturn(Optional.of(answered(hash, new CategoryDto(7L, "Food"))));
+
+        ResponseEntity<CategoryDto> retry = create("retry-1", "Food");
+
+        assertEquals(0, inserts.get());
+        assertEquals(7L, retry.getBody().getId());
+        verify(recordRepository, never()).claim(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void reusingAKeyForADifferentBodyIsRejected() {
+        when(recordRepository.claim(eq(KEY), anyString(), eq(24))).thenReturn(1);
+        create("retry-1", "Food");
+
+        AppException ex = assertThrows(AppException.class, () -> create("retry-1", "Travel"));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatus());
+        assertEquals(1, inserts.get());
+    }
+
+    @Test
+    void losingAConcurrentClaimReplaysTheWinner() throws Exception {
+        String hash = requestHash("Food");
+        when(recordRepository.findById(KEY))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(answered(hash, new CategoryDto(9L, "Food"))));
+        when(recordRepository.claim(eq(KEY), eq(hash), eq(24))).thenReturn(0);
+
+        ResponseEntity<CategoryDto> response = create("retry-1", "Food");
+
+        assertEquals(0, inserts.get());
+        assertEquals(9L, response.getBody().getId());
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void losingAClaimToARequestStillInFlightIsAConflict() {
+        when(recordRepository.claim(eq(KEY), anyString(), eq(24))).thenReturn(0);
+
+        AppException ex = assertThrows(AppException.class, () -> create("retry-1", "Food"));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+        assertEquals(0, inserts.get());
+    }
+
+    @Test
+    void responseThatFailedToCommitIsNotReplayed() {
+        when(recordRepository.claim(eq(KEY), anyString(), eq(24))).thenReturn(1);
+        failNextCommit.set(true);
+
+        assertThrows(IllegalStateException.class, () -> create("retry-1", "Food"));
+        ResponseEntity<CategoryDto> retry = create("retry-1", "Food");
+
+        assertEquals(2, inserts.get());
+        assertNull(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    private ResponseEntity<CategoryDto> create(String idempotencyKey, String name) {
+        CategoryDto request = new CategoryDto(null, name);
+        return idempotencyService.execute(SCOPE, idempotencyKey, request, CategoryDto.class, () -> {
+            CategoryDto created = new CategoryDto((long) inserts.incrementAndGet(), name);
+            return ResponseEntity.created(URI.create("/api/v1/categories/" + created.getId())).body(created);
+        });
+    }
+
+    private IdempotencyRecord answered(String requestHash, CategoryDto body) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        return new IdempotencyRecord(KEY, requestHash, 201, "/api/v1/categories/" + body.getId(),
+                objectMapper.writeValueAsString(body), now, now.plusHours(1));
+    }
+
+    // Same fingerprint the service takes of a request body
+    private String requestHash(String name) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsBytes(new CategoryDto(null, name)));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static void restartSynchronization() {
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
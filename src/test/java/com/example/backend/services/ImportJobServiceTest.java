@@ -0,0 +1,98 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.ImportJobDto;
+import com.example.backend.exceptions.AppException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    private CsvImportService csvImportService;
+
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    void setUp() {
+        importJobService = new ImportJobService(csvImportService, 1, 1, 24);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    void shouldQueueUploadsUpToTheCapAndReportTheOutcome() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(csvImportService.importTransactions(any(Resource.class), anyString(), any(), any())).thenAnswer(invocation -> {
+            Resource source = invocation.getArgument(0);
+            assertTrue(source.getFile().exists());
+            started.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return "CSV Import completed.";
+        });
+
+        ImportJobDto running = importJobService.submit(csv("a.csv"), TransactionDuplicateService.Policy.FLAG);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ImportJobDto queued = importJobService.submit(csv("b.csv"), TransactionDuplicateService.Policy.SKIP);
+
+        assertEquals("RUNNING", importJobService.getJob(running.getId()).getStatus());
+        assertEquals("QUEUED", queued.getStatus());
+        assertEquals("skip", queued.getDuplicates());
+        AppException busy = assertThrows(AppException.class,
+                () -> importJobService.submit(csv("c.csv"), TransactionDuplicateService.Policy.FLAG));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, busy.getStatus());
+
+        release.countDown();
+        ImportJobDto done = awaitFinished(queued.getId());
+        assertEquals("COMPLETED", done.getStatus());
+        assertEquals("CSV Import completed.", done.getMessage());
+        assertEquals(100.0, done.getPercentComplete());
+        assertEquals(0L, done.getEtaSeconds());
+    }
+
+    @Test
+    void shouldRejectUnsupportedUploadsAndUnknownJobs() {
+        assertThrows(IllegalArgumentException.class, () -> importJobService.submit(
+                new MockMultipartFile("file", "notes.txt", "text/plain", "abc".getBytes()),
+                TransactionDuplicateService.Policy.FLAG));
+
+        AppException missing = assertThrows(AppException.class, () -> importJobService.getJob("nope"));
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatus());
+    }
+
+    private ImportJobDto awaitFinished(String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ImportJobDto job = importJobService.getJob(id);
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import job " + id + " did not finish");
+    }
+
+    private static MockMultipartFile csv(String name) {
+        return new MockMultipartFile("file", name, "text/csv", "txnDate,amount\n2025-10-15,1.00\n".getBytes());
+    }
+}
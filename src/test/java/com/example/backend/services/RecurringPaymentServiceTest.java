@@ -0,0 +1,105 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.RecurringPaymentDto;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+class RecurringPaymentServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 12, 10);
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private RecurringPaymentService recurringPaymentService;
+
+    @BeforeEach
+    void setUp() {
+        recurringPaymentService = new RecurringPaymentService(transactionJdbcRepository, transactionTemplate);
+        // Arrives out of order, as a statement import would deliver it
+        recurringPaymentService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                debit(3L, "2025-11-01", 64_900, "NETFLIX.COM"),
+                debit(1L, "2025-09-01", 64_900, "Netflix.com"),
+                debit(2L, "2025-10-02", 64_900, "netflix.com"),
+                debit(4L, "2025-12-01", 64_900, "Netflix.com"),
+                debit(10L, "2025-11-03", 45_000, "Swiggy"),
+                debit(11L, "2025-11-04", 38_000, "Swiggy"),
+                debit(12L, "2025-11-20", 52_000, "Swiggy")
+        )));
+    }
+
+    @Test
+    void monthlyChargesShouldBeDetectedWithNextDateAndCost() {
+        List<RecurringPaymentDto> recurring = recurringPaymentService.getRecurringPayments(TODAY, false);
+
+        assertEquals(1, recurring.size());
+        RecurringPaymentDto netflix = recurring.get(0);
+        assertEquals("Netflix.com", netflix.getMerchant());
+        assertEquals("MONTHLY", netflix.getPeriod());
+        assertEquals(4, netflix.getOccurrences());
+        assertEquals(LocalDate.of(2026, 1, 1), netflix.getNextExpectedDate());
+        assertEquals(0, new BigDecimal("649.00").compareTo(netflix.getMonthlyCost()));
+        assertTrue(netflix.isActive());
+    }
+
+    @Test
+    void deletingChargesShouldDropTheSeriesBelowTheThreshold() {
+        recurringPaymentService.onTransactionsChanged(TransactionsChangedEvent.deleted(List.of(
+                debit(4L, "2025-12-01", 64_900, "Netflix.com"),
+                debit(3L, "2025-11-01", 64_900, "NETFLIX.COM"))));
+
+        assertTrue(recurringPaymentService.getRecurringPayments(TODAY, true).isEmpty());
+    }
+
+    @Test
+    void sameDayRepeatsShouldCountAsOneOccurrence() {
+        recurringPaymentService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                debit(5L, "2025-12-01", 64_900, "Netflix.com"),
+                debit(6L, "2025-10-02", 64_900, "Netflix.com"))));
+
+        List<RecurringPaymentDto> recurring = recurringPaymentService.getRecurringPayments(TODAY, false);
+
+        assertEquals(1, recurring.size());
+        assertEquals("MONTHLY", recurring.get(0).getPeriod());
+        assertEquals(4, recurring.get(0).getOccurrences());
+
+        // Dropping the repeat leaves the original charge on that day
+        recurringPaymentService.onTransactionsChanged(TransactionsChangedEvent.deleted(List.of(
+                debit(5L, "2025-12-01", 64_900, "Netflix.com"))));
+        assertEquals(LocalDate.of(2025, 12, 1),
+                recurringPaymentService.getRecurringPayments(TODAY, false).get(0).getLastDate());
+    }
+
+    @Test
+    void overdueSeriesShouldBeReportedInactive() {
+        List<RecurringPaymentDto> recurring = recurringPaymentService.getRecurringPayments(LocalDate.of(2026, 2, 1), true);
+
+        assertEquals(1, recurring.size());
+        assertFalse(recurring.get(0).isActive());
+        assertTrue(recurringPaymentService.getRecurringPayments(LocalDate.of(2026, 2, 1), false).isEmpty());
+    }
+
+    private static TransactionFact debit(Long id, String date, long cents, String merchant) {
+        return new TransactionFact(id, LocalDate.parse(date), cents, null, TransactionDirection.DEBIT, merchant);
+    }
+}
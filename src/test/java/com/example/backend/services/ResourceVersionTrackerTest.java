@@ -0,0 +1,56 @@
+package com.example.backend.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ResourceVersionTrackerTest {
+
+    private final ResourceVersionTracker tracker = new ResourceVersionTracker();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tagIsStableUntilItsResourceChanges() {
+        String transactions = tracker.etag(ResourceVersionTracker.Resource.TRANSACTIONS);
+
+        tracker.bumpAfterCommit(ResourceVersionTracker.Resource.CATEGORIES);
+
+        assertEquals(transactions, tracker.etag(ResourceVersionTracker.Resource.TRANSACTIONS));
+        tracker.bumpAfterCommit(ResourceVersionTracker.Resource.TRANSACTIONS);
+        assertNotEquals(transactions, tracker.etag(ResourceVersionTracker.Resource.TRANSACTIONS));
+    }
+
+    @Test
+    void versionMovesOnlyAfterTheWritingTransactionCommits() {
+        String before = tracker.etag(ResourceVersionTracker.Resource.CATEGORIES);
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.bumpAfterCommit(ResourceVersionTracker.Resource.CATEGORIES);
+        assertEquals(before, tracker.etag(ResourceVersionTracker.Resource.CATEGORIES));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNotEquals(before, tracker.etag(ResourceVersionTracker.Resource.CATEGORIES));
+    }
+
+    @Test
+    void rolledBackWriteKeepsTheTag() {
+        String before = tracker.etag(ResourceVersionTracker.Resource.TRANSACTIONS);
+        TransactionSynchronizationManager.initSynchronization();
+
+        tracker.bumpAfterCommit(ResourceVersionTracker.Resource.TRANSACTIONS);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(before, tracker.etag(ResourceVersionTracker.Resource.TRANSACTIONS));
+    }
+}
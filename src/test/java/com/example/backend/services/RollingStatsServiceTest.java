@@ -0,0 +1,97 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.RollingStatsDto;
+import com.example.backend.dtos.RollingWindowDto;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(MockitoExtension.class)
+class RollingStatsServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private RollingStatsService rollingStatsService;
+
+    @BeforeEach
+    void setUp() {
+        rollingStatsService = new RollingStatsService(transactionJdbcRepository, transactionTemplate);
+        rollingStatsService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                fact(1L, TODAY, 10_000, 5L, TransactionDirection.DEBIT),
+                fact(2L, TODAY.minusDays(6), 2_500, null, TransactionDirection.DEBIT),
+                fact(3L, TODAY.minusDays(20), 50_000, 5L, TransactionDirection.DEBIT),
+                fact(4L, TODAY.minusDays(3), 300_000, 9L, TransactionDirection.CREDIT),
+                fact(5L, TODAY.minusDays(89), 7_000, 5L, TransactionDirection.DEBIT),
+                fact(6L, TODAY.minusDays(90), 99_900, 5L, TransactionDirection.DEBIT),
+                fact(7L, TODAY.plusDays(1), 1_000, 5L, TransactionDirection.DEBIT)
+        )));
+    }
+
+    @Test
+    void windowsShouldBeNestedTrailingTotals() {
+        List<RollingWindowDto> windows = rollingStatsService.getRollingStats(TODAY).getWindows();
+
+        RollingWindowDto week = windows.get(0);
+        assertEquals(7, week.getDays());
+        assertEquals(TODAY.minusDays(6), week.getFrom());
+        assertEquals(new BigDecimal("125.00"), week.getDebitTotal());
+        assertEquals(2, week.getDebitCount());
+        assertEquals(new BigDecimal("3000.00"), week.getCreditTotal());
+        assertEquals(5L, week.getDebitByCategory().get(0).getCategoryId());
+        assertNull(week.getDebitByCategory().get(1).getCategoryId());
+
+        assertEquals(new BigDecimal("625.00"), windows.get(1).getDebitTotal());
+        assertEquals(new BigDecimal("695.00"), windows.get(2).getDebitTotal());
+        assertEquals(4, windows.get(2).getDebitCount());
+    }
+
+    @Test
+    void updatesAndDeletesShouldAdjustTheirDays() {
+        TransactionFact before = fact(1L, TODAY, 10_000, 5L, TransactionDirection.DEBIT);
+        rollingStatsService.onTransactionsChanged(new TransactionsChangedEvent(
+                List.of(before), List.of(fact(1L, TODAY.minusDays(10), 12_000, 5L, TransactionDirection.DEBIT))));
+        rollingStatsService.onTransactionsChanged(new TransactionsChangedEvent(
+                List.of(fact(2L, TODAY.minusDays(6), 2_500, null, TransactionDirection.DEBIT)), List.of()));
+        // Replaying a write already applied must not count it twice
+        rollingStatsService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                fact(3L, TODAY.minusDays(20), 50_000, 5L, TransactionDirection.DEBIT))));
+
+        List<RollingWindowDto> windows = rollingStatsService.getRollingStats(TODAY).getWindows();
+        assertEquals(new BigDecimal("0.00"), windows.get(0).getDebitTotal());
+        assertEquals(new BigDecimal("620.00"), windows.get(1).getDebitTotal());
+    }
+
+    @Test
+    void advancingADayShouldDropTheOldestAndAdmitFutureDatedSpend() {
+        RollingStatsDto tomorrow = rollingStatsService.getRollingStats(TODAY.plusDays(1));
+
+        assertEquals(TODAY.plusDays(1), tomorrow.getAsOf());
+        assertEquals(new BigDecimal("110.00"), tomorrow.getWindows().get(0).getDebitTotal());
+        assertEquals(new BigDecimal("635.00"), tomorrow.getWindows().get(2).getDebitTotal());
+    }
+
+    private static TransactionFact fact(Long id, LocalDate date, long cents, Long categoryId,
+                                        TransactionDirection direction) {
+        return new TransactionFact(id, date, cents, categoryId, direction, "Merchant");
+    }
+}
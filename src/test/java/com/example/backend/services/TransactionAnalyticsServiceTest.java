@@ -0,0 +1,95 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.AnalyticsTotalsDto;
+import com.example.backend.dtos.CategoryTotalDto;
+import com.example.backend.dtos.MerchantTotalDto;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionAnalyticsServiceTest {
+
+    private static final LocalDate OCT_1 = LocalDate.of(2025, 10, 1);
+    private static final LocalDate OCT_31 = LocalDate.of(2025, 10, 31);
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionAnalyticsService analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        analyticsService = new TransactionAnalyticsService(transactionJdbcRepository, transactionTemplate);
+        analyticsService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                fact(1L, "2025-10-02", 12_000, 7L, TransactionDirection.DEBIT, "Swiggy"),
+                fact(2L, "2025-10-05", 30_000, 7L, TransactionDirection.DEBIT, "SWIGGY"),
+                fact(3L, "2025-10-09", 5_000, null, TransactionDirection.DEBIT, "Uber"),
+                fact(4L, "2025-10-31", 5_200_000, null, TransactionDirection.CREDIT, "Acme Corp"),
+                fact(5L, "2025-11-01", 99_900, 7L, TransactionDirection.DEBIT, "Swiggy")
+        )));
+    }
+
+    @Test
+    void totalsShouldApplyDateCategoryAndDirectionFilters() {
+        assertTotals("470.00", 3, analyticsService.getTotals(OCT_1, OCT_31, null, TransactionDirection.DEBIT));
+        assertTotals("420.00", 2, analyticsService.getTotals(OCT_1, OCT_31, 7L, null));
+        assertTotals("0.00", 0, analyticsService.getTotals(null, null, 999L, null));
+        assertTotals("53469.00", 5, analyticsService.getTotals(null, null, null, null));
+    }
+
+    @Test
+    void updatesAndDeletesShouldPatchTheSnapshot() {
+        TransactionFact before = fact(1L, "2025-10-02", 12_000, 7L, TransactionDirection.DEBIT, "Swiggy");
+        analyticsService.onTransactionsChanged(TransactionsChangedEvent.updated(before, before.withCategoryId(null)));
+        // Deleting a middle slot moves the last row into it
+        analyticsService.onTransactionsChanged(TransactionsChangedEvent.deleted(List.of(
+                fact(2L, "2025-10-05", 30_000, 7L, TransactionDirection.DEBIT, "SWIGGY"))));
+
+        List<CategoryTotalDto> byCategory = analyticsService.getTotalsByCategory(OCT_1, OCT_31, TransactionDirection.DEBIT);
+        assertEquals(1, byCategory.size());
+        assertNull(byCategory.get(0).getCategoryId());
+        assertEquals(0, new BigDecimal("170.00").compareTo(byCategory.get(0).getTotalAmount()));
+        assertEquals(2, byCategory.get(0).getCount());
+
+        assertTotals("999.00", 1, analyticsService.getTotals(null, null, 7L, null));
+    }
+
+    @Test
+    void topMerchantsShouldGroupCaseInsensitively() {
+        List<MerchantTotalDto> top = analyticsService.getTopMerchants(null, null, TransactionDirection.DEBIT, 2);
+
+        assertEquals(2, top.size());
+        assertEquals("Swiggy", top.get(0).getMerchant());
+        assertEquals(0, new BigDecimal("1419.00").compareTo(top.get(0).getTotalAmount()));
+        assertEquals(3, top.get(0).getCount());
+        assertEquals("Uber", top.get(1).getMerchant());
+    }
+
+    private static void assertTotals(String expectedAmount, long expectedCount, AnalyticsTotalsDto totals) {
+        assertEquals(0, new BigDecimal(expectedAmount).compareTo(totals.getTotalAmount()));
+        assertEquals(expectedCount, totals.getCount());
+    }
+
+    private static TransactionFact fact(Long id, String date, long cents, Long categoryId,
+                                        TransactionDirection direction, String merchant) {
+        return new TransactionFact(id, LocalDate.parse(date), cents, categoryId, direction, merchant);
+    }
+}
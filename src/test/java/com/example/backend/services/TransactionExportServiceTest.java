@@ -0,0 +1,156 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.TransactionDto;
+import com.example.backend.entities.Category;
+import com.example.backend.entities.Transaction;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.mappers.TransactionMapper;
+import com.example.backend.repositories.CategoryJdbcRepository;
+import com.example.backend.repositories.CategoryRepository;
+import com.example.backend.repositories.ImportCheckpointRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.repositories.TransactionRepository;
+import com.example.backend.utils.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryJdbcRepository categoryJdbcRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionMapper transactionMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionJdbcRepository transactionJdbcRepository;
+
+    @Mock
+    private ImportCheckpointRepository checkpointRepository;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    void setUp() {
+        transactionExportService = new TransactionExportService(
+                transactionRepository, transactionMapper, entityManager, new ObjectMapper());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void csvExportShouldRoundTripThroughImporter() throws Exception {
+        Category groceries = new Category();
+        groceries.setName("Groceries");
+
+        Transaction spend = transaction(LocalDate.of(2025, 10, 15), "145.50", "Big, Bazaar", "EXPENSE",
+                TransactionDirection.DEBIT, groceries, "Weekly \"grocery\" run");
+        Transaction salary = transaction(LocalDate.of(2025, 10, 31), "52000.00", "Acme Corp", "INCOME",
+                TransactionDirection.CREDIT, null, null);
+
+        when(transactionRepository.streamTransactions(null, null, null)).thenReturn(Stream.of(spend, salary));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        transactionExportService.export(TransactionExportService.Format.CSV, null, null, null, outputStream);
+
+        verify(entityManager, times(2)).detach(any(Transaction.class));
+
+        when(categoryRepository.findAll()).thenReturn(List.of(groceries));
+        CsvImportService csvImportService = new CsvImportService(
+                transactionJdbcRepository, categoryRepository, categoryJdbcRepository, checkpointRepository,
+                eventPublisher, new ResourceVersionTracker(),
+                new TransactionDuplicateService(transactionJdbcRepository, transactionRepository, eventPublisher),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), entityManager, 1000, 7, 0, 500);
+        String result = csvImportService.importTransactions(new MockMultipartFile(
+                "file", "export.csv", "text/csv", outputStream.toByteArray()), TransactionDuplicateService.Policy.ALLOW);
+
+        assertTrue(result.contains("Successfully processed: 2 rows"));
+
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionJdbcRepository).insertAll(captor.capture());
+        List<Transaction> imported = captor.getValue();
+
+        assertEquals(2, imported.size());
+        assertSameTransaction(spend, imported.get(0));
+        assertSameTransaction(salary, imported.get(1));
+        assertEquals("Groceries", imported.get(0).getCategory().getName());
+        assertNull(imported.get(1).getCategory());
+    }
+
+    @Test
+    void ndjsonExportShouldWriteOneObjectPerLine() throws Exception {
+        Transaction spend = transaction(LocalDate.of(2025, 10, 15), "145.50", "Swiggy", "EXPENSE",
+                TransactionDirection.DEBIT, null, null);
+        TransactionDto dto = new TransactionDto();
+        dto.setMerchant("Swiggy");
+
+        when(transactionRepository.streamTransactions(null, null, null)).thenReturn(Stream.of(spend, spend));
+        when(transactionMapper.toTransactionDto(spend)).thenReturn(dto);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        transactionExportService.export(TransactionExportService.Format.NDJSON, null, null, null, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"merchant\":\"Swiggy\""));
+    }
+
+    private static Transaction transaction(LocalDate date, String amount, String merchant, String paymentType,
+                                           TransactionDirection direction, Category category, String notes) {
+        Transaction tx = new Transaction();
+        tx.setTxnDate(date);
+        tx.setAmount(Money.of(new BigDecimal(amount)));
+        tx.setMerchant(merchant);
+        tx.setPaymentType(paymentType);
+        tx.setTransactionType(direction);
+        tx.setCategory(category);
+        tx.setNotes(notes);
+        return tx;
+    }
+
+    private static void assertSameTransaction(Transaction expected, Transaction actual) {
+        assertEquals(expected.getTxnDate(), actual.getTxnDate());
+        assertEquals(expected.getAmount(), actual.getAmount());
+        assertEquals(expected.getMerchant(), actual.getMerchant());
+        assertEquals(expected.getPaymentType(), actual.getPaymentType());
+        assertEquals(expected.getTransactionType(), actual.getTransactionType());
+    }
+}
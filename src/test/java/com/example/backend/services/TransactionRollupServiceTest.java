@@ -0,0 +1,182 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.MonthlySummaryDto;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.entities.TransactionMonthlyRollup;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.repositories.TransactionMonthlyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionRollupServiceTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+    private static final LocalDate APRIL = LocalDate.of(2024, 4, 1);
+
+    @Mock
+    private TransactionMonthlyRollupRepository rollupRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new TransactionRollupService(rollupRepository, transactionTemplate);
+    }
+
+    @Test
+    void insertsShouldAccumulateIntoOneUpsertPerKey() {
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                fact(1L, MARCH.plusDays(4), 1_000, 5L, TransactionDirection.DEBIT),
+                fact(2L, MARCH.plusDays(20), 2_500, 5L, TransactionDirection.DEBIT),
+                fact(3L, MARCH.plusDays(9), 700, null, TransactionDirection.DEBIT))));
+
+        verify(rollupRepository).applyDelta(MARCH, 5L, "DEBIT", 3_500L, 2L);
+        verify(rollupRepository).applyDelta(MARCH, TransactionMonthlyRollup.UNCATEGORIZED, "DEBIT", 700L, 1L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void recategorizingShouldMoveTheAmountBetweenCategories() {
+        TransactionFact before = fact(1L, MARCH.plusDays(4), 1_000, 5L, TransactionDirection.DEBIT);
+
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.updated(before, before.withCategoryId(6L)));
+
+        verify(rollupRepository).applyDelta(MARCH, 5L, "DEBIT", -1_000L, -1L);
+        verify(rollupRepository).applyDelta(MARCH, 6L, "DEBIT", 1_000L, 1L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void movingToAnotherMonthShouldMoveTheAmountBetweenMonths() {
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.updated(
+                fact(1L, MARCH.plusDays(30), 1_000, 5L, TransactionDirection.DEBIT),
+                fact(1L, APRIL, 1_200, 5L, TransactionDirection.DEBIT)));
+
+        verify(rollupRepository).applyDelta(MARCH, 5L, "DEBIT", -1_000L, -1L);
+        verify(rollupRepository).applyDelta(APRIL, 5L, "DEBIT", 1_200L, 1L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void updatesWithinTheSameKeyShouldOnlyApplyTheNetChange() {
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.updated(
+                fact(1L, MARCH.plusDays(1), 1_000, 5L, TransactionDirection.DEBIT),
+                fact(1L, MARCH.plusDays(2), 1_500, 5L, TransactionDirection.DEBIT)));
+
+        verify(rollupRepository).applyDelta(MARCH, 5L, "DEBIT", 500L, 0L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void updatesThatNetToZeroShouldNotTouchTheRollup() {
+        TransactionFact before = fact(1L, MARCH.plusDays(1), 1_000, 5L, TransactionDirection.DEBIT);
+
+        // e.g. only the merchant changed
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.updated(before,
+                new TransactionFact(1L, MARCH.plusDays(3), 1_000, 5L, TransactionDirection.DEBIT, "Renamed")));
+
+        verify(rollupRepository, never()).applyDelta(any(), anyLong(), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void softDeletesShouldSubtractFromTheirKeys() {
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.deleted(List.of(
+                fact(1L, MARCH.plusDays(4), 1_000, 5L, TransactionDirection.DEBIT),
+                fact(2L, MARCH.plusDays(5), 4_000, 5L, TransactionDirection.CREDIT))));
+
+        verify(rollupRepository).applyDelta(MARCH, 5L, "DEBIT", -1_000L, -1L);
+        verify(rollupRepository).applyDelta(MARCH, 5L, "CREDIT", -4_000L, -1L);
+        verifyNoMoreInteractions(rollupRepository);
+    }
+
+    @Test
+    void upsertsShouldFollowTheUniqueKeyOrder() {
+        rollupService.onTransactionsChanged(TransactionsChangedEvent.inserted(List.of(
+                fact(1L, APRIL, 100, 2L, TransactionDirection.DEBIT),
+                fact(2L, MARCH, 100, 9L, TransactionDirection.DEBIT),
+                fact(3L, MARCH, 100, 2L, TransactionDirection.DEBIT),
+                fact(4L, MARCH, 100, 2L, TransactionDirection.CREDIT),
+                fact(5L, MARCH, 100, null, TransactionDirection.DEBIT))));
+
+        InOrder order = inOrder(rollupRepository);
+        order.verify(rollupRepository).applyDelta(MARCH, TransactionMonthlyRollup.UNCATEGORIZED, "DEBIT", 100L, 1L);
+        order.verify(rollupRepository).applyDelta(MARCH, 2L, "CREDIT", 100L, 1L);
+        order.verify(rollupRepository).applyDelta(MARCH, 2L, "DEBIT", 100L, 1L);
+        order.verify(rollupRepository).applyDelta(MARCH, 9L, "DEBIT", 100L, 1L);
+        order.verify(rollupRepository).applyDelta(APRIL, 2L, "DEBIT", 100L, 1L);
+        order.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void rebuildShouldReplaceAllRowsUnderTheLock() {
+        rollupService.rebuild();
+
+        InOrder order = inOrder(rollupRepository);
+        order.verify(rollupRepository).lockForRebuild();
+        order.verify(rollupRepository).deleteAllRows();
+        order.verify(rollupRepository).rebuildFromTransactions();
+    }
+
+    @Test
+    void summaryShouldRejectAnInvertedRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> rollupService.getSummary(YearMonth.of(2024, 4), YearMonth.of(2024, 3), null));
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void summaryShouldPassTheCategoryFilterAndMapUncategorizedRowsToNull() {
+        when(rollupRepository.findSummary(MARCH, APRIL, null)).thenReturn(List.of(
+                new TransactionMonthlyRollup(1L, MARCH, TransactionMonthlyRollup.UNCATEGORIZED,
+                        TransactionDirection.DEBIT, 70_050L, 3L),
+                new TransactionMonthlyRollup(2L, APRIL, 5L, TransactionDirection.CREDIT, 1_000L, 1L)));
+        when(rollupRepository.findSummary(MARCH, APRIL, 5L)).thenReturn(List.of(
+                new TransactionMonthlyRollup(2L, APRIL, 5L, TransactionDirection.CREDIT, 1_000L, 1L)));
+
+        List<MonthlySummaryDto> all = rollupService.getSummary(YearMonth.of(2024, 3), YearMonth.of(2024, 4), null);
+        List<MonthlySummaryDto> food = rollupService.getSummary(YearMonth.of(2024, 3), YearMonth.of(2024, 4), 5L);
+
+        assertEquals(2, all.size());
+        assertEquals(YearMonth.of(2024, 3), all.get(0).getMonth());
+        assertNull(all.get(0).getCategoryId());
+        assertEquals(new BigDecimal("700.50"), all.get(0).getTotalAmount());
+        assertEquals(3L, all.get(0).getCount());
+        assertEquals(5L, all.get(1).getCategoryId());
+        assertEquals(1, food.size());
+        assertEquals(TransactionDirection.CREDIT, food.get(0).getTransactionDirection());
+        assertEquals(new BigDecimal("10.00"), food.get(0).getTotalAmount());
+    }
+
+    private static TransactionFact fact(Long id, LocalDate txnDate, long amountCents, Long categoryId,
+                                        TransactionDirection direction) {
+        return new TransactionFact(id, txnDate, amountCents, categoryId, direction, "Shop");
+    }
+}
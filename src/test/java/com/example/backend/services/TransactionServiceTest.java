@@ -0,0 +1,273 @@
+package com.example.backend.services;
+
+import com.example.backend.dtos.BulkCreateResultDto;
+import com.example.backend.dtos.BulkItemResultDto;
+import com.example.backend.dtos.BulkUpdateResultDto;
+import com.example.backend.dtos.CreateTransactionDto;
+import com.example.backend.dtos.TransactionBulkFilterDto;
+import com.example.backend.dtos.UpdateTransactionDto;
+import com.example.backend.entities.Category;
+import com.example.backend.entities.Transaction;
+import com.example.backend.entities.TransactionDirection;
+import com.example.backend.events.TransactionFact;
+import com.example.backend.events.TransactionsChangedEvent;
+import com.example.backend.exceptions.AppException;
+import com.example.backend.mappers.TransactionMapper;
+import com.example.backend.repositories.CategoryRepository;
+import com.example.backend.repositories.SmsMessageRepository;
+import com.example.backend.repositories.TransactionArchiveRepository;
+import com.example.backend.repositories.TransactionJdbcRepository;
+import com.example.backend.repositories.TransactionRepository;
+import com.example.backend.utils.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TransactionServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 11, 1);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private SmsMessageRepository smsMessageRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private TransactionArchiveRepository transactionArchiveRepository;
+
+    @Mock
+    private TransactionMapper transactionMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    // Rows per executed JDBC batch, in execution order
+    private final List<Integer> batches = new ArrayList<>();
+    private long nextId = 1000;
+
+    private TransactionService transactionService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        TransactionJdbcRepository transactionJdbcRepository =
+                new TransactionJdbcRepository(jdbcTemplate, transactionArchiveRepository);
+        transactionService = new TransactionService(
+                transactionRepository, transactionJdbcRepository, smsMessageRepository, categoryRepository,
+                transactionArchiveRepository,
+                new TransactionDuplicateService(transactionJdbcRepository, transactionRepository, eventPublisher),
+                transactionMapper, eventPublisher);
+
+        when(transactionMapper.toTransaction(any(CreateTransactionDto.class))).thenAnswer(invocation -> {
+            CreateTransactionDto dto = invocation.getArgument(0);
+            Transaction transaction = new Transaction();
+            transaction.setTxnDate(dto.getTxnDate());
+            transaction.setAmount(Money.of(dto.getAmount()));
+            transaction.setMerchant(dto.getMerchant());
+            return transaction;
+        });
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Object>>any()))
+                .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection()));
+    }
+
+    @Test
+    void invalidItemsShouldBeRejectedWithoutFailingTheRequest() {
+        Category groceries = new Category();
+        groceries.setId(5L);
+        when(categoryRepository.findAllById(any())).thenReturn(List.of(groceries));
+
+        CreateTransactionDto missingDate = item(null, "100.00", null);
+        CreateTransactionDto unknownCategory = item(DATE, "200.00", 99L);
+        BulkCreateResultDto result = transactionService.createTransactions(
+                List.of(item(DATE, "50.00", 5L), missingDate, unknownCategory, item(DATE, "75.00", null)),
+                TransactionDuplicateService.Policy.ALLOW);
+
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getRejected());
+        List<BulkItemResultDto> items = result.getResults();
+        assertEquals(List.of(0, 1, 2, 3), items.stream().map(BulkItemResultDto::getIndex).toList());
+        assertEquals(List.of(BulkItemResultDto.CREATED, BulkItemResultDto.REJECTED,
+                        BulkItemResultDto.REJECTED, BulkItemResultDto.CREATED),
+                items.stream().map(BulkItemResultDto::getStatus).toList());
+        assertEquals("txnDate is required", items.get(1).getError());
+        assertEquals("Category not found", items.get(2).getError());
+        assertNull(items.get(1).getId());
+        assertEquals(List.of(1000L, 1001L), List.of(items.get(0).getId(), items.get(3).getId()));
+    }
+
+    @Test
+    void generatedIdsShouldBeWrittenBackInRequestOrderAcrossBatches() {
+        int size = 2 * TransactionJdbcRepository.BATCH_SIZE + 2;
+        List<CreateTransactionDto> dtos = IntStream.range(0, size)
+                .mapToObj(i -> i == 700 ? item(DATE, null, null) : item(DATE, i + ".00", null))
+                .toList();
+
+        BulkCreateResultDto result = transactionService.createTransactions(dtos, TransactionDuplicateService.Policy.ALLOW);
+
+        assertEquals(size - 1, result.getCreated());
+        assertEquals(List.of(TransactionJdbcRepository.BATCH_SIZE, TransactionJdbcRepository.BATCH_SIZE, 1), batches);
+        long expectedId = 1000;
+        for (BulkItemResultDto item : result.getResults()) {
+            if (item.getIndex() == 700) {
+                assertEquals(BulkItemResultDto.REJECTED, item.getStatus());
+                assertNull(item.getId());
+            } else {
+                assertEquals(expectedId++, item.getId());
+            }
+        }
+
+        ArgumentCaptor<TransactionsChangedEvent> event = ArgumentCaptor.forClass(TransactionsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        List<TransactionFact> added = event.getValue().added();
+        assertEquals(size - 1, added.size());
+        assertEquals(1000L, added.get(0).id());
+        assertEquals(TransactionDirection.DEBIT, added.get(0).direction());
+    }
+
+    @Test
+    void allRejectedShouldNotTouchTheDatabase() {
+        BulkCreateResultDto result = transactionService.createTransactions(
+                List.of(item(null, "1.00", null), item(DATE, null, null)), TransactionDuplicateService.Policy.ALLOW);
+
+        assertEquals(0, result.getCreated());
+        assertEquals(2, result.getRejected());
+        verify(jdbcTemplate, never()).execute(ArgumentMatchers.<ConnectionCallback<Object>>any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void oversizedRequestShouldBeRefused() {
+        List<CreateTransactionDto> dtos = IntStream.rangeClosed(0, TransactionService.MAX_BULK_SIZE)
+                .mapToObj(i -> item(DATE, "1.00", null))
+                .toList();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.createTransactions(dtos, TransactionDuplicateService.Policy.ALLOW));
+    }
+
+    @Test
+    void editingAnArchivedTransactionShouldBeAConflict() {
+        when(transactionRepository.findById(7L)).thenReturn(Optional.empty());
+        when(transactionArchiveRepository.contains(7L)).thenReturn(true);
+
+        AppException update = assertThrows(AppException.class,
+                () -> transactionService.updateTransaction(7L, new UpdateTransactionDto()));
+        AppException delete = assertThrows(AppException.class, () -> transactionService.deleteTransaction(7L));
+
+        assertEquals(HttpStatus.CONFLICT, update.getStatus());
+        assertEquals(HttpStatus.CONFLICT, delete.getStatus());
+        verify(transactionRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void unknownTransactionShouldStillBeNotFound() {
+        when(transactionRepository.findById(7L)).thenReturn(Optional.empty());
+
+        AppException ex = assertThrows(AppException.class, () -> transactionService.deleteTransaction(7L));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatus());
+    }
+
+    @Test
+    void bulkDeleteShouldReportArchivedMatchesAsSkipped() {
+        TransactionFact deleted = new TransactionFact(1L, DATE, 5_000, null, TransactionDirection.DEBIT, "Swiggy");
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<TransactionFact>>any(), any(Object[].class)))
+                .thenReturn(List.of(deleted));
+        when(transactionArchiveRepository.reaches(null)).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any(Object[].class))).thenReturn(3);
+
+        BulkUpdateResultDto result = transactionService.deleteTransactions(
+                new TransactionBulkFilterDto("Swiggy", null, null, null, null));
+
+        assertEquals(1, result.getAffected());
+        assertEquals(3, result.getSkippedArchived());
+        verify(jdbcTemplate).queryForObject(
+                "SELECT COUNT(*) FROM transactions_archive WHERE is_deleted = false AND LOWER(merchant) = LOWER(?) ",
+                Integer.class, "Swiggy");
+    }
+
+    @Test
+    void bulkWritesWithinTheHotRangeShouldNotQueryTheArchive() {
+        LocalDate from = LocalDate.now().minusDays(7);
+        when(transactionArchiveRepository.reaches(from)).thenReturn(false);
+
+        BulkUpdateResultDto result = transactionService.deleteTransactions(
+                new TransactionBulkFilterDto(null, from, null, null, null));
+
+        assertEquals(0, result.getSkippedArchived());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Integer.class), any(Object[].class));
+    }
+
+    private static CreateTransactionDto item(LocalDate date, String amount, Long categoryId) {
+        CreateTransactionDto dto = new CreateTransactionDto();
+        dto.setTxnDate(date);
+        dto.setAmount(amount == null ? null : new BigDecimal(amount));
+        dto.setMerchant("Swiggy");
+        dto.setPaymentType("UPI");
+        dto.setCategoryId(categoryId);
+        return dto;
+    }
+
+    // A connection whose batch inserts hand out sequential ids, one per added row
+    private Connection connection() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        int[] rows = {0};
+        when(connection.prepareStatement(anyString(), any(String[].class))).thenReturn(ps);
+        doAnswer(invocation -> rows[0]++).when(ps).addBatch();
+        when(ps.executeBatch()).thenAnswer(invocation -> {
+            batches.add(rows[0]);
+            return new int[rows[0]];
+        });
+        when(ps.getGeneratedKeys()).thenAnswer(invocation -> {
+            ResultSet keys = mock(ResultSet.class);
+            int[] remaining = {rows[0]};
+            when(keys.next()).thenAnswer(next -> remaining[0]-- > 0);
+            when(keys.getLong(1)).thenAnswer(id -> nextId++);
+            return keys;
+        });
+        return connection;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdRangesTest {
+
+    @Test
+    void consecutiveIdsShouldCollapseIntoRanges() {
+        IdRanges ids = new IdRanges();
+        for (long id = 1; id <= 500; id++) {
+            ids.add(id);
+        }
+        // Taken by another writer in between
+        for (long id = 503; id <= 900; id++) {
+            ids.add(id);
+        }
+        ids.add(7);
+
+        assertEquals("1-500,503-900", ids.encode());
+        assertTrue(ids.contains(500));
+        assertFalse(ids.contains(501));
+        assertFalse(ids.contains(901));
+    }
+
+    @Test
+    void idFillingAGapShouldJoinItsNeighbours() {
+        IdRanges ids = new IdRanges();
+        ids.add(5);
+        ids.add(3);
+        ids.add(4);
+        ids.add(10);
+
+        assertEquals("3-5,10", ids.encode());
+        assertEquals(2, ids.starts().length);
+    }
+
+    @Test
+    void encodedRangesShouldRoundTrip() {
+        IdRanges ids = IdRanges.decode("1-500,503-900,1200");
+
+        assertEquals("1-500,503-900,1200", ids.encode());
+        assertTrue(ids.contains(1200));
+        assertTrue(IdRanges.decode(null).isEmpty());
+        assertTrue(IdRanges.decode("").isEmpty());
+    }
+
+    @Test
+    void malformedRangesShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> IdRanges.decode("5-1"));
+        assertThrows(IllegalArgumentException.class, () -> IdRanges.decode("1-10,8-12"));
+        assertThrows(IllegalArgumentException.class, () -> IdRanges.decode("1-x"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.backend.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JdbcTimestampsTest {
+
+    private final TimeZone jvmZone = TimeZone.getDefault();
+
+    @AfterEach
+    void restoreZone() {
+        TimeZone.setDefault(jvmZone);
+    }
+
+    @Test
+    void localTimesShouldBeShiftedToUtcWallClock() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+
+        assertEquals(LocalDateTime.of(2024, 3, 1, 6, 30),
+                JdbcTimestamps.utc(LocalDateTime.of(2024, 3, 1, 12, 0)));
+        assertEquals(LocalDateTime.of(2024, 2, 29, 19, 0),
+                JdbcTimestamps.utc(LocalDateTime.of(2024, 3, 1, 0, 30)));
+    }
+
+    @Test
+    void utcJvmShouldKeepTheValue() {
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+
+        assertEquals(LocalDateTime.of(2024, 3, 1, 12, 0), JdbcTimestamps.utc(LocalDateTime.of(2024, 3, 1, 12, 0)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.utils;
+
+import com.example.backend.dtos.GroupTransactionDto;
+import com.example.backend.dtos.TransactionDto;
+import com.example.backend.entities.TransactionDirection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    // Same modules Spring Boot registers, including parameter names
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void amountsShouldRoundHalfUpToCents() {
+        assertEquals(14_550L, Money.of(new BigDecimal("145.5")).cents());
+        assertEquals(1L, Money.of(new BigDecimal("0.005")).cents());
+        assertEquals(-1L, Money.of(new BigDecimal("-0.005")).cents());
+        assertEquals(new BigDecimal("145.50"), Money.ofCents(14_550).toBigDecimal());
+        assertEquals("145.50", Money.ofCents(14_550).toString());
+    }
+
+    @Test
+    void arithmeticShouldFailOnOverflowInsteadOfWrapping() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        assertEquals(Money.ofCents(33), Money.ofCents(100).divide(3));
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).negate());
+    }
+
+    @Test
+    void jsonShapeShouldMatchScaleTwoBigDecimal() throws Exception {
+        Money amount = Money.of(new BigDecimal("145.5"));
+
+        assertEquals(objectMapper.writeValueAsString(new BigDecimal("145.50")), objectMapper.writeValueAsString(amount));
+        assertEquals(amount, objectMapper.readValue("145.50", Money.class));
+        assertEquals(amount, objectMapper.readValue("\"145.5\"", Money.class));
+    }
+
+    @Test
+    void transactionDtoShouldRoundTripWithTheSameAmountField() throws Exception {
+        TransactionDto dto = new TransactionDto(7L, null, LocalDate.of(2025, 10, 15), Money.ofCents(14_550), "Swiggy",
+                "UPI", "UPI", TransactionDirection.DEBIT, 5L, "Food", null, null);
+
+        String json = objectMapper.writeValueAsString(dto);
+        TransactionDto read = objectMapper.readValue(json, TransactionDto.class);
+
+        assertTrue(json.contains("\"amount\":145.50"), json);
+        assertEquals(dto.getAmount(), read.getAmount());
+        assertEquals(json, objectMapper.writeValueAsString(read));
+    }
+
+    @Test
+    void groupTransactionDtoShouldRoundTripWithTheSameAmountField() throws Exception {
+        GroupTransactionDto dto = new GroupTransactionDto(3L, "Dinner", Money.ofCents(120_000), "Asha", 1L,
+                List.of("Asha", "Ravi"), LocalDateTime.of(2025, 10, 15, 20, 30));
+        String before = objectMapper.writeValueAsString(Map.of("amount", new BigDecimal("1200.00")));
+
+        String json = objectMapper.writeValueAsString(dto);
+        GroupTransactionDto read = objectMapper.readValue(json, GroupTransactionDto.class);
+
+        assertTrue(json.contains(before.substring(1, before.length() - 1)), json);
+        assertEquals(dto, read);
+    }
+
+    @Test
+    void converterShouldMapToTheNumericColumn() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertEquals(new BigDecimal("145.50"), converter.convertToDatabaseColumn(Money.ofCents(14_550)));
+        assertEquals(Money.ofCents(14_550), converter.convertToEntityAttribute(new BigDecimal("145.50")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyUtilsTest {
+
+    @Test
+    void divideShouldRoundHalfUpLikeBigDecimal() {
+        long[] amounts = {100, 101, 150, 250, -250, -101, 1, -1, 99_999};
+        int[] parts = {2, 3, 4, 7};
+        for (long cents : amounts) {
+            for (int n : parts) {
+                BigDecimal expected = BigDecimal.valueOf(cents, 2)
+                        .divide(BigDecimal.valueOf(n), 2, RoundingMode.HALF_UP);
+                assertEquals(expected, MoneyUtils.fromCents(MoneyUtils.divideCents(cents, n)), cents + " / " + n);
+            }
+        }
+    }
+
+    @Test
+    void divideShouldRejectNonPositiveParts() {
+        assertThrows(IllegalArgumentException.class, () -> MoneyUtils.divideCents(100, 0));
+    }
+
+    @Test
+    void toCentsShouldRoundHalfUpAndTreatNullAsZero() {
+        assertEquals(14_550, MoneyUtils.toCents(new BigDecimal("145.5")));
+        assertEquals(14_551, MoneyUtils.toCents(new BigDecimal("145.505")));
+        assertEquals(-14_551, MoneyUtils.toCents(new BigDecimal("-145.505")));
+        assertEquals(0, MoneyUtils.toCents(null));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.backend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SyncWatermarkTest {
+
+    @Test
+    void encodedWatermarkShouldRoundTrip() {
+        SyncWatermark watermark = new SyncWatermark(4_294_967_400L, 812L);
+
+        assertEquals(watermark, SyncWatermark.decode(watermark.encode()));
+    }
+
+    @Test
+    void timestampWatermarkShouldRestartFromTheBeginning() {
+        String legacy = encode("2025-10-15T09:30:12.345|812");
+
+        assertEquals(SyncWatermark.START, SyncWatermark.decode(legacy));
+    }
+
+    @Test
+    void malformedWatermarkShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SyncWatermark.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> SyncWatermark.decode(encode("v2|12")));
+        assertThrows(IllegalArgumentException.class, () -> SyncWatermark.decode(encode("v3|1|2")));
+        assertThrows(IllegalArgumentException.class, () -> SyncWatermark.decode(encode("yesterday|812")));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
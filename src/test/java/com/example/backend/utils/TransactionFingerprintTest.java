@@ -0,0 +1,36 @@
+package com.example.backend.utils;
+
+import com.example.backend.entities.TransactionDirection;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TransactionFingerprintTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 10, 15);
+
+    @Test
+    void sameChargeFromDifferentSourcesShouldMatch() {
+        String manual = TransactionFingerprint.of(DATE, new BigDecimal("145.5"), "Amazon Pay", TransactionDirection.DEBIT);
+        String sms = TransactionFingerprint.of(DATE, new BigDecimal("145.50"), "AMAZON PAY*", TransactionDirection.DEBIT);
+        String statement = TransactionFingerprint.of(DATE, new BigDecimal("145.500"), " amazon-pay ", null);
+
+        assertEquals(TransactionFingerprint.LENGTH, manual.length());
+        assertEquals(manual, sms);
+        assertEquals(manual, statement);
+    }
+
+    @Test
+    void anyDifferingFieldShouldChangeTheFingerprint() {
+        String base = TransactionFingerprint.of(DATE, new BigDecimal("145.50"), "Swiggy", TransactionDirection.DEBIT);
+
+        assertNotEquals(base, TransactionFingerprint.of(DATE.plusDays(1), new BigDecimal("145.50"), "Swiggy", TransactionDirection.DEBIT));
+        assertNotEquals(base, TransactionFingerprint.of(DATE, new BigDecimal("145.51"), "Swiggy", TransactionDirection.DEBIT));
+        assertNotEquals(base, TransactionFingerprint.of(DATE, new BigDecimal("145.50"), "Zomato", TransactionDirection.DEBIT));
+        assertNotEquals(base, TransactionFingerprint.of(DATE, new BigDecimal("145.50"), "Swiggy", TransactionDirection.CREDIT));
+    }
+}